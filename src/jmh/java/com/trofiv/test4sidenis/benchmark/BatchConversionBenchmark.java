@@ -0,0 +1,59 @@
+package com.trofiv.test4sidenis.benchmark;
+
+import com.trofiv.test4sidenis.binaryclock.BerlinBinaryClock;
+import com.trofiv.test4sidenis.binaryclock.BinaryClockBatch;
+import com.trofiv.test4sidenis.binaryclock.BinaryClockBatchConverter;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures scaling of batch conversion with count of fork-join workers.
+ * Throughput is expected to grow roughly linearly up to count of physical cores.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class BatchConversionBenchmark {
+    private static final int BATCH_SIZE = 1 << 20;
+
+    @Param({"1", "2", "4", "8"})
+    private int parallelism;
+
+    private ForkJoinPool pool;
+    private BinaryClockBatchConverter converter;
+    private long[] nanosOfDay;
+
+    @Setup
+    public void setUp() {
+        pool = new ForkJoinPool(parallelism);
+        converter = new BinaryClockBatchConverter(BerlinBinaryClock.BERLIN_CLOCK_PATTERN,
+                pool, BinaryClockBatchConverter.DEFAULT_SPLIT_THRESHOLD);
+        nanosOfDay = BenchmarkData.randomNanosOfDay(BATCH_SIZE);
+    }
+
+    @TearDown
+    public void tearDown() {
+        pool.shutdown();
+    }
+
+    @Benchmark
+    public BinaryClockBatch convert() {
+        return converter.convert(nanosOfDay);
+    }
+}
@@ -0,0 +1,87 @@
+package com.trofiv.test4sidenis.benchmark;
+
+import com.trofiv.test4sidenis.binaryclock.BinaryClockPattern;
+import com.trofiv.test4sidenis.binaryclock.BinaryClockRowPattern;
+
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A {@code BenchmarkData} class contains deterministic input data shared by benchmarks.
+ */
+final class BenchmarkData {
+    /**
+     * Count of prepared times, benchmarks iterate over them using {@code TIMES_MASK}.
+     */
+    static final int TIMES_COUNT = 1024;
+    static final int TIMES_MASK = TIMES_COUNT - 1;
+    private static final long NANOS_IN_DAY = TimeUnit.DAYS.toNanos(1);
+    private static final int MAX_CELL_MILLIS = 1000;
+    private static final long SEED = 42L;
+
+    private BenchmarkData() {
+    }
+
+    /**
+     * Generates random times within a day.
+     *
+     * @param count specified count of times
+     * @return times as nanoseconds from start of day
+     */
+    static long[] randomNanosOfDay(final int count) {
+        final Random random = new Random(SEED);
+        final long[] nanosOfDay = new long[count];
+        for (int index = 0; index < count; index++) {
+            nanosOfDay[index] = (random.nextLong() >>> 1) % NANOS_IN_DAY;
+        }
+        return nanosOfDay;
+    }
+
+    /**
+     * Generates {@code TIMES_COUNT} random times within a day.
+     *
+     * @return array of random times
+     */
+    static LocalTime[] randomTimes() {
+        final long[] nanosOfDay = randomNanosOfDay(TIMES_COUNT);
+        final LocalTime[] times = new LocalTime[nanosOfDay.length];
+        for (int index = 0; index < nanosOfDay.length; index++) {
+            times[index] = LocalTime.ofNanoOfDay(nanosOfDay[index]);
+        }
+        return times;
+    }
+
+    /**
+     * Generates rows of large custom pattern. First row covers entire day by hours, all other
+     * rows have random millisecond cells.
+     *
+     * @param rowCount   specified count of rows
+     * @param cellsInRow specified count of cells in each row except first
+     * @return rows of valid binary clock pattern
+     */
+    @SuppressWarnings("MagicNumber")
+    static List<BinaryClockRowPattern> largePatternRows(final int rowCount, final int cellsInRow) {
+        final Random random = new Random(SEED);
+        final List<BinaryClockRowPattern> clockRows = new ArrayList<>(rowCount);
+        clockRows.add(new BinaryClockRowPattern(1, TimeUnit.HOURS, 24));
+        for (int rowNumber = 1; rowNumber < rowCount; rowNumber++) {
+            //noinspection ObjectAllocationInLoop
+            clockRows.add(new BinaryClockRowPattern(1 + random.nextInt(MAX_CELL_MILLIS), TimeUnit.MILLISECONDS, cellsInRow));
+        }
+        return clockRows;
+    }
+
+    /**
+     * Generates large custom pattern.
+     *
+     * @param rowCount   specified count of rows
+     * @param cellsInRow specified count of cells in each row except first
+     * @return valid binary clock pattern
+     */
+    static BinaryClockPattern largePattern(final int rowCount, final int cellsInRow) {
+        return new BinaryClockPattern(largePatternRows(rowCount, cellsInRow));
+    }
+}
@@ -0,0 +1,73 @@
+package com.trofiv.test4sidenis.benchmark;
+
+import com.trofiv.test4sidenis.binaryclock.BerlinBinaryClock;
+import com.trofiv.test4sidenis.binaryclock.BinaryClockRowRepresentation;
+import com.trofiv.test4sidenis.binaryclock.PrecomputedBinaryClock;
+import com.trofiv.test4sidenis.binaryclock.format.ClockFormatter;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.LocalTime;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * Measures {@code BerlinBinaryClock.of} with each of predefined formatters,
+ * for calculating and for table-backed clocks.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class BerlinClockBenchmark {
+    @Param({"READABLE", "BERLIN_CLOCK"})
+    private String formatter;
+
+    private Function<List<BinaryClockRowRepresentation>, String> representFunction;
+    private BerlinBinaryClock clock;
+    private PrecomputedBinaryClock precomputedClock;
+    private LocalTime[] times;
+    private int index;
+
+    @Setup
+    public void setUp() {
+        representFunction = "READABLE".equals(formatter)
+                ? ClockFormatter.READABLE_FORMATTER
+                : ClockFormatter.BERLIN_CLOCK_FORMATTER;
+        clock = new BerlinBinaryClock();
+        precomputedClock = BerlinBinaryClock.precomputed();
+        times = BenchmarkData.randomTimes();
+    }
+
+    private LocalTime nextTime() {
+        index = (index + 1) & BenchmarkData.TIMES_MASK;
+        return times[index];
+    }
+
+    @Benchmark
+    public String of() {
+        return clock.of(nextTime(), representFunction);
+    }
+
+    @Benchmark
+    public String ofPrecomputed() {
+        return precomputedClock.of(nextTime(), representFunction);
+    }
+
+    @Benchmark
+    public String ofCached() {
+        return precomputedClock.ofCached(nextTime(), representFunction);
+    }
+}
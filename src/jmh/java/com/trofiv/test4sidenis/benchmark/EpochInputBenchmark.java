@@ -0,0 +1,66 @@
+package com.trofiv.test4sidenis.benchmark;
+
+import com.trofiv.test4sidenis.binaryclock.BerlinBinaryClock;
+import com.trofiv.test4sidenis.binaryclock.GenericBinaryClock;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.Instant;
+import java.time.ZoneId;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures conversion of epoch milliseconds to light cells counts: through {@code Instant},
+ * {@code ZonedDateTime} and {@code LocalTime}, and through primitive epoch entry point.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class EpochInputBenchmark {
+    private static final long SEED = 42L;
+    private static final long EPOCH_MILLI_FROM = 1451606400000L;
+    private static final long EPOCH_MILLI_RANGE = TimeUnit.DAYS.toMillis(365);
+
+    private final ZoneId zone = ZoneId.of("Europe/Berlin");
+    private final GenericBinaryClock clock = BerlinBinaryClock.shared();
+    private final int[] lightCells = new int[5];
+    private long[] epochMillis;
+    private int index;
+
+    @Setup
+    public void setUp() {
+        final Random random = new Random(SEED);
+        epochMillis = new long[BenchmarkData.TIMES_COUNT];
+        for (int i = 0; i < epochMillis.length; i++) {
+            epochMillis[i] = EPOCH_MILLI_FROM + (random.nextLong() & Long.MAX_VALUE) % EPOCH_MILLI_RANGE;
+        }
+    }
+
+    private long nextEpochMilli() {
+        index = (index + 1) & BenchmarkData.TIMES_MASK;
+        return epochMillis[index];
+    }
+
+    @Benchmark
+    public int[] zonedDateTime() {
+        return clock.calculateLightCells(
+                Instant.ofEpochMilli(nextEpochMilli()).atZone(zone).toLocalTime().toNanoOfDay(), lightCells);
+    }
+
+    @Benchmark
+    public int[] epochMilli() {
+        return clock.calculateLightCellsAtEpochMilli(nextEpochMilli(), zone, lightCells);
+    }
+}
@@ -0,0 +1,69 @@
+package com.trofiv.test4sidenis.benchmark;
+
+import com.trofiv.test4sidenis.binaryclock.BerlinBinaryClock;
+import com.trofiv.test4sidenis.binaryclock.BinaryClockPattern;
+import com.trofiv.test4sidenis.binaryclock.BinaryClockRowPattern;
+import com.trofiv.test4sidenis.binaryclock.CompiledBinaryClockPattern;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures allocation-free evaluation of compiled patterns in each evaluation mode.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class EvaluationBenchmark {
+    @Param({"BERLIN", "POWER_OF_TWO", "GENERIC"})
+    private String pattern;
+
+    private CompiledBinaryClockPattern compiledPattern;
+    private long[] nanosOfDay;
+    private int[] lightCells;
+    private int index;
+
+    @SuppressWarnings("MagicNumber")
+    @Setup
+    public void setUp() {
+        final BinaryClockPattern clockPattern;
+        switch (pattern) {
+            case "POWER_OF_TWO":
+                clockPattern = new BinaryClockPattern(Arrays.asList(
+                        new BinaryClockRowPattern(1 << 30, TimeUnit.NANOSECONDS, 81_000),
+                        new BinaryClockRowPattern(1 << 20, TimeUnit.NANOSECONDS, 1023),
+                        new BinaryClockRowPattern(1 << 10, TimeUnit.NANOSECONDS, 1023),
+                        new BinaryClockRowPattern(1, TimeUnit.NANOSECONDS, 1023)));
+                break;
+            case "GENERIC":
+                clockPattern = new BinaryClockPattern(BerlinBinaryClock.BERLIN_CLOCK_PATTERN.getClockRows().subList(0, 4));
+                break;
+            default:
+                clockPattern = BerlinBinaryClock.BERLIN_CLOCK_PATTERN;
+                break;
+        }
+        compiledPattern = clockPattern.compile();
+        nanosOfDay = BenchmarkData.randomNanosOfDay(BenchmarkData.TIMES_COUNT);
+        lightCells = new int[compiledPattern.getRowCount()];
+    }
+
+    @Benchmark
+    public int[] evaluate() {
+        index = (index + 1) & BenchmarkData.TIMES_MASK;
+        return compiledPattern.evaluate(nanosOfDay[index], lightCells);
+    }
+}
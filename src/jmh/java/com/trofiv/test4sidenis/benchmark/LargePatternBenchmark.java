@@ -0,0 +1,63 @@
+package com.trofiv.test4sidenis.benchmark;
+
+import com.trofiv.test4sidenis.binaryclock.GenericBinaryClock;
+import com.trofiv.test4sidenis.binaryclock.format.ClockFormatter;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.LocalTime;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures evaluation and formatting of large custom patterns
+ * (hundreds of rows, thousands of cells).
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class LargePatternBenchmark {
+    @Param({"100", "500"})
+    private int rows;
+
+    @Param({"10", "100"})
+    private int cellsInRow;
+
+    private GenericBinaryClock clock;
+    private long[] nanosOfDay;
+    private int[] lightCells;
+    private int index;
+
+    @Setup
+    public void setUp() {
+        clock = new GenericBinaryClock(BenchmarkData.largePattern(rows, cellsInRow));
+        nanosOfDay = BenchmarkData.randomNanosOfDay(BenchmarkData.TIMES_COUNT);
+        lightCells = new int[rows];
+    }
+
+    private long nextNanoOfDay() {
+        index = (index + 1) & BenchmarkData.TIMES_MASK;
+        return nanosOfDay[index];
+    }
+
+    @Benchmark
+    public int[] calculateLightCells() {
+        return clock.calculateLightCells(nextNanoOfDay(), lightCells);
+    }
+
+    @Benchmark
+    public String ofReadable() {
+        return clock.of(LocalTime.ofNanoOfDay(nextNanoOfDay()), ClockFormatter.READABLE_FORMATTER);
+    }
+}
@@ -0,0 +1,76 @@
+package com.trofiv.test4sidenis.benchmark;
+
+import com.trofiv.test4sidenis.binaryclock.BerlinBinaryClock;
+import com.trofiv.test4sidenis.binaryclock.BinaryClockRowPattern;
+import com.trofiv.test4sidenis.binaryclock.BinaryClockRowRepresentation;
+import com.trofiv.test4sidenis.binaryclock.metrics.ClockMetrics;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * Measures cost of {@code ClockMetrics} instrumentation of {@code GenericBinaryClock.of}. Metrics switch
+ * is a constant read at class initialization, so each mode runs in its own fork. Reference method does the
+ * same work as {@code of} without going through it, so disabled mode must not differ from it.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@State(Scope.Thread)
+public class MetricsBenchmark {
+    private static final Function<List<BinaryClockRowRepresentation>, Integer> LIGHT_CELLS_SUM = rows -> {
+        int sum = 0;
+        for (BinaryClockRowRepresentation row : rows) {
+            sum += row.getLightCellsCount();
+        }
+        return sum;
+    };
+
+    private final BerlinBinaryClock clock = new BerlinBinaryClock();
+    private final List<BinaryClockRowPattern> clockRows = clock.getClockPattern().getClockRows();
+    private LocalTime[] times;
+    private int index;
+
+    @Setup
+    public void setUp() {
+        times = BenchmarkData.randomTimes();
+    }
+
+    @Benchmark
+    @Fork(1)
+    public Integer uninstrumented() {
+        final int[] lightCells = clock.calculateLightCells(times[index++ & BenchmarkData.TIMES_MASK].toNanoOfDay(),
+                new int[clockRows.size()]);
+        final List<BinaryClockRowRepresentation> representation = new ArrayList<>(lightCells.length);
+        for (int rowNumber = 0; rowNumber < lightCells.length; rowNumber++) {
+            representation.add(new BinaryClockRowRepresentation(clockRows.get(rowNumber), lightCells[rowNumber]));
+        }
+        return LIGHT_CELLS_SUM.apply(representation);
+    }
+
+    @Benchmark
+    @Fork(1)
+    public Integer metricsDisabled() {
+        return clock.of(times[index++ & BenchmarkData.TIMES_MASK], LIGHT_CELLS_SUM);
+    }
+
+    @Benchmark
+    @Fork(value = 1, jvmArgsAppend = "-D" + ClockMetrics.ENABLED_PROPERTY + "=true")
+    public Integer metricsEnabled() {
+        return clock.of(times[index++ & BenchmarkData.TIMES_MASK], LIGHT_CELLS_SUM);
+    }
+}
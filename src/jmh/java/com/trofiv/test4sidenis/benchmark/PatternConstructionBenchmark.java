@@ -0,0 +1,74 @@
+package com.trofiv.test4sidenis.benchmark;
+
+import com.trofiv.test4sidenis.binaryclock.BerlinBinaryClock;
+import com.trofiv.test4sidenis.binaryclock.BinaryClockPattern;
+import com.trofiv.test4sidenis.binaryclock.BinaryClockRegistry;
+import com.trofiv.test4sidenis.binaryclock.BinaryClockRowPattern;
+import com.trofiv.test4sidenis.binaryclock.GenericBinaryClock;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures construction and validation of patterns and clocks, and lookup of shared clocks in registry.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class PatternConstructionBenchmark {
+    private static final int LARGE_PATTERN_ROWS = 300;
+    private static final int LARGE_PATTERN_CELLS = 10;
+
+    private List<BinaryClockRowPattern> berlinRows;
+    private List<BinaryClockRowPattern> largeRows;
+
+    @Setup
+    public void setUp() {
+        berlinRows = new ArrayList<>(BerlinBinaryClock.BERLIN_CLOCK_PATTERN.getClockRows());
+        largeRows = BenchmarkData.largePatternRows(LARGE_PATTERN_ROWS, LARGE_PATTERN_CELLS);
+    }
+
+    @Benchmark
+    public BinaryClockPattern berlinPattern() {
+        return new BinaryClockPattern(berlinRows);
+    }
+
+    @Benchmark
+    public GenericBinaryClock berlinClock() {
+        return new GenericBinaryClock(new BinaryClockPattern(berlinRows));
+    }
+
+    @Benchmark
+    public BinaryClockPattern largePattern() {
+        return new BinaryClockPattern(largeRows);
+    }
+
+    @Benchmark
+    public GenericBinaryClock largeClock() {
+        return new GenericBinaryClock(new BinaryClockPattern(largeRows));
+    }
+
+    @Benchmark
+    public GenericBinaryClock berlinRegistryClock() {
+        return BinaryClockRegistry.clockOf(berlinRows);
+    }
+
+    @Benchmark
+    public GenericBinaryClock largeRegistryClock() {
+        return BinaryClockRegistry.clockOf(largeRows);
+    }
+}
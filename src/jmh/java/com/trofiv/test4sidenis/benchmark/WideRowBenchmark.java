@@ -0,0 +1,67 @@
+package com.trofiv.test4sidenis.benchmark;
+
+import com.trofiv.test4sidenis.binaryclock.BinaryClockPattern;
+import com.trofiv.test4sidenis.binaryclock.BinaryClockRowPattern;
+import com.trofiv.test4sidenis.binaryclock.GenericBinaryClock;
+import com.trofiv.test4sidenis.binaryclock.format.ClockFrame;
+import com.trofiv.test4sidenis.binaryclock.format.ClockFrameTemplate;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures rendering of millisecond-resolution pattern with 60000-cell row, frame by frame
+ * (each next frame is one millisecond later) to reused frame and to fresh frame.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class WideRowBenchmark {
+    private static final long NANOS_IN_DAY = TimeUnit.DAYS.toNanos(1);
+    private static final long MILLISECOND = TimeUnit.MILLISECONDS.toNanos(1);
+
+    private GenericBinaryClock clock;
+    private ClockFrameTemplate template;
+    private ClockFrame frame;
+    private int[] lightCells;
+    private long nanoOfDay;
+
+    @Setup
+    public void setUp() {
+        final BinaryClockPattern pattern = new BinaryClockPattern(Arrays.asList(
+                new BinaryClockRowPattern(1, TimeUnit.MINUTES, 1440),
+                new BinaryClockRowPattern(1, TimeUnit.MILLISECONDS, 60000)));
+        clock = new GenericBinaryClock(pattern);
+        template = ClockFrameTemplate.of(pattern);
+        frame = template.newFrame();
+        lightCells = new int[2];
+    }
+
+    private int[] nextState() {
+        nanoOfDay = (nanoOfDay + MILLISECOND) % NANOS_IN_DAY;
+        return clock.calculateLightCells(nanoOfDay, lightCells);
+    }
+
+    @Benchmark
+    public ClockFrame renderToReusedFrame() {
+        return template.render(nextState(), frame);
+    }
+
+    @Benchmark
+    public ClockFrame renderToFreshFrame() {
+        return template.render(nextState(), template.newFrame());
+    }
+}
@@ -0,0 +1,60 @@
+package com.trofiv.test4sidenis.benchmark;
+
+import com.trofiv.test4sidenis.binaryclock.BerlinBinaryClock;
+import com.trofiv.test4sidenis.binaryclock.WorldClockRenderer;
+import com.trofiv.test4sidenis.binaryclock.format.ClockFormatter;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.Instant;
+import java.time.ZoneId;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Compares rendering of single instant in all available zones one by one and with {@code WorldClockRenderer}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class WorldClockBenchmark {
+    private final BerlinBinaryClock clock = new BerlinBinaryClock();
+    private final WorldClockRenderer renderer = new WorldClockRenderer(clock);
+    private List<ZoneId> zones;
+    private long epochSecond;
+
+    @Setup
+    public void setUp() {
+        zones = ZoneId.getAvailableZoneIds().stream().sorted().map(ZoneId::of).collect(Collectors.toList());
+        epochSecond = Instant.parse("2016-07-14T12:34:56Z").getEpochSecond();
+    }
+
+    @Benchmark
+    public Map<ZoneId, String> separateConversions() {
+        final Instant instant = Instant.ofEpochSecond(epochSecond++);
+        final Map<ZoneId, String> result = new LinkedHashMap<>();
+        for (ZoneId zone : zones) {
+            result.put(zone, clock.of(instant.atZone(zone).toLocalTime(), ClockFormatter.BERLIN_CLOCK_FORMATTER));
+        }
+        return result;
+    }
+
+    @Benchmark
+    public Map<ZoneId, String> fanOutRenderer() {
+        return renderer.render(Instant.ofEpochSecond(epochSecond++), zones, ClockFormatter.BERLIN_CLOCK_FORMATTER);
+    }
+}
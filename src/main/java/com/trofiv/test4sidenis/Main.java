@@ -1,17 +1,185 @@
 package com.trofiv.test4sidenis;
 
 import com.trofiv.test4sidenis.binaryclock.BerlinBinaryClock;
+import com.trofiv.test4sidenis.binaryclock.BinaryClockPattern;
+import com.trofiv.test4sidenis.binaryclock.BinaryClockRowPattern;
+import com.trofiv.test4sidenis.binaryclock.ClockTransitionScheduler;
+import com.trofiv.test4sidenis.binaryclock.format.AnsiClockDisplay;
 import com.trofiv.test4sidenis.binaryclock.format.ClockFormatter;
+import com.trofiv.test4sidenis.binaryclock.format.ClockRenderLoop;
+import com.trofiv.test4sidenis.binaryclock.metrics.LatencyHistogram;
+import com.trofiv.test4sidenis.pipeline.TimestampConversionPipeline;
+import com.trofiv.test4sidenis.server.ClockHttpServer;
+import com.trofiv.test4sidenis.server.ClockLoadGenerator;
 
+import java.io.FileDescriptor;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.net.URL;
+import java.nio.channels.FileChannel;
+import java.nio.file.Paths;
+import java.time.Clock;
 import java.time.LocalTime;
+import java.time.ZoneId;
 import java.time.format.DateTimeFormatter;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
 
 public class Main {
-    public static void main(final String[] args) {
+    private static final int DEFAULT_PORT = 8080;
+    private static final int DEFAULT_THREADS = Runtime.getRuntime().availableProcessors();
+    private static final int DEFAULT_LOAD_SECONDS = 10;
+    private static final int DEFAULT_RENDER_RATE = 1000;
+    private static final int DEFAULT_RENDER_SECONDS = 10;
+    private static final int DEFAULT_LIVE_SECONDS = 60;
+    private static final int BERLIN_SECONDS_ROW = 4;
+    private static final String NO_DELAY_PROPERTY = "sun.net.httpserver.nodelay";
+    private static final double P50 = 50.0;
+    private static final double P99 = 99.0;
+    private static final double P999 = 99.9;
+    private static final BinaryClockPattern MILLISECOND_PATTERN = new BinaryClockPattern(Arrays.asList(
+            new BinaryClockRowPattern(1, TimeUnit.HOURS, 23),
+            new BinaryClockRowPattern(1, TimeUnit.MINUTES, 59),
+            new BinaryClockRowPattern(1, TimeUnit.SECONDS, 59),
+            new BinaryClockRowPattern(1, TimeUnit.MILLISECONDS, 999)));
+
+    public static void main(final String[] args) throws IOException, InterruptedException {
+        if (args.length == 0) {
+            printNow();
+            return;
+        }
+        switch (args[0]) {
+            case "server":
+                //headers and body are written separately, so with Nagle's algorithm each keep-alive response
+                //waits for delayed ACK; property is read once, when the first server in JVM is created
+                if (System.getProperty(NO_DELAY_PROPERTY) == null) {
+                    System.setProperty(NO_DELAY_PROPERTY, Boolean.TRUE.toString());
+                }
+                final ClockHttpServer server = new ClockHttpServer(intArgument(args, 1, DEFAULT_PORT),
+                        intArgument(args, 2, DEFAULT_THREADS), Clock.systemDefaultZone());
+                server.start();
+                System.out.println("Serving Berlin clock at http://localhost:" + server.getPort() + "/berlin");
+                break;
+            case "load":
+                if (args.length < 2) {
+                    printUsage();
+                    break;
+                }
+                final ClockLoadGenerator generator = new ClockLoadGenerator(new URL(args[1]),
+                        intArgument(args, 2, DEFAULT_THREADS), intArgument(args, 3, DEFAULT_LOAD_SECONDS), TimeUnit.SECONDS);
+                final double requestsPerSecond = generator.run();
+                System.out.printf("%d requests succeeded, %d failed, %.0f requests per second%n",
+                        generator.getSucceeded(), generator.getFailed(), requestsPerSecond);
+                break;
+            case "convert":
+                convert(args);
+                break;
+            case "render":
+                final int rate = intArgument(args, 1, DEFAULT_RENDER_RATE);
+                if (rate <= 0 || rate > TimeUnit.SECONDS.toNanos(1)) {
+                    System.err.println("Rate must be from 1 to 1000000000 frames per second");
+                    printUsage();
+                    break;
+                }
+                render(rate, intArgument(args, 2, DEFAULT_RENDER_SECONDS));
+                break;
+            case "live":
+                live(intArgument(args, 1, DEFAULT_LIVE_SECONDS));
+                break;
+            default:
+                printUsage();
+                break;
+        }
+    }
+
+    private static void printUsage() {
+        System.err.println("Usage: [server [port] [threads] | load <url> [threads] [seconds]"
+                + " | convert [file|-] [counts|berlin_grid] [zone] | render [hz] [seconds] | live [seconds]]");
+    }
+
+    private static void printNow() {
         final LocalTime time = LocalTime.now();
         final BerlinBinaryClock berlinBinaryClock = new BerlinBinaryClock();
         System.out.println("Converting " + time.format(DateTimeFormatter.ISO_LOCAL_TIME) + " to Berlin clock:");
         System.out.println(berlinBinaryClock.of(time, ClockFormatter.READABLE_FORMATTER));
         System.out.println(berlinBinaryClock.of(time, ClockFormatter.BERLIN_CLOCK_FORMATTER));
     }
-}
\ No newline at end of file
+
+    private static void convert(final String[] args) throws IOException, InterruptedException {
+        final TimestampConversionPipeline pipeline = new TimestampConversionPipeline(BerlinBinaryClock.shared(),
+                args.length > 3 ? ZoneId.of(args[3]) : ZoneId.systemDefault(),
+                args.length > 2
+                        ? TimestampConversionPipeline.OutputFormat.valueOf(args[2].toUpperCase(Locale.ROOT))
+                        : TimestampConversionPipeline.OutputFormat.COUNTS);
+        //output channel bypasses System.out, pipeline writes large chunks itself
+        try (FileChannel input = args.length > 1 && !"-".equals(args[1])
+                ? FileChannel.open(Paths.get(args[1]))
+                : new FileInputStream(FileDescriptor.in).getChannel();
+             FileChannel output = new FileOutputStream(FileDescriptor.out).getChannel()) {
+            pipeline.run(input, output);
+        }
+        System.err.printf("%d lines converted, %.0f lines per second%n",
+                pipeline.getLineCount(), pipeline.getLinesPerSecond());
+    }
+
+    private static void render(final int rate, final int seconds) throws InterruptedException {
+        final ClockRenderLoop loop = new ClockRenderLoop(MILLISECOND_PATTERN, TimeUnit.SECONDS.toNanos(1) / rate,
+                TimeUnit.NANOSECONDS, Clock.systemDefaultZone(), (nanoOfDay, frame) -> {
+        });
+        loop.start();
+        TimeUnit.SECONDS.sleep(seconds);
+        loop.stop();
+        System.out.printf("%d frames rendered at %d Hz, %d frames missed%n", loop.getFrameCount(), rate,
+                loop.getMissedFrames());
+        for (LatencyHistogram histogram : Arrays.asList(loop.getFrameTimes(), loop.getJitter())) {
+            System.out.printf("%-24s p50 %8d ns, p99 %8d ns, p99.9 %8d ns, max %8d ns%n", histogram.getName(),
+                    histogram.getPercentileNanos(P50), histogram.getPercentileNanos(P99),
+                    histogram.getPercentileNanos(P999), histogram.getMaxNanos());
+        }
+    }
+
+    private static void live(final int seconds) throws InterruptedException {
+        final BinaryClockPattern pattern = BerlinBinaryClock.BERLIN_CLOCK_PATTERN;
+        final AnsiClockDisplay display = new AnsiClockDisplay(pattern, Integer.MAX_VALUE,
+                Collections.singleton(BERLIN_SECONDS_ROW));
+        final Clock clock = Clock.systemDefaultZone();
+        final BitSet rows = new BitSet();
+        rows.set(0, pattern.getClockRows().size());
+        try (ClockTransitionScheduler scheduler = new ClockTransitionScheduler(pattern, clock)) {
+            //display is updated on single timer thread, initial frame is drawn before subscription
+            synchronized (display) {
+                final int[] lightCells = pattern.compile().evaluate(LocalTime.now(clock).toNanoOfDay(),
+                        new int[pattern.getClockRows().size()]);
+                System.out.print(display.drawFrame(lightCells, new StringBuilder()));
+                System.out.flush();
+            }
+            final ClockTransitionScheduler.Subscription subscription = scheduler.subscribe(rows,
+                    (nanoOfDay, lightCells) -> {
+                        synchronized (display) {
+                            System.out.print(display.update(lightCells, new StringBuilder()));
+                            System.out.flush();
+                        }
+                    });
+            try {
+                TimeUnit.SECONDS.sleep(seconds);
+            } finally {
+                subscription.close();
+            }
+        }
+        synchronized (display) {
+            System.out.print(display.release(new StringBuilder()));
+            System.out.flush();
+            System.err.printf("%d updates, %d bytes written, %d bytes if every update redrew %d bytes frame%n",
+                    display.getUpdateCount(), display.getWrittenBytes(),
+                    display.getFullFrameBytes() * (display.getUpdateCount() + 1), display.getFullFrameBytes());
+        }
+    }
+
+    private static int intArgument(final String[] args, final int index, final int defaultValue) {
+        return args.length > index ? Integer.parseInt(args[index]) : defaultValue;
+    }
+}
@@ -37,10 +37,39 @@ public class BerlinBinaryClock extends GenericBinaryClock {
             ONE_SECOND_FIFTY_NINE_CELLS
     ));
 
+    private static final BerlinBinaryClock SHARED_CLOCK = new BerlinBinaryClock();
+
     /**
      * Instantiates {@code BerlinBinaryClock} object using Berlin clock pattern.
      */
     public BerlinBinaryClock() {
         super(BERLIN_CLOCK_PATTERN);
     }
+
+    /**
+     * Returns shared Berlin binary clock. Clock is immutable, so single instance can be used instead
+     * of creating new one for each conversion.
+     *
+     * @return shared {@code BerlinBinaryClock} object
+     */
+    public static BerlinBinaryClock shared() {
+        return SHARED_CLOCK;
+    }
+
+    /**
+     * Returns table-backed Berlin binary clock. Table with all 86400 states of Berlin clock
+     * is built once, on first call of this method.
+     *
+     * @return shared {@code PrecomputedBinaryClock} object for Berlin clock pattern
+     */
+    public static PrecomputedBinaryClock precomputed() {
+        return PrecomputedHolder.PRECOMPUTED_CLOCK;
+    }
+
+    /**
+     * Lazy holder of table-backed Berlin binary clock.
+     */
+    private static final class PrecomputedHolder {
+        private static final PrecomputedBinaryClock PRECOMPUTED_CLOCK = new PrecomputedBinaryClock(BERLIN_CLOCK_PATTERN);
+    }
 }
\ No newline at end of file
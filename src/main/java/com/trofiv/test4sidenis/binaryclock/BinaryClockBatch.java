@@ -0,0 +1,71 @@
+package com.trofiv.test4sidenis.binaryclock;
+
+/**
+ * A {@code BinaryClockBatch} represents calculated states of binary clock for batch of times
+ * in columnar format: one array of light cells count per row of clock, where element at index
+ * of source time contains light cells count of that row at that time.
+ */
+public class BinaryClockBatch {
+    private final int[][] lightCells;
+    private final int size;
+
+    /**
+     * Instantiates {@code BinaryClockBatch} object with zeroed columns.
+     *
+     * @param rowCount specified count of rows of binary clock
+     * @param size     specified count of times in batch
+     */
+    BinaryClockBatch(final int rowCount, final int size) {
+        lightCells = new int[rowCount][size];
+        this.size = size;
+    }
+
+    /**
+     * Simple getter for light cells count of row at specified time.
+     *
+     * @param rowNumber specified index of row
+     * @param index     specified index of time in batch
+     * @return count of light cells of row
+     */
+    public int getLightCellsCount(final int rowNumber, final int index) {
+        return lightCells[rowNumber][index];
+    }
+
+    /**
+     * Simple getter for column of light cells count of specified row. Returned array is not copied,
+     * so it must not be modified.
+     *
+     * @param rowNumber specified index of row
+     * @return light cells count of row for each time in batch
+     */
+    public int[] getRowColumn(final int rowNumber) {
+        return lightCells[rowNumber];
+    }
+
+    /**
+     * Simple getter for count of rows of binary clock.
+     *
+     * @return count of columns in batch
+     */
+    public int getRowCount() {
+        return lightCells.length;
+    }
+
+    /**
+     * Simple getter for count of times in batch.
+     *
+     * @return count of calculated states
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Simple getter for all columns, used by converter to fill batch.
+     *
+     * @return columns of light cells count
+     */
+    int[][] getColumns() {
+        return lightCells;
+    }
+}
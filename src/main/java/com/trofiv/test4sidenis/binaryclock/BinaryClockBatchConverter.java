@@ -0,0 +1,122 @@
+package com.trofiv.test4sidenis.binaryclock;
+
+import com.google.common.base.Preconditions;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.stream.LongStream;
+
+/**
+ * A {@code BinaryClockBatchConverter} converts large sets of times to binary clock format at once.
+ * Times are specified as nanoseconds from start of day, result is represented as columnar
+ * {@code BinaryClockBatch}. Large inputs are split to chunks that are converted in parallel
+ * using fork-join pool.
+ */
+public class BinaryClockBatchConverter {
+    /**
+     * Minimal count of times that is converted by single fork-join task without further splitting.
+     */
+    public static final int DEFAULT_SPLIT_THRESHOLD = 16 * 1024;
+
+    private final CompiledBinaryClockPattern compiledPattern;
+    private final ForkJoinPool pool;
+    private final int splitThreshold;
+
+    /**
+     * Instantiates {@code BinaryClockBatchConverter} object that uses common fork-join pool.
+     *
+     * @param clockPattern specified {@code BinaryClockPattern} pattern representing binary clock
+     */
+    public BinaryClockBatchConverter(final BinaryClockPattern clockPattern) {
+        this(clockPattern, ForkJoinPool.commonPool(), DEFAULT_SPLIT_THRESHOLD);
+    }
+
+    /**
+     * Instantiates {@code BinaryClockBatchConverter} object and validates all specified parameters.
+     *
+     * @param clockPattern   specified {@code BinaryClockPattern} pattern representing binary clock
+     * @param pool           specified fork-join pool for parallel conversion
+     * @param splitThreshold specified minimal count of times converted by single task
+     */
+    public BinaryClockBatchConverter(
+            final BinaryClockPattern clockPattern,
+            final ForkJoinPool pool,
+            final int splitThreshold) {
+        Preconditions.checkNotNull(clockPattern, "Clock pattern must be specified!");
+        Preconditions.checkNotNull(pool, "Fork-join pool must be specified!");
+        Preconditions.checkArgument(splitThreshold > 0, "Split threshold must be a positive value!");
+        compiledPattern = clockPattern.compile();
+        this.pool = pool;
+        this.splitThreshold = splitThreshold;
+    }
+
+    /**
+     * Converts specified times to binary clock format.
+     *
+     * @param nanosOfDay specified times as nanoseconds from start of day
+     * @return columnar {@code BinaryClockBatch} with light cells count of each row for each time
+     */
+    public BinaryClockBatch convert(final long[] nanosOfDay) {
+        Preconditions.checkNotNull(nanosOfDay, "Times for conversion must be specified!");
+        final BinaryClockBatch batch = new BinaryClockBatch(compiledPattern.getRowCount(), nanosOfDay.length);
+        final ConvertTask task = new ConvertTask(nanosOfDay, batch.getColumns(), 0, nanosOfDay.length);
+        if (nanosOfDay.length <= splitThreshold) {
+            task.compute();
+        } else {
+            pool.invoke(task);
+        }
+        return batch;
+    }
+
+    /**
+     * Converts specified stream of times to binary clock format.
+     *
+     * @param nanosOfDay specified stream of times as nanoseconds from start of day
+     * @return columnar {@code BinaryClockBatch} with light cells count of each row for each time
+     */
+    public BinaryClockBatch convert(final LongStream nanosOfDay) {
+        Preconditions.checkNotNull(nanosOfDay, "Times for conversion must be specified!");
+        return convert(nanosOfDay.toArray());
+    }
+
+    /**
+     * A {@code ConvertTask} converts range of source times, splitting it in halves
+     * until range is small enough.
+     */
+    private final class ConvertTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final long[] nanosOfDay;
+        private final int[][] columns;
+        private final int from;
+        private final int to;
+
+        private ConvertTask(final long[] nanosOfDay, final int[][] columns, final int from, final int to) {
+            this.nanosOfDay = nanosOfDay;
+            this.columns = columns;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= splitThreshold) {
+                convertRange();
+            } else {
+                final int middle = (from + to) >>> 1;
+                invokeAll(new ConvertTask(nanosOfDay, columns, from, middle),
+                        new ConvertTask(nanosOfDay, columns, middle, to));
+            }
+        }
+
+        private void convertRange() {
+            final int[] lightCells = new int[columns.length];
+            for (int index = from; index < to; index++) {
+                compiledPattern.evaluate(nanosOfDay[index], lightCells);
+                for (int rowNumber = 0; rowNumber < lightCells.length; rowNumber++) {
+                    columns[rowNumber][index] = lightCells[rowNumber];
+                }
+            }
+        }
+    }
+}
@@ -2,7 +2,9 @@ package com.trofiv.test4sidenis.binaryclock;
 
 import com.google.common.base.Preconditions;
 
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.List;
 import java.util.concurrent.TimeUnit;
 
@@ -10,17 +12,26 @@ import java.util.concurrent.TimeUnit;
  * A {@code BinaryClockPattern} represents structure of binary clock as ordered list of {@code BinaryClockRowPattern}.
  * This representation provides any row count customization, with different time units at each row, and different
  * time coverage at each row. This features are very useful for creating binary clocks, including Berlin clock.
+ * Pattern is immutable value: patterns with equal rows in the same order are equal, so they can be interned
+ * by {@code BinaryClockRegistry}.
  */
 public class BinaryClockPattern {
+    private static final long FNV_OFFSET_BASIS = 0xcbf29ce484222325L;
+    private static final long FNV_PRIME = 0x100000001b3L;
+
     private final List<BinaryClockRowPattern> clockRows;
+    private final int hashCode;
+    private CompiledBinaryClockPattern compiledPattern;
 
     /**
      * Instantiates {@code BinaryClockPattern} object and validates all specified parameters.
      *
-     * @param clockRows specified list of {@code BinaryClockRowPattern} clock rows
+     * @param clockRows specified list of {@code BinaryClockRowPattern} clock rows, it is copied, so later
+     *                  changes of specified list do not affect pattern
      */
     public BinaryClockPattern(final List<BinaryClockRowPattern> clockRows) {
         this.clockRows = validateClockPattern(clockRows);
+        hashCode = this.clockRows.hashCode();
     }
 
     /**
@@ -43,15 +54,19 @@ public class BinaryClockPattern {
      * Ensures that specified list of {@code BinaryClockRowPattern} clock rows is valid for binary clock.
      *
      * @param clockRows specified list of {@code BinaryClockRowPattern} clock rows
-     * @return checked list of {@code BinaryClockRowPattern} rows
+     * @return checked unmodifiable copy of list of {@code BinaryClockRowPattern} rows
      */
     private static List<BinaryClockRowPattern> validateClockPattern(
             final List<BinaryClockRowPattern> clockRows) {
         Preconditions.checkNotNull(clockRows, "Clock rows must be specified!");
-        Preconditions.checkArgument(!clockRows.isEmpty(), "At least one clock row must be specified!");
-        final BinaryClockRowPattern mostPrecisionRow = getMostPrecisionRow(clockRows);
-        checkAllDayCoveredByRows(clockRows, mostPrecisionRow);
-        return clockRows;
+        final List<BinaryClockRowPattern> rowsCopy = new ArrayList<>(clockRows);
+        Preconditions.checkArgument(!rowsCopy.isEmpty(), "At least one clock row must be specified!");
+        for (BinaryClockRowPattern rowPattern : rowsCopy) {
+            Preconditions.checkNotNull(rowPattern, "Clock row must be specified!");
+        }
+        final BinaryClockRowPattern mostPrecisionRow = getMostPrecisionRow(rowsCopy);
+        checkAllDayCoveredByRows(rowsCopy, mostPrecisionRow);
+        return Collections.unmodifiableList(rowsCopy);
     }
 
     /**
@@ -78,12 +93,66 @@ public class BinaryClockPattern {
                 TimeUnit.DAYS.toNanos(1), "Rows must cover entire day!");
     }
 
+    /**
+     * Compiles pattern to immutable evaluator with flattened primitive arrays of cell durations and
+     * cell counts. Compiled evaluator is created once and shared by subsequent calls.
+     *
+     * @return {@code CompiledBinaryClockPattern} evaluator of this pattern
+     */
+    public CompiledBinaryClockPattern compile() {
+        //racy single-check idiom is safe here, because compiled pattern is immutable
+        CompiledBinaryClockPattern compiled = compiledPattern;
+        if (compiled == null) {
+            compiled = new CompiledBinaryClockPattern(clockRows);
+            compiledPattern = compiled;
+        }
+        return compiled;
+    }
+
+    /**
+     * Calculates 64-bit fingerprint of pattern (FNV-1a hash of cell duration in nanoseconds and count
+     * of cells of each row). Patterns that differ only in time units of the same durations have equal
+     * fingerprints, because they represent the same clock.
+     *
+     * @return fingerprint of pattern
+     */
+    public long fingerprint() {
+        long hash = FNV_OFFSET_BASIS;
+        for (BinaryClockRowPattern rowPattern : clockRows) {
+            hash = (hash ^ rowPattern.nanoSecondsCoveredByCell()) * FNV_PRIME;
+            hash = (hash ^ rowPattern.getCellsInRow()) * FNV_PRIME;
+        }
+        return hash;
+    }
+
     /**
      * Simple getter for stored list of {@code BinaryClockRowPattern} clock rows.
      *
-     * @return list of {@code BinaryClockRowPattern} represents rows of binary clock
+     * @return unmodifiable list of {@code BinaryClockRowPattern} represents rows of binary clock
      */
     public List<BinaryClockRowPattern> getClockRows() {
         return clockRows;
     }
+
+    @Override
+    public boolean equals(final Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+        final BinaryClockPattern that = (BinaryClockPattern) o;
+        return hashCode == that.hashCode && clockRows.equals(that.clockRows);
+    }
+
+    @Override
+    public int hashCode() {
+        return hashCode;
+    }
+
+    @Override
+    public String toString() {
+        return clockRows.toString();
+    }
 }
@@ -0,0 +1,92 @@
+package com.trofiv.test4sidenis.binaryclock;
+
+import com.google.common.base.Preconditions;
+import com.trofiv.test4sidenis.binaryclock.metrics.CacheMetrics;
+import com.trofiv.test4sidenis.binaryclock.metrics.ClockMetrics;
+
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * A {@code BinaryClockRegistry} interns binary clock patterns and shares single {@code GenericBinaryClock}
+ * instance between all equal patterns. Clock for list of rows that was already requested is found by single
+ * hash lookup, without validation of pattern and compilation of its evaluator. Registry is thread-safe and
+ * is never cleared, so it is intended for bounded set of patterns, like patterns from configuration.
+ */
+public final class BinaryClockRegistry {
+    private static final ConcurrentMap<List<BinaryClockRowPattern>, GenericBinaryClock> CLOCKS =
+            new ConcurrentHashMap<>();
+    private static final CacheMetrics CACHE_METRICS = ClockMetrics.cache("BinaryClockRegistry");
+
+    static {
+        //Berlin clock is the most requested one, and its shared instance is already created
+        CLOCKS.put(BerlinBinaryClock.BERLIN_CLOCK_PATTERN.getClockRows(), BerlinBinaryClock.shared());
+    }
+
+    private BinaryClockRegistry() {
+    }
+
+    /**
+     * Finds shared clock for specified rows, creating and validating pattern only for the first request
+     * of these rows.
+     *
+     * @param clockRows specified list of {@code BinaryClockRowPattern} clock rows
+     * @return shared clock of pattern with specified rows
+     */
+    public static GenericBinaryClock clockOf(final List<BinaryClockRowPattern> clockRows) {
+        Preconditions.checkNotNull(clockRows, "Clock rows must be specified!");
+        final GenericBinaryClock clock = CLOCKS.get(clockRows);
+        if (ClockMetrics.ENABLED) {
+            CACHE_METRICS.record(clock != null);
+        }
+        return clock == null ? register(new BinaryClockPattern(clockRows)) : clock;
+    }
+
+    /**
+     * Finds shared clock for pattern equal to specified one.
+     *
+     * @param clockPattern specified {@code BinaryClockPattern} pattern representing binary clock
+     * @return shared clock of equal pattern
+     */
+    public static GenericBinaryClock clockOf(final BinaryClockPattern clockPattern) {
+        Preconditions.checkNotNull(clockPattern, "Clock pattern must be specified!");
+        final GenericBinaryClock clock = CLOCKS.get(clockPattern.getClockRows());
+        if (ClockMetrics.ENABLED) {
+            CACHE_METRICS.record(clock != null);
+        }
+        return clock == null ? register(clockPattern) : clock;
+    }
+
+    /**
+     * Finds canonical instance of pattern equal to specified one. Canonical pattern shares compiled evaluator
+     * with all clocks of registry.
+     *
+     * @param clockPattern specified {@code BinaryClockPattern} pattern representing binary clock
+     * @return canonical pattern equal to specified one
+     */
+    public static BinaryClockPattern intern(final BinaryClockPattern clockPattern) {
+        return clockOf(clockPattern).getClockPattern();
+    }
+
+    /**
+     * Registers clock of specified pattern, if there is no clock for equal pattern yet.
+     * Lookup by {@code get} is done before, because {@code computeIfAbsent} of Java 8 locks bin
+     * even when key is present.
+     *
+     * @param clockPattern specified validated pattern
+     * @return registered clock of equal pattern
+     */
+    private static GenericBinaryClock register(final BinaryClockPattern clockPattern) {
+        return CLOCKS.computeIfAbsent(clockPattern.getClockRows(), clockRows -> new GenericBinaryClock(clockPattern));
+    }
+
+    /**
+     * Simple getter for count of registered patterns.
+     *
+     * @return count of distinct patterns in registry
+     */
+    public static int size() {
+        return CLOCKS.size();
+    }
+}
@@ -110,4 +110,31 @@ public class BinaryClockRowPattern {
     public int getCellsInRow() {
         return cellsInRow;
     }
-}
\ No newline at end of file
+
+    @Override
+    public boolean equals(final Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+        final BinaryClockRowPattern that = (BinaryClockRowPattern) o;
+        return cellDuration == that.cellDuration
+                && cellsInRow == that.cellsInRow
+                && cellDurationUnit == that.cellDurationUnit;
+    }
+
+    @Override
+    public int hashCode() {
+        int result = cellDuration;
+        result = 31 * result + cellDurationUnit.hashCode();
+        result = 31 * result + cellsInRow;
+        return result;
+    }
+
+    @Override
+    public String toString() {
+        return cellsInRow + "x" + cellDuration + ' ' + cellDurationUnit;
+    }
+}
@@ -9,6 +9,7 @@ import com.google.common.base.Preconditions;
 public class BinaryClockRowRepresentation {
     private final BinaryClockRowPattern rowPattern;
     private final int lightCellsCount;
+    private RowCellBits cellBits;
 
     /**
      * Instantiates {@code BinaryClockRowRepresentation} object and validates all specified parameters.
@@ -64,4 +65,20 @@ public class BinaryClockRowRepresentation {
     public int getLightCellsCount() {
         return lightCellsCount;
     }
-}
\ No newline at end of file
+
+    /**
+     * Returns cells of row as bits. View is created on first request and shared by later ones.
+     *
+     * @return {@code RowCellBits} view of cells
+     */
+    public RowCellBits getCellBits() {
+        RowCellBits result = cellBits;
+        if (result == null) {
+            //view is immutable, so racing threads may only create equal views
+            result = new RowCellBits(rowPattern.getCellsInRow(),
+                    Math.min(lightCellsCount, rowPattern.getCellsInRow()));
+            cellBits = result;
+        }
+        return result;
+    }
+}
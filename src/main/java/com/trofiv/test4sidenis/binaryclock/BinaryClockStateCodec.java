@@ -0,0 +1,256 @@
+package com.trofiv.test4sidenis.binaryclock;
+
+import com.google.common.base.Preconditions;
+
+import java.nio.ByteBuffer;
+import java.util.List;
+
+/**
+ * A {@code BinaryClockStateCodec} packs calculated state of binary clock (light cells count of
+ * each row) for specified {@code BinaryClockPattern} into minimal count of bits. Each row takes
+ * as many bits as needed to store its count of cells, rows are packed from least significant bits
+ * in order of pattern. States that fit 64 bits (like Berlin clock state, 3+3+4+3+6 bits) are encoded
+ * to single {@code long}, wider states are encoded to several consecutive {@code long} words.
+ * Encoding and decoding use only primitive arithmetic and allocate nothing.
+ */
+public class BinaryClockStateCodec {
+    private static final int WORD_BITS = Long.SIZE;
+    private static final int WORD_SHIFT = 6;
+    private static final int WORD_MASK = WORD_BITS - 1;
+
+    private final int[] cellsInRow;
+    private final int[] rowOffsets;
+    private final int[] rowBits;
+    private final int totalBits;
+    private final int wordsPerState;
+
+    /**
+     * Instantiates {@code BinaryClockStateCodec} object for specified binary clock pattern.
+     *
+     * @param clockPattern specified {@code BinaryClockPattern} pattern representing binary clock
+     */
+    public BinaryClockStateCodec(final BinaryClockPattern clockPattern) {
+        Preconditions.checkNotNull(clockPattern, "Clock pattern must be specified!");
+        final List<BinaryClockRowPattern> clockRows = clockPattern.getClockRows();
+        cellsInRow = new int[clockRows.size()];
+        rowOffsets = new int[clockRows.size()];
+        rowBits = new int[clockRows.size()];
+        int offset = 0;
+        for (int rowNumber = 0; rowNumber < clockRows.size(); rowNumber++) {
+            cellsInRow[rowNumber] = clockRows.get(rowNumber).getCellsInRow();
+            rowOffsets[rowNumber] = offset;
+            rowBits[rowNumber] = Integer.SIZE - Integer.numberOfLeadingZeros(cellsInRow[rowNumber]);
+            offset += rowBits[rowNumber];
+        }
+        totalBits = offset;
+        wordsPerState = (totalBits + WORD_MASK) >>> WORD_SHIFT;
+    }
+
+    /**
+     * Packs specified light cells count of each row into single {@code long} value.
+     *
+     * @param lightCells specified light cells count of each row
+     * @return packed state
+     */
+    public long encode(final int[] lightCells) {
+        Preconditions.checkState(wordsPerState == 1, "State of clock pattern does not fit single long!");
+        checkLightCells(lightCells);
+        long state = 0L;
+        for (int rowNumber = 0; rowNumber < cellsInRow.length; rowNumber++) {
+            state |= (long) lightCells[rowNumber] << rowOffsets[rowNumber];
+        }
+        return state;
+    }
+
+    /**
+     * Unpacks light cells count of each row from single {@code long} value.
+     *
+     * @param state      specified packed state
+     * @param lightCells specified array for light cells count of each row
+     * @return specified array filled by light cells count of each row
+     */
+    public int[] decode(final long state, final int[] lightCells) {
+        Preconditions.checkState(wordsPerState == 1, "State of clock pattern does not fit single long!");
+        Preconditions.checkArgument(lightCells.length == cellsInRow.length,
+                "Light cells array must have one element per clock row!");
+        for (int rowNumber = 0; rowNumber < cellsInRow.length; rowNumber++) {
+            lightCells[rowNumber] = lightCellsCount(state, rowNumber);
+        }
+        return lightCells;
+    }
+
+    /**
+     * Unpacks light cells count of single row from single {@code long} value.
+     *
+     * @param state     specified packed state
+     * @param rowNumber specified index of row
+     * @return light cells count of row
+     */
+    public int lightCellsCount(final long state, final int rowNumber) {
+        //noinspection NumericCastThatLosesPrecision
+        return (int) (state >>> rowOffsets[rowNumber]) & ((1 << rowBits[rowNumber]) - 1);
+    }
+
+    /**
+     * Packs specified light cells count of each row into {@code getWordsPerState()} consecutive words
+     * of specified array, starting at specified offset. Works for states of any width.
+     *
+     * @param lightCells specified light cells count of each row
+     * @param target     specified array of words
+     * @param offset     specified index of first word of state
+     */
+    public void encode(final int[] lightCells, final long[] target, final int offset) {
+        checkLightCells(lightCells);
+        for (int word = 0; word < wordsPerState; word++) {
+            target[offset + word] = 0L;
+        }
+        for (int rowNumber = 0; rowNumber < cellsInRow.length; rowNumber++) {
+            final int bitIndex = rowOffsets[rowNumber];
+            final int wordIndex = offset + (bitIndex >>> WORD_SHIFT);
+            final int bitInWord = bitIndex & WORD_MASK;
+            target[wordIndex] |= (long) lightCells[rowNumber] << bitInWord;
+            //row bits may continue in next word
+            if (bitInWord + rowBits[rowNumber] > WORD_BITS) {
+                target[wordIndex + 1] |= (long) lightCells[rowNumber] >>> (WORD_BITS - bitInWord);
+            }
+        }
+    }
+
+    /**
+     * Unpacks light cells count of each row from {@code getWordsPerState()} consecutive words
+     * of specified array, starting at specified offset. Works for states of any width.
+     *
+     * @param source     specified array of words
+     * @param offset     specified index of first word of state
+     * @param lightCells specified array for light cells count of each row
+     * @return specified array filled by light cells count of each row
+     */
+    public int[] decode(final long[] source, final int offset, final int[] lightCells) {
+        Preconditions.checkArgument(lightCells.length == cellsInRow.length,
+                "Light cells array must have one element per clock row!");
+        for (int rowNumber = 0; rowNumber < cellsInRow.length; rowNumber++) {
+            final int bitIndex = rowOffsets[rowNumber];
+            final int wordIndex = offset + (bitIndex >>> WORD_SHIFT);
+            final int bitInWord = bitIndex & WORD_MASK;
+            long bits = source[wordIndex] >>> bitInWord;
+            if (bitInWord + rowBits[rowNumber] > WORD_BITS) {
+                bits |= source[wordIndex + 1] << (WORD_BITS - bitInWord);
+            }
+            //noinspection NumericCastThatLosesPrecision
+            lightCells[rowNumber] = (int) bits & ((1 << rowBits[rowNumber]) - 1);
+        }
+        return lightCells;
+    }
+
+    /**
+     * Packs all states of specified batch to array of words, each state takes
+     * {@code getWordsPerState()} consecutive words.
+     *
+     * @param batch specified columnar batch of calculated states
+     * @return array of packed states
+     */
+    public long[] encode(final BinaryClockBatch batch) {
+        Preconditions.checkArgument(batch.getRowCount() == cellsInRow.length, "Batch does not match clock pattern!");
+        final long[] states = new long[batch.size() * wordsPerState];
+        final int[] lightCells = new int[cellsInRow.length];
+        for (int index = 0; index < batch.size(); index++) {
+            for (int rowNumber = 0; rowNumber < lightCells.length; rowNumber++) {
+                lightCells[rowNumber] = batch.getLightCellsCount(rowNumber, index);
+            }
+            encode(lightCells, states, index * wordsPerState);
+        }
+        return states;
+    }
+
+    /**
+     * Unpacks array of states packed by {@link #encode(BinaryClockBatch)} to columnar batch.
+     *
+     * @param states specified array of packed states
+     * @return columnar batch of states
+     */
+    public BinaryClockBatch decode(final long[] states) {
+        Preconditions.checkArgument(states.length % wordsPerState == 0, "Array of states is truncated!");
+        final BinaryClockBatch batch = new BinaryClockBatch(cellsInRow.length, states.length / wordsPerState);
+        final int[][] columns = batch.getColumns();
+        final int[] lightCells = new int[cellsInRow.length];
+        for (int index = 0; index < batch.size(); index++) {
+            decode(states, index * wordsPerState, lightCells);
+            for (int rowNumber = 0; rowNumber < lightCells.length; rowNumber++) {
+                columns[rowNumber][index] = lightCells[rowNumber];
+            }
+        }
+        return batch;
+    }
+
+    /**
+     * Writes timeline of packed states to specified buffer: count of states, count of words per state
+     * and then all words in buffer byte order. Words are copied in bulk through {@code LongBuffer} view.
+     *
+     * @param target specified buffer with enough remaining space
+     * @param states specified array of packed states
+     */
+    public void writeTimeline(final ByteBuffer target, final long[] states) {
+        Preconditions.checkArgument(states.length % wordsPerState == 0, "Array of states is truncated!");
+        target.putInt(states.length / wordsPerState);
+        target.putInt(wordsPerState);
+        target.asLongBuffer().put(states);
+        target.position(target.position() + states.length * Long.BYTES);
+    }
+
+    /**
+     * Reads timeline of packed states written by {@link #writeTimeline(ByteBuffer, long[])}.
+     *
+     * @param source specified buffer positioned at start of timeline
+     * @return array of packed states
+     */
+    public long[] readTimeline(final ByteBuffer source) {
+        final int count = source.getInt();
+        Preconditions.checkArgument(source.getInt() == wordsPerState, "Timeline does not match clock pattern!");
+        final long[] states = new long[count * wordsPerState];
+        source.asLongBuffer().get(states);
+        source.position(source.position() + states.length * Long.BYTES);
+        return states;
+    }
+
+    /**
+     * Calculates count of bytes taken by timeline of specified count of states.
+     *
+     * @param count specified count of states
+     * @return size of timeline in bytes
+     */
+    public int timelineBytes(final int count) {
+        return 2 * Integer.BYTES + count * wordsPerState * Long.BYTES;
+    }
+
+    /**
+     * Ensures that specified light cells count of each row matches clock pattern.
+     *
+     * @param lightCells specified light cells count of each row
+     */
+    private void checkLightCells(final int[] lightCells) {
+        Preconditions.checkArgument(lightCells.length == cellsInRow.length,
+                "Light cells array must have one element per clock row!");
+        for (int rowNumber = 0; rowNumber < cellsInRow.length; rowNumber++) {
+            Preconditions.checkArgument(lightCells[rowNumber] >= 0 && lightCells[rowNumber] <= cellsInRow[rowNumber],
+                    "Light cells count exceeds count of cells in a row!");
+        }
+    }
+
+    /**
+     * Simple getter for count of bits of packed state.
+     *
+     * @return count of bits taken by state
+     */
+    public int getTotalBits() {
+        return totalBits;
+    }
+
+    /**
+     * Simple getter for count of words taken by single packed state.
+     *
+     * @return count of {@code long} words per state
+     */
+    public int getWordsPerState() {
+        return wordsPerState;
+    }
+}
@@ -0,0 +1,95 @@
+package com.trofiv.test4sidenis.binaryclock;
+
+import com.google.common.base.Preconditions;
+
+/**
+ * A {@code CellUsage} represents aggregated usage of cells of binary clock over set of times: for each row
+ * histogram of light cells count (how many times row had each count of light cells) and for each cell count
+ * of times it was lit. Light cells of row always form prefix, so cell {@code i} is lit exactly when light cells
+ * count is greater than {@code i}, and lit counts of cells are suffix sums of histogram of row.
+ */
+public class CellUsage {
+    private final long[][] histograms;
+    private final long[][] litCounts;
+    private final long total;
+
+    /**
+     * Instantiates {@code CellUsage} object from specified histograms.
+     *
+     * @param histograms specified histogram of light cells count of each row, not copied
+     * @param total      specified count of aggregated times
+     */
+    CellUsage(final long[][] histograms, final long total) {
+        this.histograms = histograms;
+        this.total = total;
+        litCounts = new long[histograms.length][];
+        for (int rowNumber = 0; rowNumber < histograms.length; rowNumber++) {
+            final long[] histogram = histograms[rowNumber];
+            final long[] lit = new long[histogram.length - 1];
+            long suffixSum = 0;
+            for (int cellNumber = lit.length - 1; cellNumber >= 0; cellNumber--) {
+                suffixSum += histogram[cellNumber + 1];
+                lit[cellNumber] = suffixSum;
+            }
+            litCounts[rowNumber] = lit;
+        }
+    }
+
+    /**
+     * Simple getter for count of aggregated times.
+     *
+     * @return count of times
+     */
+    public long getTotal() {
+        return total;
+    }
+
+    /**
+     * Simple getter for count of rows.
+     *
+     * @return count of rows of clock pattern
+     */
+    public int getRowCount() {
+        return histograms.length;
+    }
+
+    /**
+     * Returns histogram of light cells count of specified row.
+     *
+     * @param rowNumber specified index of row
+     * @return copy of histogram, element at index {@code n} is count of times with {@code n} light cells
+     */
+    public long[] getLightCountHistogram(final int rowNumber) {
+        Preconditions.checkElementIndex(rowNumber, histograms.length, "Row");
+        return histograms[rowNumber].clone();
+    }
+
+    /**
+     * Returns count of times each cell of specified row was lit.
+     *
+     * @param rowNumber specified index of row
+     * @return copy of lit counts, one element per cell
+     */
+    public long[] getCellLitCounts(final int rowNumber) {
+        Preconditions.checkElementIndex(rowNumber, litCounts.length, "Row");
+        return litCounts[rowNumber].clone();
+    }
+
+    /**
+     * Calculates share of times each cell of specified row was lit.
+     *
+     * @param rowNumber specified index of row
+     * @return lit frequencies from 0 to 1, one element per cell, zeros if nothing was aggregated
+     */
+    public double[] getCellLitFrequencies(final int rowNumber) {
+        Preconditions.checkElementIndex(rowNumber, litCounts.length, "Row");
+        final long[] lit = litCounts[rowNumber];
+        final double[] frequencies = new double[lit.length];
+        if (total > 0) {
+            for (int cellNumber = 0; cellNumber < lit.length; cellNumber++) {
+                frequencies[cellNumber] = (double) lit[cellNumber] / total;
+            }
+        }
+        return frequencies;
+    }
+}
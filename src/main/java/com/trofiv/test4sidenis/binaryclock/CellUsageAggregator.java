@@ -0,0 +1,295 @@
+package com.trofiv.test4sidenis.binaryclock;
+
+import com.google.common.base.Preconditions;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.LongStream;
+
+/**
+ * A {@code CellUsageAggregator} aggregates usage of cells of binary clock over large sets of times without
+ * materializing representation of each time. Cells are distributed to rows greedily, so state of clock changes
+ * only at multiples of the greatest common divisor of durations of cells of all rows, and state is constant
+ * within each such unit of time. If day has moderate count of units, and chunk of times is not smaller than
+ * count of units, each time only increments counter of its unit, and pattern is evaluated once per used unit at
+ * the end. Otherwise pattern is evaluated for each time to reused array, so counters of units never cost more
+ * than times they count. Either way single counter per row is incremented in histogram of light cells count, and lit
+ * counts of cells are derived from histograms (see {@code CellUsage}). Arrays are split to chunks aggregated in
+ * parallel by fork-join pool, count of chunks is bounded by parallelism of pool, and partial counters of chunks
+ * are summed when tasks are joined. Streams are aggregated by {@code collect}, so parallel stream has partial
+ * counters per thread too.
+ */
+public class CellUsageAggregator {
+    /**
+     * Minimal count of times that is aggregated by single fork-join task without further splitting.
+     */
+    public static final int DEFAULT_SPLIT_THRESHOLD = 64 * 1024;
+    private static final long NANOS_IN_DAY = TimeUnit.DAYS.toNanos(1);
+    private static final int MAX_UNIT_COUNT = 1 << 20;
+    private static final int TASKS_PER_THREAD = 4;
+
+    private final CompiledBinaryClockPattern compiledPattern;
+    private final ForkJoinPool pool;
+    private final int splitThreshold;
+    private final long unitNanos;
+    private final int unitCount;
+
+    /**
+     * Instantiates {@code CellUsageAggregator} object that uses common fork-join pool.
+     *
+     * @param clockPattern specified {@code BinaryClockPattern} pattern representing binary clock
+     */
+    public CellUsageAggregator(final BinaryClockPattern clockPattern) {
+        this(clockPattern, ForkJoinPool.commonPool(), DEFAULT_SPLIT_THRESHOLD);
+    }
+
+    /**
+     * Instantiates {@code CellUsageAggregator} object and validates all specified parameters.
+     *
+     * @param clockPattern   specified {@code BinaryClockPattern} pattern representing binary clock
+     * @param pool           specified fork-join pool for parallel aggregation
+     * @param splitThreshold specified minimal count of times aggregated by single task
+     */
+    public CellUsageAggregator(
+            final BinaryClockPattern clockPattern,
+            final ForkJoinPool pool,
+            final int splitThreshold) {
+        Preconditions.checkNotNull(clockPattern, "Clock pattern must be specified!");
+        Preconditions.checkNotNull(pool, "Fork-join pool must be specified!");
+        Preconditions.checkArgument(splitThreshold > 0, "Split threshold must be a positive value!");
+        compiledPattern = clockPattern.compile();
+        this.pool = pool;
+        this.splitThreshold = splitThreshold;
+        long divisor = compiledPattern.getCellNanos(0);
+        for (int rowNumber = 1; rowNumber < compiledPattern.getRowCount(); rowNumber++) {
+            divisor = gcd(divisor, compiledPattern.getCellNanos(rowNumber));
+        }
+        final long units = (NANOS_IN_DAY + divisor - 1) / divisor;
+        unitNanos = divisor;
+        //noinspection NumericCastThatLosesPrecision
+        unitCount = units <= MAX_UNIT_COUNT ? (int) units : 0;
+    }
+
+    /**
+     * Calculates the greatest common divisor of specified values.
+     *
+     * @param first  specified positive value
+     * @param second specified positive value
+     * @return the greatest common divisor
+     */
+    private static long gcd(final long first, final long second) {
+        long a = first;
+        long b = second;
+        while (b != 0) {
+            final long remainder = a % b;
+            a = b;
+            b = remainder;
+        }
+        return a;
+    }
+
+    /**
+     * Aggregates usage of cells over specified times.
+     *
+     * @param nanosOfDay specified times as nanoseconds from start of day
+     * @return aggregated {@code CellUsage}
+     */
+    public CellUsage aggregate(final long[] nanosOfDay) {
+        Preconditions.checkNotNull(nanosOfDay, "Times for aggregation must be specified!");
+        //chunks are large enough to amortize their counters, but there are still several chunks per thread
+        final int chunk = Math.max(splitThreshold, nanosOfDay.length / (pool.getParallelism() * TASKS_PER_THREAD));
+        final AggregateTask task = new AggregateTask(nanosOfDay, 0, nanosOfDay.length, chunk);
+        final long[][] histograms = nanosOfDay.length <= chunk ? task.compute() : pool.invoke(task);
+        return new CellUsage(histograms, nanosOfDay.length);
+    }
+
+    /**
+     * Aggregates usage of cells over specified stream of times. Stream is not materialized.
+     *
+     * @param nanosOfDay specified stream of times as nanoseconds from start of day
+     * @return aggregated {@code CellUsage}
+     */
+    public CellUsage aggregate(final LongStream nanosOfDay) {
+        Preconditions.checkNotNull(nanosOfDay, "Times for aggregation must be specified!");
+        //sequential stream has single accumulator, parallel one has accumulator per split of stream
+        final long directTimes = unitCount == 0 ? Long.MAX_VALUE : nanosOfDay.isParallel() ? unitCount : 0;
+        final Accumulator accumulator = nanosOfDay.collect(() -> new Accumulator(directTimes), Accumulator::add,
+                Accumulator::merge);
+        return new CellUsage(accumulator.toHistograms(), accumulator.total);
+    }
+
+    /**
+     * Creates zeroed histograms, one per row with element per possible light cells count.
+     *
+     * @return new histograms
+     */
+    private long[][] newHistograms() {
+        final long[][] histograms = new long[compiledPattern.getRowCount()][];
+        for (int rowNumber = 0; rowNumber < histograms.length; rowNumber++) {
+            histograms[rowNumber] = new long[compiledPattern.getCellsInRow(rowNumber) + 1];
+        }
+        return histograms;
+    }
+
+    /**
+     * Calculates index of unit of time that contains specified time.
+     *
+     * @param nanoOfDay specified time as nanoseconds from start of day
+     * @return index of unit
+     */
+    private int unitOf(final long nanoOfDay) {
+        Preconditions.checkArgument(nanoOfDay >= 0 && nanoOfDay < NANOS_IN_DAY, "Time must be within a day!");
+        //noinspection NumericCastThatLosesPrecision
+        return (int) (nanoOfDay / unitNanos);
+    }
+
+    /**
+     * Evaluates pattern once per used unit of time and adds counts of units to specified histograms.
+     *
+     * @param unitCounts specified count of times in each unit
+     * @param histograms specified histograms to add to
+     * @return specified histograms
+     */
+    private long[][] addUnits(final long[] unitCounts, final long[][] histograms) {
+        final int[] lightCells = new int[histograms.length];
+        for (int unit = 0; unit < unitCounts.length; unit++) {
+            final long count = unitCounts[unit];
+            if (count != 0) {
+                compiledPattern.evaluate(unit * unitNanos, lightCells);
+                for (int rowNumber = 0; rowNumber < lightCells.length; rowNumber++) {
+                    histograms[rowNumber][lightCells[rowNumber]] += count;
+                }
+            }
+        }
+        return histograms;
+    }
+
+    /**
+     * Adds specified histograms to target ones.
+     *
+     * @param target specified histograms to add to
+     * @param source specified histograms to be added
+     * @return target histograms
+     */
+    private static long[][] merge(final long[][] target, final long[][] source) {
+        for (int rowNumber = 0; rowNumber < target.length; rowNumber++) {
+            final long[] targetRow = target[rowNumber];
+            final long[] sourceRow = source[rowNumber];
+            for (int lightCount = 0; lightCount < targetRow.length; lightCount++) {
+                targetRow[lightCount] += sourceRow[lightCount];
+            }
+        }
+        return target;
+    }
+
+    /**
+     * An {@code AggregateTask} aggregates range of times to its own histograms, splitting range
+     * in halves until it is small enough.
+     */
+    private final class AggregateTask extends RecursiveTask<long[][]> {
+        private static final long serialVersionUID = 1L;
+
+        private final long[] nanosOfDay;
+        private final int from;
+        private final int to;
+        private final int chunk;
+
+        private AggregateTask(final long[] nanosOfDay, final int from, final int to, final int chunk) {
+            this.nanosOfDay = nanosOfDay;
+            this.from = from;
+            this.to = to;
+            this.chunk = chunk;
+        }
+
+        @Override
+        protected long[][] compute() {
+            if (to - from <= chunk) {
+                //counters of units are allocated and scanned only if range amortizes them
+                return unitCount > 0 && to - from >= unitCount
+                        ? addUnits(countUnits(), newHistograms())
+                        : aggregateRange();
+            }
+            final int middle = (from + to) >>> 1;
+            final AggregateTask right = new AggregateTask(nanosOfDay, middle, to, chunk);
+            right.fork();
+            final long[][] left = new AggregateTask(nanosOfDay, from, middle, chunk).compute();
+            return merge(left, right.join());
+        }
+
+        private long[] countUnits() {
+            final long[] unitCounts = new long[unitCount];
+            for (int index = from; index < to; index++) {
+                unitCounts[unitOf(nanosOfDay[index])]++;
+            }
+            return unitCounts;
+        }
+
+        private long[][] aggregateRange() {
+            final long[][] histograms = newHistograms();
+            final int[] lightCells = new int[histograms.length];
+            for (int index = from; index < to; index++) {
+                compiledPattern.evaluate(nanosOfDay[index], lightCells);
+                for (int rowNumber = 0; rowNumber < lightCells.length; rowNumber++) {
+                    histograms[rowNumber][lightCells[rowNumber]]++;
+                }
+            }
+            return histograms;
+        }
+    }
+
+    /**
+     * An {@code Accumulator} represents partial counters of stream aggregation. Specified count of the first
+     * times is evaluated to histograms, then counters of units are allocated and the following times are
+     * counted by units. Accumulators of parallel stream count units only after they have seen as many times
+     * as there are units, so small splits do not allocate and scan counters of all units.
+     */
+    private final class Accumulator {
+        private final long[][] histograms = newHistograms();
+        private final int[] lightCells = new int[histograms.length];
+        private final long directTimes;
+        private long[] unitCounts;
+        private long total;
+
+        private Accumulator(final long directTimes) {
+            this.directTimes = directTimes;
+        }
+
+        private void add(final long nanoOfDay) {
+            if (total >= directTimes) {
+                if (unitCounts == null) {
+                    unitCounts = new long[unitCount];
+                }
+                unitCounts[unitOf(nanoOfDay)]++;
+            } else {
+                evaluate(nanoOfDay);
+            }
+            total++;
+        }
+
+        private void evaluate(final long nanoOfDay) {
+            compiledPattern.evaluate(nanoOfDay, lightCells);
+            for (int rowNumber = 0; rowNumber < lightCells.length; rowNumber++) {
+                histograms[rowNumber][lightCells[rowNumber]]++;
+            }
+        }
+
+        private void merge(final Accumulator other) {
+            if (other.unitCounts != null) {
+                if (unitCounts == null) {
+                    unitCounts = other.unitCounts;
+                } else {
+                    for (int unit = 0; unit < unitCounts.length; unit++) {
+                        unitCounts[unit] += other.unitCounts[unit];
+                    }
+                }
+            }
+            CellUsageAggregator.merge(histograms, other.histograms);
+            total += other.total;
+        }
+
+        private long[][] toHistograms() {
+            return unitCounts == null ? histograms : addUnits(unitCounts, histograms);
+        }
+    }
+}
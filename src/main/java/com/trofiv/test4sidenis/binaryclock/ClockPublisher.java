@@ -0,0 +1,379 @@
+package com.trofiv.test4sidenis.binaryclock;
+
+import com.google.common.base.Preconditions;
+
+import java.time.Clock;
+import java.time.LocalTime;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * A {@code ClockPublisher} pushes rendered frames of binary clocks to subscribers. Subscribers with equal
+ * pattern and the same formatter share topic: frame is rendered once per change of clock state and the same
+ * frame object is delivered to all of them. All topics are driven by single timer thread, that sleeps until
+ * the next transition of each topic calculated by {@code ClockTransitions}. Frames are delivered on specified
+ * executor, and each subscriber keeps only the latest undelivered frame, so slow subscriber skips
+ * intermediate frames instead of accumulating them.
+ */
+public class ClockPublisher implements AutoCloseable {
+    private final Clock wallClock;
+    private final Executor deliveryExecutor;
+    private final ScheduledThreadPoolExecutor timer;
+    private final ConcurrentMap<TopicKey, Topic<?>> topics = new ConcurrentHashMap<>();
+    private final LongAdder conflatedFrames = new LongAdder();
+    private final LongAdder failedDeliveries = new LongAdder();
+    private final LongAdder failedRenders = new LongAdder();
+
+    /**
+     * Instantiates {@code ClockPublisher} object delivering frames on common fork-join pool.
+     *
+     * @param wallClock specified source of current time
+     */
+    public ClockPublisher(final Clock wallClock) {
+        this(wallClock, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Instantiates {@code ClockPublisher} object and validates all specified parameters.
+     *
+     * @param wallClock        specified source of current time
+     * @param deliveryExecutor specified executor of deliveries to subscribers
+     */
+    public ClockPublisher(final Clock wallClock, final Executor deliveryExecutor) {
+        Preconditions.checkNotNull(wallClock, "Wall clock must be specified!");
+        Preconditions.checkNotNull(deliveryExecutor, "Delivery executor must be specified!");
+        this.wallClock = wallClock;
+        this.deliveryExecutor = deliveryExecutor;
+        timer = new ScheduledThreadPoolExecutor(1, runnable -> {
+            final Thread thread = new Thread(runnable, "clock-publisher-timer");
+            thread.setDaemon(true);
+            return thread;
+        });
+        timer.setRemoveOnCancelPolicy(true);
+    }
+
+    /**
+     * Subscribes consumer to frames of specified pattern rendered by specified formatter. Current frame is
+     * delivered first, and then each changed frame. Formatter must be a pure function, formatters are
+     * distinguished by identity, frames are compared by {@code equals}.
+     *
+     * @param clockPattern specified {@code BinaryClockPattern} pattern representing binary clock
+     * @param formatter    specified closure function for frame representation
+     * @param consumer     specified consumer of frames
+     * @param <T>          specified type of frame
+     * @return subscription, that must be closed to stop deliveries
+     */
+    public <T> Subscription subscribe(final BinaryClockPattern clockPattern,
+                                      final Function<List<BinaryClockRowRepresentation>, T> formatter,
+                                      final Consumer<? super T> consumer) {
+        Preconditions.checkNotNull(clockPattern, "Clock pattern must be specified!");
+        Preconditions.checkNotNull(formatter, "Formatter must be specified!");
+        Preconditions.checkNotNull(consumer, "Consumer must be specified!");
+        Preconditions.checkState(!timer.isShutdown(), "Publisher is closed!");
+        final TopicKey key = new TopicKey(clockPattern, formatter);
+        final Subscriber<T> subscriber = new Subscriber<>(consumer);
+        final Topic<T> topic = join(key, formatter, subscriber);
+        //frames are offered only on timer thread, so current frame can not overtake newer one
+        timer.execute(() -> subscriber.offer(topic.currentFrame()));
+        return new Subscription(key, subscriber);
+    }
+
+    /**
+     * Adds subscriber to topic of specified key, creating and starting topic if there is none. New topic
+     * renders its first frame by user formatter, so it is created outside of map lock, and only adding of
+     * subscriber is atomic with removal of the last subscriber of topic.
+     *
+     * @param key        specified key of topic
+     * @param formatter  specified closure function for frame representation
+     * @param subscriber specified subscriber
+     * @param <T>        specified type of frame
+     * @return topic subscriber was added to
+     */
+    @SuppressWarnings("unchecked")
+    private <T> Topic<T> join(final TopicKey key,
+                              final Function<List<BinaryClockRowRepresentation>, T> formatter,
+                              final Subscriber<T> subscriber) {
+        while (true) {
+            final Topic<T> candidate = topics.containsKey(key) ? null : new Topic<>(key, formatter);
+            //topic of key is the same for all subscribers, so frames of topic have type of formatter result
+            final Topic<T> topic = (Topic<T>) topics.compute(key, (topicKey, existing) -> {
+                final Topic<T> result = existing == null ? candidate : (Topic<T>) existing;
+                if (result != null) {
+                    result.subscribers.add(subscriber);
+                }
+                return result;
+            });
+            if (topic == candidate && topic != null) {
+                topic.scheduleNext(topic.renderedAt);
+            }
+            //topic may be removed between the check and compute, then attempt is repeated with new topic
+            if (topic != null) {
+                return topic;
+            }
+        }
+    }
+
+    /**
+     * Calculates current time of day from wall clock.
+     *
+     * @return current time as nanoseconds from start of day
+     */
+    private long now() {
+        return LocalTime.now(wallClock).toNanoOfDay();
+    }
+
+    /**
+     * Simple getter for count of distinct topics.
+     *
+     * @return count of topics with at least one subscriber
+     */
+    public int getTopicCount() {
+        return topics.size();
+    }
+
+    /**
+     * Simple getter for count of frames replaced by newer ones before delivery.
+     *
+     * @return count of skipped frames
+     */
+    public long getConflatedFrames() {
+        return conflatedFrames.sum();
+    }
+
+    /**
+     * Simple getter for count of deliveries failed with exception of consumer.
+     *
+     * @return count of failed deliveries
+     */
+    public long getFailedDeliveries() {
+        return failedDeliveries.sum();
+    }
+
+    /**
+     * Simple getter for count of publications failed with exception or {@code null} frame of formatter.
+     * Topic keeps its previous frame and is rescheduled after failed publication.
+     *
+     * @return count of failed renders
+     */
+    public long getFailedRenders() {
+        return failedRenders.sum();
+    }
+
+    /**
+     * Stops timer, no more frames are published.
+     */
+    @Override
+    public void close() {
+        timer.shutdownNow();
+        topics.clear();
+    }
+
+    /**
+     * A {@code TopicKey} represents pair of pattern and formatter identity.
+     */
+    private static final class TopicKey {
+        private final BinaryClockPattern clockPattern;
+        private final Object formatter;
+
+        private TopicKey(final BinaryClockPattern clockPattern, final Object formatter) {
+            this.clockPattern = clockPattern;
+            this.formatter = formatter;
+        }
+
+        @Override
+        public boolean equals(final Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (o == null || getClass() != o.getClass()) {
+                return false;
+            }
+            final TopicKey that = (TopicKey) o;
+            return formatter == that.formatter && clockPattern.equals(that.clockPattern);
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * clockPattern.hashCode() + System.identityHashCode(formatter);
+        }
+    }
+
+    /**
+     * A {@code Topic} renders frames of single pattern and formatter and fans them out to subscribers.
+     *
+     * @param <T> type of frame
+     */
+    private final class Topic<T> {
+        private final GenericBinaryClock clock;
+        private final ClockTransitions transitions;
+        private final Function<List<BinaryClockRowRepresentation>, T> formatter;
+        private final Set<Subscriber<T>> subscribers = ConcurrentHashMap.newKeySet();
+        private final long renderedAt;
+        private volatile T frame;
+        private volatile ScheduledFuture<?> publication;
+        private volatile boolean cancelled;
+
+        /**
+         * Renders the first frame of topic. Publications start with the first {@code scheduleNext} call.
+         */
+        private Topic(final TopicKey key, final Function<List<BinaryClockRowRepresentation>, T> formatter) {
+            clock = BinaryClockRegistry.clockOf(key.clockPattern);
+            transitions = new ClockTransitions(clock.getClockPattern());
+            this.formatter = formatter;
+            renderedAt = now();
+            frame = clock.of(LocalTime.ofNanoOfDay(renderedAt), formatter);
+        }
+
+        /**
+         * Simple getter for the latest rendered frame.
+         *
+         * @return the latest frame
+         */
+        private T currentFrame() {
+            return frame;
+        }
+
+        /**
+         * Schedules publication at the next transition of clock.
+         *
+         * @param now specified current time as nanoseconds from start of day
+         */
+        private void scheduleNext(final long now) {
+            if (cancelled) {
+                return;
+            }
+            publication = timer.schedule(this::publish, transitions.nextTransition(now) - now,
+                    TimeUnit.NANOSECONDS);
+        }
+
+        /**
+         * Renders frame for current time and delivers it to all subscribers if it changed. Called only
+         * on timer thread. Next publication is scheduled even if formatter fails.
+         */
+        private void publish() {
+            final long now = now();
+            try {
+                final T rendered = clock.of(LocalTime.ofNanoOfDay(now), formatter);
+                if (rendered == null) {
+                    failedRenders.increment();
+                } else if (!rendered.equals(frame)) {
+                    frame = rendered;
+                    for (Subscriber<T> subscriber : subscribers) {
+                        subscriber.offer(rendered);
+                    }
+                }
+            } catch (RuntimeException e) {
+                failedRenders.increment();
+            } finally {
+                scheduleNext(now);
+            }
+        }
+
+        /**
+         * Stops publications of topic.
+         */
+        private void cancel() {
+            //publication running concurrently may reschedule topic at most once more, and that one stops
+            cancelled = true;
+            final ScheduledFuture<?> pending = publication;
+            if (pending != null) {
+                pending.cancel(false);
+            }
+        }
+    }
+
+    /**
+     * A {@code Subscriber} delivers frames to consumer one at a time, keeping only the latest undelivered frame.
+     *
+     * @param <T> type of frame
+     */
+    private final class Subscriber<T> implements Runnable {
+        private final Consumer<? super T> consumer;
+        private final AtomicReference<T> pendingFrame = new AtomicReference<>();
+        private final AtomicBoolean scheduled = new AtomicBoolean();
+        private volatile boolean closed;
+        private T offeredFrame;
+
+        private Subscriber(final Consumer<? super T> consumer) {
+            this.consumer = consumer;
+        }
+
+        /**
+         * Offers frame for delivery, replacing undelivered one. Called only on timer thread.
+         *
+         * @param frame specified frame
+         */
+        private void offer(final T frame) {
+            //the first frame of new subscriber may be already offered by publication of topic
+            if (frame == offeredFrame) {
+                return;
+            }
+            offeredFrame = frame;
+            if (pendingFrame.getAndSet(frame) != null) {
+                conflatedFrames.increment();
+            }
+            if (scheduled.compareAndSet(false, true)) {
+                deliveryExecutor.execute(this);
+            }
+        }
+
+        /**
+         * Delivers pending frames until there are none. Only one delivery of subscriber runs at a time.
+         */
+        @Override
+        public void run() {
+            do {
+                final T frame = pendingFrame.getAndSet(null);
+                if (frame != null && !closed) {
+                    try {
+                        consumer.accept(frame);
+                    } catch (RuntimeException e) {
+                        failedDeliveries.increment();
+                    }
+                }
+                scheduled.set(false);
+            } while (pendingFrame.get() != null && scheduled.compareAndSet(false, true));
+        }
+    }
+
+    /**
+     * A {@code Subscription} represents registered consumer.
+     */
+    public final class Subscription implements AutoCloseable {
+        private final TopicKey key;
+        private final Subscriber<?> subscriber;
+
+        private Subscription(final TopicKey key, final Subscriber<?> subscriber) {
+            this.key = key;
+            this.subscriber = subscriber;
+        }
+
+        /**
+         * Cancels subscription. Topic without subscribers stops its publications.
+         */
+        @Override
+        public void close() {
+            subscriber.closed = true;
+            topics.computeIfPresent(key, (topicKey, topic) -> {
+                topic.subscribers.remove(subscriber);
+                if (topic.subscribers.isEmpty()) {
+                    topic.cancel();
+                    return null;
+                }
+                return topic;
+            });
+        }
+    }
+}
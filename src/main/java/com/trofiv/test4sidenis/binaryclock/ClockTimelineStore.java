@@ -0,0 +1,392 @@
+package com.trofiv.test4sidenis.binaryclock;
+
+import com.google.common.base.Preconditions;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A {@code ClockTimelineStore} keeps timeline of evaluated states of binary clock off heap. States are appended
+ * in order of time to segments of fixed capacity, each segment is direct {@code ByteBuffer} with column of times
+ * followed by one column per row of pattern. Column of row uses the narrowest unsigned integer width that fits
+ * count of cells of row (1, 2 or 4 bytes), so Berlin clock state takes 5 bytes plus 8 bytes of time. When count
+ * of filled segments in memory exceeds limit, the oldest one is written to file in spill directory and replaced
+ * by read-only mapping of that file, so heap keeps only small descriptor per segment regardless of timeline
+ * length. Range scans skip segments by their first and last time and find range in segment by binary search.
+ * Store is not thread-safe, spill files are deleted when store is closed.
+ */
+public class ClockTimelineStore implements AutoCloseable {
+    private static final int TIME_BYTES = Long.BYTES;
+    private static final int UNSIGNED_BYTE_MAX = 0xFF;
+    private static final int UNSIGNED_SHORT_MAX = 0xFFFF;
+
+    private final CompiledBinaryClockPattern compiledPattern;
+    private final int segmentCapacity;
+    private final Path spillDirectory;
+    private final int maxResidentSegments;
+    private final int[] columnWidths;
+    private final int[] columnOffsets;
+    private final int segmentBytes;
+    private final int[] evaluatedCells;
+    private final List<Segment> segments = new ArrayList<>();
+    private Segment current;
+    private int residentSegments;
+    private long size;
+
+    /**
+     * Instantiates {@code ClockTimelineStore} object and validates all specified parameters.
+     *
+     * @param clockPattern        specified {@code BinaryClockPattern} pattern representing binary clock
+     * @param segmentCapacity     specified count of states in segment
+     * @param spillDirectory      specified existing directory for spilled segments
+     * @param maxResidentSegments specified count of filled segments kept in memory before spilling
+     */
+    public ClockTimelineStore(
+            final BinaryClockPattern clockPattern,
+            final int segmentCapacity,
+            final Path spillDirectory,
+            final int maxResidentSegments) {
+        Preconditions.checkNotNull(clockPattern, "Clock pattern must be specified!");
+        Preconditions.checkArgument(segmentCapacity > 0, "Segment capacity must be positive!");
+        Preconditions.checkNotNull(spillDirectory, "Spill directory must be specified!");
+        Preconditions.checkArgument(Files.isDirectory(spillDirectory), "Spill directory must exist!");
+        Preconditions.checkArgument(maxResidentSegments >= 0, "Count of resident segments must not be negative!");
+        compiledPattern = clockPattern.compile();
+        final int rowCount = compiledPattern.getRowCount();
+        columnWidths = new int[rowCount];
+        columnOffsets = new int[rowCount];
+        long offset = (long) segmentCapacity * TIME_BYTES;
+        for (int rowNumber = 0; rowNumber < rowCount; rowNumber++) {
+            columnWidths[rowNumber] = widthOf(compiledPattern.getCellsInRow(rowNumber));
+            Preconditions.checkArgument(offset <= Integer.MAX_VALUE, "Segment capacity is too large!");
+            //noinspection NumericCastThatLosesPrecision
+            columnOffsets[rowNumber] = (int) offset;
+            offset += (long) segmentCapacity * columnWidths[rowNumber];
+        }
+        Preconditions.checkArgument(offset <= Integer.MAX_VALUE, "Segment capacity is too large!");
+        //noinspection NumericCastThatLosesPrecision
+        segmentBytes = (int) offset;
+        this.segmentCapacity = segmentCapacity;
+        this.spillDirectory = spillDirectory;
+        this.maxResidentSegments = maxResidentSegments;
+        evaluatedCells = new int[rowCount];
+    }
+
+    /**
+     * Calculates the narrowest width of column that fits specified count of cells.
+     *
+     * @param cellsInRow specified count of cells of row
+     * @return width of column in bytes
+     */
+    static int widthOf(final int cellsInRow) {
+        if (cellsInRow <= UNSIGNED_BYTE_MAX) {
+            return Byte.BYTES;
+        }
+        return cellsInRow <= UNSIGNED_SHORT_MAX ? Short.BYTES : Integer.BYTES;
+    }
+
+    /**
+     * Appends state of clock at specified time.
+     *
+     * @param time       specified time of state, in any units, not less than time of previous state
+     * @param lightCells specified light cells count of each row
+     */
+    public void append(final long time, final int[] lightCells) {
+        Preconditions.checkArgument(lightCells.length == columnWidths.length,
+                "Light cells array must have one element per clock row!");
+        Preconditions.checkArgument(size == 0 || time >= current.lastTime, "Time must not decrease!");
+        //state is validated completely before segment is started or written, so rejected state leaves no trace
+        for (int rowNumber = 0; rowNumber < columnWidths.length; rowNumber++) {
+            Preconditions.checkArgument(lightCells[rowNumber] >= 0
+                            && lightCells[rowNumber] <= compiledPattern.getCellsInRow(rowNumber),
+                    "Count of light cells must be within row!");
+        }
+        if (current == null || current.count == segmentCapacity) {
+            startSegment();
+        }
+        final ByteBuffer buffer = current.buffer;
+        final int index = current.count;
+        buffer.putLong(index * TIME_BYTES, time);
+        for (int rowNumber = 0; rowNumber < columnWidths.length; rowNumber++) {
+            final int lightCellsCount = lightCells[rowNumber];
+            final int position = columnOffsets[rowNumber] + index * columnWidths[rowNumber];
+            switch (columnWidths[rowNumber]) {
+                case Byte.BYTES:
+                    //noinspection NumericCastThatLosesPrecision
+                    buffer.put(position, (byte) lightCellsCount);
+                    break;
+                case Short.BYTES:
+                    //noinspection NumericCastThatLosesPrecision
+                    buffer.putShort(position, (short) lightCellsCount);
+                    break;
+                default:
+                    buffer.putInt(position, lightCellsCount);
+                    break;
+            }
+        }
+        if (index == 0) {
+            current.firstTime = time;
+        }
+        current.lastTime = time;
+        current.count++;
+        size++;
+    }
+
+    /**
+     * Evaluates pattern at specified time of day and appends result.
+     *
+     * @param time      specified time of state, in any units, not less than time of previous state
+     * @param nanoOfDay specified time of day to evaluate, as nanoseconds from start of day
+     */
+    public void appendEvaluated(final long time, final long nanoOfDay) {
+        append(time, compiledPattern.evaluate(nanoOfDay, evaluatedCells));
+    }
+
+    /**
+     * Seals current segment, spilling the oldest resident segment if limit is exceeded, and starts new one.
+     */
+    private void startSegment() {
+        if (current != null && residentSegments >= maxResidentSegments) {
+            spillOldestResident();
+        }
+        final Segment next = new Segment(ByteBuffer.allocateDirect(segmentBytes).order(ByteOrder.nativeOrder()));
+        segments.add(next);
+        //sealed segment becomes resident only when new one is installed, so failed attempt changes nothing
+        if (current != null) {
+            residentSegments++;
+        }
+        current = next;
+    }
+
+    /**
+     * Writes the oldest filled segment that is still in memory to file and maps it back.
+     */
+    private void spillOldestResident() {
+        for (Segment segment : segments) {
+            if (segment.file == null && segment != current) {
+                Path file = null;
+                try {
+                    file = Files.createTempFile(spillDirectory, "timeline-", ".segment");
+                    segment.spill(file);
+                } catch (IOException e) {
+                    //segment stays in memory, so file is not referenced by it and would not be deleted on close
+                    if (file != null) {
+                        try {
+                            Files.deleteIfExists(file);
+                        } catch (IOException suppressed) {
+                            e.addSuppressed(suppressed);
+                        }
+                    }
+                    throw new UncheckedIOException(e);
+                }
+                residentSegments--;
+                return;
+            }
+        }
+    }
+
+    /**
+     * Reads light cells count of specified row at specified index of segment.
+     *
+     * @param buffer    specified buffer of segment
+     * @param rowNumber specified index of row
+     * @param index     specified index of state in segment
+     * @return count of light cells
+     */
+    private int lightCellsCount(final ByteBuffer buffer, final int rowNumber, final int index) {
+        final int position = columnOffsets[rowNumber] + index * columnWidths[rowNumber];
+        switch (columnWidths[rowNumber]) {
+            case Byte.BYTES:
+                return buffer.get(position) & UNSIGNED_BYTE_MAX;
+            case Short.BYTES:
+                return buffer.getShort(position) & UNSIGNED_SHORT_MAX;
+            default:
+                return buffer.getInt(position);
+        }
+    }
+
+    /**
+     * Visits states with time within {@code [fromTime, toTime)} in order of time.
+     *
+     * @param fromTime specified inclusive start of range
+     * @param toTime   specified exclusive end of range
+     * @param visitor  specified visitor of states
+     * @return count of visited states
+     */
+    public long scan(final long fromTime, final long toTime, final StateVisitor visitor) {
+        Preconditions.checkNotNull(visitor, "Visitor must be specified!");
+        final int[] lightCells = new int[columnWidths.length];
+        long visited = 0;
+        for (Segment segment : segments) {
+            if (segment.count == 0 || segment.lastTime < fromTime || segment.firstTime >= toTime) {
+                continue;
+            }
+            final ByteBuffer buffer = segment.buffer;
+            final int end = segment.lowerBound(toTime);
+            for (int index = segment.lowerBound(fromTime); index < end; index++) {
+                for (int rowNumber = 0; rowNumber < lightCells.length; rowNumber++) {
+                    lightCells[rowNumber] = lightCellsCount(buffer, rowNumber, index);
+                }
+                visitor.visit(buffer.getLong(index * TIME_BYTES), lightCells);
+                visited++;
+            }
+        }
+        return visited;
+    }
+
+    /**
+     * Counts states with time within {@code [fromTime, toTime)} without reading their columns.
+     *
+     * @param fromTime specified inclusive start of range
+     * @param toTime   specified exclusive end of range
+     * @return count of states
+     */
+    public long count(final long fromTime, final long toTime) {
+        long count = 0;
+        for (Segment segment : segments) {
+            if (segment.count > 0 && segment.lastTime >= fromTime && segment.firstTime < toTime) {
+                count += segment.lowerBound(toTime) - segment.lowerBound(fromTime);
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Simple getter for count of stored states.
+     *
+     * @return count of appended states
+     */
+    public long size() {
+        return size;
+    }
+
+    /**
+     * Simple getter for count of segments.
+     *
+     * @return count of segments, including current one
+     */
+    public int getSegmentCount() {
+        return segments.size();
+    }
+
+    /**
+     * Calculates count of segments written to files.
+     *
+     * @return count of spilled segments
+     */
+    public int getSpilledSegmentCount() {
+        int spilled = 0;
+        for (Segment segment : segments) {
+            if (segment.file != null) {
+                spilled++;
+            }
+        }
+        return spilled;
+    }
+
+    /**
+     * Simple getter for size of segment.
+     *
+     * @return size of segment in bytes
+     */
+    public int getSegmentBytes() {
+        return segmentBytes;
+    }
+
+    /**
+     * Deletes spill files. Store must not be used after it is closed.
+     */
+    @Override
+    public void close() {
+        IOException failure = null;
+        for (Segment segment : segments) {
+            if (segment.file != null) {
+                try {
+                    Files.deleteIfExists(segment.file);
+                } catch (IOException e) {
+                    failure = e;
+                }
+            }
+        }
+        segments.clear();
+        current = null;
+        if (failure != null) {
+            throw new UncheckedIOException(failure);
+        }
+    }
+
+    /**
+     * A {@code StateVisitor} receives states found by range scan.
+     */
+    @FunctionalInterface
+    public interface StateVisitor {
+        /**
+         * Receives single state.
+         *
+         * @param time       time of state
+         * @param lightCells light cells count of each row, array is reused and must not be kept by visitor
+         */
+        void visit(long time, int[] lightCells);
+    }
+
+    /**
+     * A {@code Segment} represents columns of states in direct or mapped buffer.
+     */
+    private static final class Segment {
+        private ByteBuffer buffer;
+        private Path file;
+        private int count;
+        private long firstTime;
+        private long lastTime;
+
+        private Segment(final ByteBuffer buffer) {
+            this.buffer = buffer;
+        }
+
+        /**
+         * Finds the first state with time not less than specified one.
+         *
+         * @param time specified time
+         * @return index of state, or count of states if all of them are earlier
+         */
+        private int lowerBound(final long time) {
+            int low = 0;
+            int high = count;
+            while (low < high) {
+                final int middle = (low + high) >>> 1;
+                if (buffer.getLong(middle * TIME_BYTES) < time) {
+                    low = middle + 1;
+                } else {
+                    high = middle;
+                }
+            }
+            return low;
+        }
+
+        /**
+         * Writes buffer to specified file and replaces buffer by read-only mapping of the file.
+         *
+         * @param target specified file
+         * @throws IOException if file can not be written or mapped
+         */
+        private void spill(final Path target) throws IOException {
+            try (FileChannel channel = FileChannel.open(target, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+                final ByteBuffer source = buffer.duplicate();
+                source.clear();
+                while (source.hasRemaining()) {
+                    channel.write(source);
+                }
+                buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()).order(buffer.order());
+            }
+            file = target;
+        }
+    }
+}
@@ -0,0 +1,169 @@
+package com.trofiv.test4sidenis.binaryclock;
+
+import com.google.common.base.Preconditions;
+
+import java.time.Clock;
+import java.time.LocalTime;
+import java.util.BitSet;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A {@code ClockTransitionScheduler} notifies subscribers when rows of binary clock they are interested in
+ * change. Instead of polling, each subscription sleeps until the next transition calculated by
+ * {@code ClockTransitions}, so idle subscribers cost nothing. Timer may wake subscription slightly before
+ * transition (wall clock and timer clock may drift), then it is rescheduled without notification, so
+ * listeners are called only on real changes. Listeners are called on single timer thread and must be fast.
+ * Exception of listener is counted, and subscription is rescheduled anyway.
+ */
+public class ClockTransitionScheduler implements AutoCloseable {
+    private final ClockTransitions transitions;
+    private final Clock wallClock;
+    private final ScheduledExecutorService timer;
+    private final LongAdder failedNotifications = new LongAdder();
+
+    /**
+     * Instantiates {@code ClockTransitionScheduler} object and validates all specified parameters.
+     *
+     * @param clockPattern specified {@code BinaryClockPattern} pattern representing binary clock
+     * @param wallClock    specified source of current time
+     */
+    public ClockTransitionScheduler(final BinaryClockPattern clockPattern, final Clock wallClock) {
+        Preconditions.checkNotNull(wallClock, "Wall clock must be specified!");
+        transitions = new ClockTransitions(clockPattern);
+        this.wallClock = wallClock;
+        final ScheduledThreadPoolExecutor executor = new ScheduledThreadPoolExecutor(1, runnable -> {
+            final Thread thread = new Thread(runnable, "clock-transition-scheduler");
+            thread.setDaemon(true);
+            return thread;
+        });
+        executor.setRemoveOnCancelPolicy(true);
+        timer = executor;
+    }
+
+    /**
+     * Subscribes listener to changes of specified rows. Listener is called first time on the next change,
+     * not immediately.
+     *
+     * @param rows     specified indexes of rows
+     * @param listener specified listener of changes
+     * @return subscription, that must be closed to stop notifications
+     */
+    public Subscription subscribe(final BitSet rows, final TransitionListener listener) {
+        Preconditions.checkNotNull(rows, "Rows must be specified!");
+        Preconditions.checkNotNull(listener, "Listener must be specified!");
+        final Subscription subscription = new Subscription((BitSet) rows.clone(), listener);
+        subscription.scheduleNext();
+        return subscription;
+    }
+
+    /**
+     * Calculates current time of day from wall clock.
+     *
+     * @return current time as nanoseconds from start of day
+     */
+    private long now() {
+        return LocalTime.now(wallClock).toNanoOfDay();
+    }
+
+    /**
+     * Simple getter for count of notifications failed with exception of listener.
+     *
+     * @return count of failed notifications
+     */
+    public long getFailedNotifications() {
+        return failedNotifications.sum();
+    }
+
+    /**
+     * Stops timer, all subscriptions are cancelled.
+     */
+    @Override
+    public void close() {
+        timer.shutdownNow();
+    }
+
+    /**
+     * A {@code TransitionListener} receives changes of subscribed rows.
+     */
+    @FunctionalInterface
+    public interface TransitionListener {
+        /**
+         * Receives new state of clock.
+         *
+         * @param nanoOfDay  time of change as nanoseconds from start of day
+         * @param lightCells light cells count of each row, array is reused and must not be kept by listener
+         */
+        void onTransition(long nanoOfDay, int[] lightCells);
+    }
+
+    /**
+     * A {@code Subscription} represents registered listener with its pending wake up.
+     */
+    public final class Subscription implements AutoCloseable {
+        private final BitSet rows;
+        private final TransitionListener listener;
+        private final int[] lightCells;
+        private final int[] notifiedLightCells;
+        private volatile ScheduledFuture<?> wakeUp;
+        private volatile boolean closed;
+
+        private Subscription(final BitSet rows, final TransitionListener listener) {
+            this.rows = rows;
+            this.listener = listener;
+            lightCells = new int[transitions.getCompiledPattern().getRowCount()];
+            notifiedLightCells = transitions.getCompiledPattern().evaluate(now(), new int[lightCells.length]);
+        }
+
+        /**
+         * Schedules wake up at the next transition of subscribed rows.
+         */
+        private void scheduleNext() {
+            if (closed) {
+                return;
+            }
+            final long now = now();
+            final long next = transitions.nextTransition(now, rows);
+            if (next != ClockTransitions.NO_TRANSITION) {
+                wakeUp = timer.schedule(this::wakeUp, next - now, TimeUnit.NANOSECONDS);
+            }
+        }
+
+        /**
+         * Notifies listener if subscribed rows changed and schedules next wake up.
+         */
+        private void wakeUp() {
+            try {
+                final long now = now();
+                transitions.getCompiledPattern().evaluate(now, lightCells);
+                boolean changed = false;
+                for (int rowNumber = rows.nextSetBit(0); rowNumber >= 0; rowNumber = rows.nextSetBit(rowNumber + 1)) {
+                    changed |= lightCells[rowNumber] != notifiedLightCells[rowNumber];
+                }
+                if (changed && !closed) {
+                    System.arraycopy(lightCells, 0, notifiedLightCells, 0, lightCells.length);
+                    listener.onTransition(now, lightCells);
+                }
+            } catch (RuntimeException e) {
+                failedNotifications.increment();
+            } finally {
+                scheduleNext();
+            }
+        }
+
+        /**
+         * Cancels subscription.
+         */
+        @Override
+        public void close() {
+            closed = true;
+            final ScheduledFuture<?> pending = wakeUp;
+            if (pending != null) {
+                pending.cancel(false);
+            }
+        }
+    }
+}
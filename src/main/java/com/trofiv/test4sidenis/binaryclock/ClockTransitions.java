@@ -0,0 +1,143 @@
+package com.trofiv.test4sidenis.binaryclock;
+
+import com.google.common.base.Preconditions;
+
+import java.util.BitSet;
+import java.util.NoSuchElementException;
+import java.util.PrimitiveIterator;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A {@code ClockTransitions} calculates moments when display of binary clock changes. Cells are distributed
+ * to rows greedily, in order of rows, so while rows before some row keep their state, the row changes exactly
+ * when time covered by previous rows plus its next cell is reached. The nearest such moment over rows is the
+ * next transition, and it is calculated without stepping through time. Times are nanoseconds from start of
+ * some day and may exceed a day, clock state repeats every day.
+ */
+public class ClockTransitions {
+    /**
+     * Returned when specified rows never change.
+     */
+    public static final long NO_TRANSITION = -1L;
+    private static final long NANOS_IN_DAY = TimeUnit.DAYS.toNanos(1);
+
+    private final CompiledBinaryClockPattern compiledPattern;
+    private final BitSet allRows;
+
+    /**
+     * Instantiates {@code ClockTransitions} object for specified pattern.
+     *
+     * @param clockPattern specified {@code BinaryClockPattern} pattern representing binary clock
+     */
+    public ClockTransitions(final BinaryClockPattern clockPattern) {
+        Preconditions.checkNotNull(clockPattern, "Clock pattern must be specified!");
+        compiledPattern = clockPattern.compile();
+        allRows = new BitSet(compiledPattern.getRowCount());
+        allRows.set(0, compiledPattern.getRowCount());
+    }
+
+    /**
+     * Calculates the nearest moment after specified time when any row of clock changes.
+     *
+     * @param time specified time as nanoseconds from start of day, not negative
+     * @return time of next transition as nanoseconds from the same start of day
+     */
+    public long nextTransition(final long time) {
+        return nextTransition(time, allRows);
+    }
+
+    /**
+     * Calculates the nearest moment after specified time when light cells count of any of specified rows
+     * changes. Rows after the last specified row do not affect specified rows and are not considered.
+     *
+     * @param time specified time as nanoseconds from start of day, not negative
+     * @param rows specified indexes of rows
+     * @return time of next transition as nanoseconds from the same start of day, or {@code NO_TRANSITION}
+     * if specified rows never change
+     */
+    public long nextTransition(final long time, final BitSet rows) {
+        Preconditions.checkArgument(time >= 0, "Time must not be negative!");
+        Preconditions.checkNotNull(rows, "Rows must be specified!");
+        Preconditions.checkArgument(!rows.isEmpty() && rows.length() <= compiledPattern.getRowCount(),
+                "Rows must be within clock pattern!");
+        final int lastRow = rows.length() - 1;
+        final int[] lightCells = compiledPattern.evaluate(time % NANOS_IN_DAY, new int[compiledPattern.getRowCount()]);
+        final int[] nextLightCells = new int[lightCells.length];
+        long current = time;
+        //within a day the rows either change or repeat their state, so one day of search is enough
+        while (current - time <= NANOS_IN_DAY) {
+            final long dayStart = current - current % NANOS_IN_DAY;
+            final long next = dayStart + nextPrefixTransition(lightCells, lastRow);
+            compiledPattern.evaluate(next % NANOS_IN_DAY, nextLightCells);
+            for (int rowNumber = rows.nextSetBit(0); rowNumber >= 0; rowNumber = rows.nextSetBit(rowNumber + 1)) {
+                if (nextLightCells[rowNumber] != lightCells[rowNumber]) {
+                    return next;
+                }
+            }
+            System.arraycopy(nextLightCells, 0, lightCells, 0, lightCells.length);
+            current = next;
+        }
+        return NO_TRANSITION;
+    }
+
+    /**
+     * Calculates the nearest moment when any of rows up to specified one changes.
+     *
+     * @param lightCells specified current light cells count of each row
+     * @param lastRow    specified index of the last considered row
+     * @return time of transition as nanoseconds from start of day, day length if rows change only at midnight
+     */
+    private long nextPrefixTransition(final int[] lightCells, final int lastRow) {
+        long transition = NANOS_IN_DAY;
+        long coveredNanos = 0;
+        for (int rowNumber = 0; rowNumber <= lastRow; rowNumber++) {
+            final long cellNanos = compiledPattern.getCellNanos(rowNumber);
+            if (lightCells[rowNumber] < compiledPattern.getCellsInRow(rowNumber)) {
+                transition = Math.min(transition, coveredNanos + (lightCells[rowNumber] + 1) * cellNanos);
+            }
+            coveredNanos += lightCells[rowNumber] * cellNanos;
+        }
+        return transition;
+    }
+
+    /**
+     * Iterates over transitions of specified rows after {@code from} and before {@code to}.
+     *
+     * @param from specified exclusive start of range as nanoseconds from start of day, not negative
+     * @param to   specified exclusive end of range as nanoseconds from the same start of day
+     * @param rows specified indexes of rows
+     * @return iterator over times of transitions in ascending order
+     */
+    public PrimitiveIterator.OfLong transitions(final long from, final long to, final BitSet rows) {
+        Preconditions.checkArgument(from >= 0 && to >= from, "Range of time is invalid!");
+        Preconditions.checkNotNull(rows, "Rows must be specified!");
+        final BitSet rowsCopy = (BitSet) rows.clone();
+        return new PrimitiveIterator.OfLong() {
+            private long next = nextTransition(from, rowsCopy);
+
+            @Override
+            public boolean hasNext() {
+                return next != NO_TRANSITION && next < to;
+            }
+
+            @Override
+            public long nextLong() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                final long result = next;
+                next = nextTransition(result, rowsCopy);
+                return result;
+            }
+        };
+    }
+
+    /**
+     * Simple getter for compiled evaluator of clock pattern.
+     *
+     * @return {@code CompiledBinaryClockPattern} evaluator of clock pattern
+     */
+    public CompiledBinaryClockPattern getCompiledPattern() {
+        return compiledPattern;
+    }
+}
@@ -0,0 +1,208 @@
+package com.trofiv.test4sidenis.binaryclock;
+
+import com.google.common.base.Preconditions;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A {@code CompiledBinaryClockPattern} represents immutable evaluator of {@code BinaryClockPattern}.
+ * All cell durations are converted to nanoseconds once, and flattened to primitive arrays, so
+ * evaluation uses only long arithmetic and allocates nothing. Specialized evaluation mode is
+ * selected at compile time depending on structure of pattern.
+ */
+public final class CompiledBinaryClockPattern {
+    private static final long NANOS_IN_DAY = TimeUnit.DAYS.toNanos(1);
+    private static final int UNROLLED_ROWS = 5;
+
+    private final long[] cellNanos;
+    private final int[] cellCounts;
+    private final int[] cellShifts;
+    private final EvaluationMode evaluationMode;
+
+    /**
+     * Instantiates {@code CompiledBinaryClockPattern} object from rows of validated pattern.
+     *
+     * @param clockRows specified rows of validated {@code BinaryClockPattern} pattern
+     */
+    CompiledBinaryClockPattern(final List<BinaryClockRowPattern> clockRows) {
+        cellNanos = new long[clockRows.size()];
+        cellCounts = new int[clockRows.size()];
+        cellShifts = new int[clockRows.size()];
+        boolean powersOfTwo = true;
+        for (int rowNumber = 0; rowNumber < clockRows.size(); rowNumber++) {
+            cellNanos[rowNumber] = clockRows.get(rowNumber).nanoSecondsCoveredByCell();
+            cellCounts[rowNumber] = clockRows.get(rowNumber).getCellsInRow();
+            cellShifts[rowNumber] = Long.numberOfTrailingZeros(cellNanos[rowNumber]);
+            powersOfTwo &= Long.bitCount(cellNanos[rowNumber]) == 1;
+        }
+        if (powersOfTwo) {
+            evaluationMode = EvaluationMode.POWER_OF_TWO;
+        } else if (clockRows.size() == UNROLLED_ROWS) {
+            evaluationMode = EvaluationMode.UNROLLED_FIVE_ROWS;
+        } else {
+            evaluationMode = EvaluationMode.GENERIC;
+        }
+    }
+
+    /**
+     * Calculates distribution of specified time to rows of binary clock without any allocation.
+     * Light cells count of each row is written to specified array at index of row.
+     *
+     * @param nanoOfDay  specified time to be converted to binary time, as nanoseconds from start of day
+     * @param lightCells specified array for light cells count of each row, its length must be equal
+     *                   to count of rows in clock pattern
+     * @return specified array filled by light cells count of each row
+     */
+    public int[] evaluate(final long nanoOfDay, final int[] lightCells) {
+        Preconditions.checkArgument(nanoOfDay >= 0 && nanoOfDay < NANOS_IN_DAY, "Time must be within a day!");
+        Preconditions.checkArgument(lightCells.length == cellCounts.length,
+                "Light cells array must have one element per clock row!");
+        switch (evaluationMode) {
+            case POWER_OF_TWO:
+                evaluatePowersOfTwo(nanoOfDay, lightCells);
+                break;
+            case UNROLLED_FIVE_ROWS:
+                evaluateFiveRows(nanoOfDay, lightCells);
+                break;
+            default:
+                evaluateGeneric(nanoOfDay, lightCells);
+                break;
+        }
+        return lightCells;
+    }
+
+    /**
+     * Calculates light cells count of each row for arbitrary pattern.
+     *
+     * @param nanoOfDay  specified time as nanoseconds from start of day
+     * @param lightCells specified array for light cells count of each row
+     */
+    private void evaluateGeneric(final long nanoOfDay, final int[] lightCells) {
+        long remainNanos = nanoOfDay;
+        //Algorithm: iterate over all rows of clock and calculate how much cell can be covered,
+        //and sub covered time from remaining
+        for (int rowNumber = 0; rowNumber < cellCounts.length; rowNumber++) {
+            final int lightCellCount = lightCellCount(remainNanos / cellNanos[rowNumber], cellCounts[rowNumber]);
+            remainNanos -= cellNanos[rowNumber] * lightCellCount;
+            lightCells[rowNumber] = lightCellCount;
+        }
+    }
+
+    /**
+     * Calculates light cells count of each row for pattern where all cell durations are powers of two
+     * nanoseconds (true binary clocks), using shifts and masks instead of divisions.
+     *
+     * @param nanoOfDay  specified time as nanoseconds from start of day
+     * @param lightCells specified array for light cells count of each row
+     */
+    private void evaluatePowersOfTwo(final long nanoOfDay, final int[] lightCells) {
+        long remainNanos = nanoOfDay;
+        for (int rowNumber = 0; rowNumber < cellCounts.length; rowNumber++) {
+            final long countCellsThatRemainTimeCovers = remainNanos >>> cellShifts[rowNumber];
+            if (countCellsThatRemainTimeCovers < cellCounts[rowNumber]) {
+                //noinspection NumericCastThatLosesPrecision
+                lightCells[rowNumber] = (int) countCellsThatRemainTimeCovers;
+                remainNanos &= cellNanos[rowNumber] - 1;
+            } else {
+                lightCells[rowNumber] = cellCounts[rowNumber];
+                remainNanos -= (long) cellCounts[rowNumber] << cellShifts[rowNumber];
+            }
+        }
+    }
+
+    /**
+     * Calculates light cells count of each row for five-rows pattern (like Berlin clock)
+     * with unrolled loop.
+     *
+     * @param nanoOfDay  specified time as nanoseconds from start of day
+     * @param lightCells specified array for light cells count of each row
+     */
+    @SuppressWarnings("MagicNumber")
+    private void evaluateFiveRows(final long nanoOfDay, final int[] lightCells) {
+        long remainNanos = nanoOfDay;
+        final int row0 = lightCellCount(remainNanos / cellNanos[0], cellCounts[0]);
+        remainNanos -= cellNanos[0] * row0;
+        final int row1 = lightCellCount(remainNanos / cellNanos[1], cellCounts[1]);
+        remainNanos -= cellNanos[1] * row1;
+        final int row2 = lightCellCount(remainNanos / cellNanos[2], cellCounts[2]);
+        remainNanos -= cellNanos[2] * row2;
+        final int row3 = lightCellCount(remainNanos / cellNanos[3], cellCounts[3]);
+        remainNanos -= cellNanos[3] * row3;
+        final int row4 = lightCellCount(remainNanos / cellNanos[4], cellCounts[4]);
+        lightCells[0] = row0;
+        lightCells[1] = row1;
+        lightCells[2] = row2;
+        lightCells[3] = row3;
+        lightCells[4] = row4;
+    }
+
+    /**
+     * Limits count of cells that remaining time covers by count of cells in a row.
+     *
+     * @param countCellsThatRemainTimeCovers specified count of cells that remaining time covers
+     * @param cellsInRow                     specified count of cells in a row
+     * @return count of light cells in a row
+     */
+    private static int lightCellCount(final long countCellsThatRemainTimeCovers, final int cellsInRow) {
+        //this check need to avoid long-to-int cast loss precision
+        //noinspection NumericCastThatLosesPrecision
+        return countCellsThatRemainTimeCovers >= cellsInRow ? cellsInRow : (int) countCellsThatRemainTimeCovers;
+    }
+
+    /**
+     * Simple getter for count of rows.
+     *
+     * @return count of rows in compiled pattern
+     */
+    public int getRowCount() {
+        return cellCounts.length;
+    }
+
+    /**
+     * Simple getter for duration of single cell of specified row.
+     *
+     * @param rowNumber specified index of row
+     * @return duration in nanoseconds that covers one cell of row
+     */
+    public long getCellNanos(final int rowNumber) {
+        return cellNanos[rowNumber];
+    }
+
+    /**
+     * Simple getter for count of cells of specified row.
+     *
+     * @param rowNumber specified index of row
+     * @return count of cells in entire row
+     */
+    public int getCellsInRow(final int rowNumber) {
+        return cellCounts[rowNumber];
+    }
+
+    /**
+     * Simple getter for evaluation mode selected at compile time.
+     *
+     * @return {@code EvaluationMode} of compiled pattern
+     */
+    public EvaluationMode getEvaluationMode() {
+        return evaluationMode;
+    }
+
+    /**
+     * An {@code EvaluationMode} represents specialized evaluation algorithm of compiled pattern.
+     */
+    public enum EvaluationMode {
+        /**
+         * Loop over rows with division for each row.
+         */
+        GENERIC,
+        /**
+         * Loop over rows with shifts and masks, used when all cell durations are powers of two nanoseconds.
+         */
+        POWER_OF_TWO,
+        /**
+         * Unrolled evaluation of five rows, used for Berlin clock layout.
+         */
+        UNROLLED_FIVE_ROWS
+    }
+}
@@ -1,21 +1,27 @@
 package com.trofiv.test4sidenis.binaryclock;
 
 import com.google.common.base.Preconditions;
+import com.trofiv.test4sidenis.binaryclock.metrics.ClockMetrics;
+import com.trofiv.test4sidenis.binaryclock.metrics.LatencyHistogram;
 
 import java.time.LocalTime;
-import java.time.temporal.ChronoUnit;
-import java.util.LinkedList;
+import java.time.ZoneId;
+import java.util.ArrayList;
 import java.util.List;
-import java.util.concurrent.TimeUnit;
 import java.util.function.Function;
 
 /**
  * A {@code GenericBinaryClock} represents general binary clock and convert time from
  * standard {@code LocalTime} format to customized binary clock format, and represent it as
- * need using closure mechanism.
+ * need using closure mechanism. Instants given as primitive epoch values are converted to time of day
+ * with offsets from shared {@code ZoneOffsetCache}, without {@code java.time} objects.
  */
 public class GenericBinaryClock {
+    private static final ZoneOffsetCache OFFSET_CACHE = new ZoneOffsetCache();
+
     private final BinaryClockPattern clockPattern;
+    private final CompiledBinaryClockPattern compiledPattern;
+    private final LatencyHistogram evaluationHistogram;
 
     /**
      * Instantiates {@code GenericBinaryClock} object using pattern representing
@@ -25,6 +31,10 @@ public class GenericBinaryClock {
      */
     public GenericBinaryClock(final BinaryClockPattern clockPattern) {
         this.clockPattern = validateClockPattern(clockPattern);
+        compiledPattern = clockPattern.compile();
+        evaluationHistogram = ClockMetrics.ENABLED
+                ? ClockMetrics.evaluationHistogram(clockPattern.fingerprint())
+                : null;
     }
 
     /**
@@ -41,40 +51,75 @@ public class GenericBinaryClock {
     /**
      * Calculates distribution of specified time to rows of binary clock.
      *
-     * @param localTime specified time to be converted to binary time
+     * @param nanoOfDay specified time to be converted to binary time, as nanoseconds from start of day
      * @return list of {@code BinaryClockRowRepresentation} objects that representing
      * rows of timed binary clock with information about light cells.
      */
-    //method was maid public to simplify testing without reflection
-    private List<BinaryClockRowRepresentation> calculateRepresentation(final LocalTime localTime) {
-        Preconditions.checkNotNull(clockPattern, "Time for conversion must be specified!");
-        LocalTime remainTime = localTime;
-        final List<BinaryClockRowRepresentation> representation = new LinkedList<>();
-        //Algorithm: iterate over all rows of clock and calculate how much cell can be covered,
-        //and sub covered time from remaining
-        for (BinaryClockRowPattern rowPattern : clockPattern.getClockRows()) {
-            //calculating how much row units can be covered by total amount of nanoseconds of remaining time
-            final long remainTimeInRowUnits = rowPattern.getCellDurationUnit()
-                    .convert(remainTime.toNanoOfDay(), TimeUnit.NANOSECONDS);
-            final long countCellsThatRemainTimeCovers = remainTimeInRowUnits / rowPattern.getCellDuration();
-            //this check need to avoid long-to-int cast loss precision
-            //noinspection NumericCastThatLosesPrecision
-            final int lightCellCount = countCellsThatRemainTimeCovers >= rowPattern.getCellsInRow()
-                    ? rowPattern.getCellsInRow()
-                    : (int) countCellsThatRemainTimeCovers;
-            //TimeUnit has no explicit conversion to ChronoUnit, so subtraction of nanos works well
-            final long nanosToSubtract = TimeUnit.NANOSECONDS
-                    .convert((long) rowPattern.getCellDuration() * lightCellCount, rowPattern.getCellDurationUnit());
-            remainTime = remainTime.minus(nanosToSubtract, ChronoUnit.NANOS);
+    List<BinaryClockRowRepresentation> calculateRepresentation(final long nanoOfDay) {
+        final int[] lightCells = calculateLightCells(nanoOfDay, new int[compiledPattern.getRowCount()]);
+        final List<BinaryClockRowPattern> clockRows = clockPattern.getClockRows();
+        final List<BinaryClockRowRepresentation> representation = new ArrayList<>(lightCells.length);
+        for (int rowNumber = 0; rowNumber < lightCells.length; rowNumber++) {
             //noinspection ObjectAllocationInLoop
-            representation.add(new BinaryClockRowRepresentation(rowPattern, lightCellCount));
+            representation.add(new BinaryClockRowRepresentation(clockRows.get(rowNumber), lightCells[rowNumber]));
         }
         return representation;
     }
 
+    /**
+     * Calculates distribution of specified time to rows of binary clock without any allocation.
+     * Light cells count of each row is written to specified array at index of row.
+     *
+     * @param nanoOfDay  specified time to be converted to binary time, as nanoseconds from start of day
+     * @param lightCells specified array for light cells count of each row, its length must be equal
+     *                   to count of rows in clock pattern
+     * @return specified array filled by light cells count of each row
+     */
+    public int[] calculateLightCells(final long nanoOfDay, final int[] lightCells) {
+        return compiledPattern.evaluate(nanoOfDay, lightCells);
+    }
+
+    /**
+     * Calculates distribution of each of specified times to rows of binary clock. Large inputs are
+     * converted in parallel using common fork-join pool.
+     *
+     * @param nanosOfDay specified times to be converted to binary time, as nanoseconds from start of day
+     * @return columnar {@code BinaryClockBatch} with light cells count of each row for each time
+     */
+    public BinaryClockBatch calculateLightCells(final long[] nanosOfDay) {
+        return new BinaryClockBatchConverter(clockPattern).convert(nanosOfDay);
+    }
+
+    /**
+     * Calculates distribution of specified instant in specified zone to rows of binary clock without
+     * any allocation.
+     *
+     * @param epochMilli specified instant as milliseconds from epoch
+     * @param zone       specified time zone
+     * @param lightCells specified array for light cells count of each row
+     * @return specified array filled by light cells count of each row
+     */
+    public int[] calculateLightCellsAtEpochMilli(final long epochMilli, final ZoneId zone, final int[] lightCells) {
+        return calculateLightCells(OFFSET_CACHE.epochMilliToNanoOfDay(zone, epochMilli), lightCells);
+    }
+
+    /**
+     * Calculates distribution of specified instant in specified zone to rows of binary clock without
+     * any allocation.
+     *
+     * @param epochNano  specified instant as nanoseconds from epoch
+     * @param zone       specified time zone
+     * @param lightCells specified array for light cells count of each row
+     * @return specified array filled by light cells count of each row
+     */
+    public int[] calculateLightCellsAtEpochNano(final long epochNano, final ZoneId zone, final int[] lightCells) {
+        return calculateLightCells(OFFSET_CACHE.epochNanoToNanoOfDay(zone, epochNano), lightCells);
+    }
+
     /**
      * Converts time from {@code LocalTime} to {@code BinaryClockRowRepresentation} binary clock format.
      * Provides customized representation mechanism of binary time using specified closure function.
+     * Latencies of conversion and representation are recorded by {@code ClockMetrics}, if enabled.
      *
      * @param sourceTime        specified time in {@code LocalTime} format
      * @param representFunction specified closure function for result representation
@@ -82,6 +127,75 @@ public class GenericBinaryClock {
      * @return represented binary clock time
      */
     public <T> T of(final LocalTime sourceTime, final Function<List<BinaryClockRowRepresentation>, T> representFunction) {
-        return representFunction.apply(calculateRepresentation(sourceTime));
+        Preconditions.checkNotNull(sourceTime, "Time for conversion must be specified!");
+        return ofNanoOfDay(sourceTime.toNanoOfDay(), representFunction);
+    }
+
+    /**
+     * Converts instant given as milliseconds from epoch to binary clock format in specified zone.
+     *
+     * @param epochMilli        specified instant as milliseconds from epoch
+     * @param zone              specified time zone
+     * @param representFunction specified closure function for result representation
+     * @param <T>               specified type of object to which result will be represented
+     * @return represented binary clock time
+     */
+    public <T> T ofEpochMilli(final long epochMilli, final ZoneId zone,
+                              final Function<List<BinaryClockRowRepresentation>, T> representFunction) {
+        return ofNanoOfDay(OFFSET_CACHE.epochMilliToNanoOfDay(zone, epochMilli), representFunction);
+    }
+
+    /**
+     * Converts instant given as nanoseconds from epoch to binary clock format in specified zone.
+     *
+     * @param epochNano         specified instant as nanoseconds from epoch
+     * @param zone              specified time zone
+     * @param representFunction specified closure function for result representation
+     * @param <T>               specified type of object to which result will be represented
+     * @return represented binary clock time
+     */
+    public <T> T ofEpochNano(final long epochNano, final ZoneId zone,
+                             final Function<List<BinaryClockRowRepresentation>, T> representFunction) {
+        return ofNanoOfDay(OFFSET_CACHE.epochNanoToNanoOfDay(zone, epochNano), representFunction);
+    }
+
+    /**
+     * Converts time of day to binary clock format and represents it by specified closure function.
+     *
+     * @param nanoOfDay         specified time as nanoseconds from start of day
+     * @param representFunction specified closure function for result representation
+     * @param <T>               specified type of object to which result will be represented
+     * @return represented binary clock time
+     */
+    private <T> T ofNanoOfDay(final long nanoOfDay,
+                              final Function<List<BinaryClockRowRepresentation>, T> representFunction) {
+        if (!ClockMetrics.ENABLED) {
+            return representFunction.apply(calculateRepresentation(nanoOfDay));
+        }
+        final long start = System.nanoTime();
+        final List<BinaryClockRowRepresentation> representation = calculateRepresentation(nanoOfDay);
+        final long calculated = System.nanoTime();
+        final T result = representFunction.apply(representation);
+        evaluationHistogram.record(calculated - start);
+        ClockMetrics.recordFormatting(representFunction.getClass(), System.nanoTime() - calculated);
+        return result;
+    }
+
+    /**
+     * Simple getter for compiled evaluator of binary clock pattern.
+     *
+     * @return {@code CompiledBinaryClockPattern} evaluator of binary clock pattern
+     */
+    public CompiledBinaryClockPattern getCompiledPattern() {
+        return compiledPattern;
+    }
+
+    /**
+     * Simple getter for pattern of binary clock.
+     *
+     * @return {@code BinaryClockPattern} object representing binary clock
+     */
+    public BinaryClockPattern getClockPattern() {
+        return clockPattern;
     }
-}
\ No newline at end of file
+}
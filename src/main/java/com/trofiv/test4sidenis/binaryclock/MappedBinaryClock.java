@@ -0,0 +1,206 @@
+package com.trofiv.test4sidenis.binaryclock;
+
+import com.google.common.base.Preconditions;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A {@code MappedBinaryClock} represents binary clock that answers conversions from table of states
+ * stored in file and mapped to memory. Table contains one state per most precision row cell of the day,
+ * like table of {@code PrecomputedBinaryClock}, so clock needs no warm-up, and pages of table are shared
+ * by all processes that map the same file.
+ * File format (big-endian): magic, version, pattern fingerprint, cell duration in nanoseconds,
+ * count of entries, bytes per entry, and then entries packed by {@code BinaryClockStateCodec}.
+ */
+public class MappedBinaryClock extends GenericBinaryClock {
+    private static final int MAGIC = 0x42434C4B;
+    private static final int VERSION = 1;
+    private static final int HEADER_BYTES = 2 * Integer.BYTES + 2 * Long.BYTES + 2 * Integer.BYTES;
+    private static final int ENTRIES_OFFSET = HEADER_BYTES;
+    private static final long NANOS_IN_DAY = TimeUnit.DAYS.toNanos(1);
+
+    private final BinaryClockStateCodec stateCodec;
+    private final MappedByteBuffer table;
+    private final long unitNanos;
+    private final boolean intEntries;
+
+    /**
+     * Instantiates {@code MappedBinaryClock} object by mapping specified table file, that must be written
+     * for specified pattern by {@link #writeTable(BinaryClockPattern, Path)}.
+     *
+     * @param clockPattern specified {@code BinaryClockPattern} pattern representing binary clock
+     * @param tableFile    specified path of table file
+     * @throws IOException if file can not be mapped
+     */
+    public MappedBinaryClock(final BinaryClockPattern clockPattern, final Path tableFile) throws IOException {
+        super(clockPattern);
+        Preconditions.checkNotNull(tableFile, "Table file must be specified!");
+        stateCodec = new BinaryClockStateCodec(clockPattern);
+        unitNanos = PrecomputedBinaryClock.validateUnit(clockPattern.getClockRows());
+        try (FileChannel channel = FileChannel.open(tableFile, StandardOpenOption.READ)) {
+            table = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        }
+        Preconditions.checkArgument(matches(table, table.capacity(), clockPattern, unitNanos, stateCodec),
+                "Table file does not match clock pattern!");
+        intEntries = table.getInt(HEADER_BYTES - Integer.BYTES) == Integer.BYTES;
+    }
+
+    /**
+     * Maps table file for specified pattern, writing it first if it does not exist or was written
+     * for another pattern or version. File is replaced atomically, so concurrent workers never map
+     * partially written table.
+     *
+     * @param clockPattern specified {@code BinaryClockPattern} pattern representing binary clock
+     * @param tableFile    specified path of table file
+     * @return clock backed by mapped table
+     * @throws IOException if file can not be written or mapped
+     */
+    public static MappedBinaryClock openOrCreate(final BinaryClockPattern clockPattern, final Path tableFile)
+            throws IOException {
+        if (!isTableFor(clockPattern, tableFile)) {
+            writeTable(clockPattern, tableFile);
+        }
+        return new MappedBinaryClock(clockPattern, tableFile);
+    }
+
+    /**
+     * Calculates table of states for specified pattern and writes it to specified file.
+     *
+     * @param clockPattern specified {@code BinaryClockPattern} pattern representing binary clock
+     * @param tableFile    specified path of table file
+     * @throws IOException if file can not be written
+     */
+    public static void writeTable(final BinaryClockPattern clockPattern, final Path tableFile) throws IOException {
+        Preconditions.checkNotNull(clockPattern, "Clock pattern must be specified!");
+        Preconditions.checkNotNull(tableFile, "Table file must be specified!");
+        final long unitNanos = PrecomputedBinaryClock.validateUnit(clockPattern.getClockRows());
+        final BinaryClockStateCodec stateCodec = new BinaryClockStateCodec(clockPattern);
+        Preconditions.checkArgument(stateCodec.getWordsPerState() == 1, "Clock pattern is too wide for table file!");
+        final int bytesPerEntry = stateCodec.getTotalBits() <= Integer.SIZE ? Integer.BYTES : Long.BYTES;
+        //noinspection NumericCastThatLosesPrecision
+        final int entryCount = (int) ((NANOS_IN_DAY + unitNanos - 1) / unitNanos);
+        final ByteBuffer buffer = ByteBuffer.allocate(HEADER_BYTES + entryCount * bytesPerEntry);
+        buffer.putInt(MAGIC)
+                .putInt(VERSION)
+                .putLong(clockPattern.fingerprint())
+                .putLong(unitNanos)
+                .putInt(entryCount)
+                .putInt(bytesPerEntry);
+        final CompiledBinaryClockPattern compiledPattern = clockPattern.compile();
+        final int[] lightCells = new int[compiledPattern.getRowCount()];
+        for (int index = 0; index < entryCount; index++) {
+            final long state = stateCodec.encode(compiledPattern.evaluate(index * unitNanos, lightCells));
+            if (bytesPerEntry == Integer.BYTES) {
+                //noinspection NumericCastThatLosesPrecision
+                buffer.putInt((int) state);
+            } else {
+                buffer.putLong(state);
+            }
+        }
+        buffer.flip();
+        final Path temporaryFile = Files.createTempFile(tableFile.toAbsolutePath().getParent(),
+                tableFile.getFileName().toString(), ".tmp");
+        try {
+            try (FileChannel channel = FileChannel.open(temporaryFile, StandardOpenOption.WRITE)) {
+                while (buffer.hasRemaining()) {
+                    channel.write(buffer);
+                }
+                channel.force(true);
+            }
+            Files.move(temporaryFile, tableFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException | RuntimeException | Error e) {
+            //partially written table is never moved, so it is removed to not litter directory of tables
+            try {
+                Files.deleteIfExists(temporaryFile);
+            } catch (IOException suppressed) {
+                e.addSuppressed(suppressed);
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Checks that specified file exists and contains table for specified pattern.
+     *
+     * @param clockPattern specified {@code BinaryClockPattern} pattern representing binary clock
+     * @param tableFile    specified path of table file
+     * @return {@code true} if file can be mapped for pattern
+     * @throws IOException if file can not be read
+     */
+    public static boolean isTableFor(final BinaryClockPattern clockPattern, final Path tableFile) throws IOException {
+        if (!Files.isRegularFile(tableFile) || Files.size(tableFile) < HEADER_BYTES) {
+            return false;
+        }
+        final ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES);
+        try (FileChannel channel = FileChannel.open(tableFile, StandardOpenOption.READ)) {
+            //noinspection StatementWithEmptyBody
+            while (header.hasRemaining() && channel.read(header) >= 0) {
+            }
+            return !header.hasRemaining() && matches(header, channel.size(), clockPattern,
+                    PrecomputedBinaryClock.validateUnit(clockPattern.getClockRows()),
+                    new BinaryClockStateCodec(clockPattern));
+        }
+    }
+
+    /**
+     * Checks that specified header and size of table file match specified pattern.
+     *
+     * @param header       specified buffer with header at start
+     * @param fileSize     specified size of table file in bytes
+     * @param clockPattern specified pattern of binary clock
+     * @param unitNanos    specified duration of single table entry
+     * @param stateCodec   specified codec of pattern
+     * @return {@code true} if header matches pattern
+     */
+    private static boolean matches(final ByteBuffer header, final long fileSize, final BinaryClockPattern clockPattern,
+                                   final long unitNanos, final BinaryClockStateCodec stateCodec) {
+        final ByteBuffer bigEndian = header.duplicate().order(ByteOrder.BIG_ENDIAN);
+        final int expectedBytesPerEntry = stateCodec.getTotalBits() <= Integer.SIZE ? Integer.BYTES : Long.BYTES;
+        final long expectedEntries = (NANOS_IN_DAY + unitNanos - 1) / unitNanos;
+        return bigEndian.capacity() >= HEADER_BYTES
+                && bigEndian.getInt(0) == MAGIC
+                && bigEndian.getInt(Integer.BYTES) == VERSION
+                && bigEndian.getLong(2 * Integer.BYTES) == clockPattern.fingerprint()
+                && bigEndian.getLong(2 * Integer.BYTES + Long.BYTES) == unitNanos
+                && bigEndian.getInt(2 * Integer.BYTES + 2 * Long.BYTES) == expectedEntries
+                && bigEndian.getInt(HEADER_BYTES - Integer.BYTES) == expectedBytesPerEntry
+                && HEADER_BYTES + expectedEntries * expectedBytesPerEntry == fileSize;
+    }
+
+    /**
+     * Reads distribution of specified time to rows of binary clock from mapped table without any allocation.
+     *
+     * @param nanoOfDay  specified time to be converted to binary time, as nanoseconds from start of day
+     * @param lightCells specified array for light cells count of each row, its length must be equal
+     *                   to count of rows in clock pattern
+     * @return specified array filled by light cells count of each row
+     */
+    @Override
+    public int[] calculateLightCells(final long nanoOfDay, final int[] lightCells) {
+        Preconditions.checkArgument(nanoOfDay >= 0 && nanoOfDay < NANOS_IN_DAY, "Time must be within a day!");
+        //noinspection NumericCastThatLosesPrecision
+        final int index = (int) (nanoOfDay / unitNanos);
+        final long state = intEntries
+                ? table.getInt(ENTRIES_OFFSET + index * Integer.BYTES) & 0xFFFFFFFFL
+                : table.getLong(ENTRIES_OFFSET + index * Long.BYTES);
+        return stateCodec.decode(state, lightCells);
+    }
+
+    /**
+     * Simple getter for duration of time covered by single table entry.
+     *
+     * @return duration in nanoseconds of single table entry
+     */
+    public long getUnitNanos() {
+        return unitNanos;
+    }
+}
@@ -0,0 +1,215 @@
+package com.trofiv.test4sidenis.binaryclock;
+
+import com.google.common.base.Preconditions;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheLoader;
+import com.google.common.cache.LoadingCache;
+import com.trofiv.test4sidenis.binaryclock.metrics.CacheMetrics;
+import com.trofiv.test4sidenis.binaryclock.metrics.ClockMetrics;
+
+import java.lang.ref.WeakReference;
+import java.time.LocalTime;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.Function;
+
+/**
+ * A {@code PrecomputedBinaryClock} represents binary clock that calculates all states of
+ * {@code BinaryClockPattern} for entire day once, and answers conversions with single
+ * indexed read from compact table. State of clock is constant within one cell of most
+ * precision row, so table contains one entry (light cells count of each row packed by
+ * {@code BinaryClockStateCodec}) per such cell. Formatted representations can be cached lazily into the table too,
+ * cache of formatter is dropped when formatter is garbage collected.
+ */
+public class PrecomputedBinaryClock extends GenericBinaryClock {
+    private static final CacheMetrics CACHE_METRICS = ClockMetrics.cache("PrecomputedBinaryClock.ofCached");
+    private static final int MAX_TABLE_SIZE = 1 << 24;
+
+    private final long unitNanos;
+    private final BinaryClockStateCodec stateCodec;
+    private final int[] table;
+    private final BinaryClockRowRepresentation[][] rowRepresentations;
+    //weak keys are compared by identity, and capturing lambda does not pin its cache after it is released
+    private final LoadingCache<Function<List<BinaryClockRowRepresentation>, String>,
+            AtomicReferenceArray<String>> formattedCache = CacheBuilder.newBuilder().weakKeys()
+            .build(new CacheLoader<Function<List<BinaryClockRowRepresentation>, String>,
+                    AtomicReferenceArray<String>>() {
+                @Override
+                public AtomicReferenceArray<String> load(
+                        final Function<List<BinaryClockRowRepresentation>, String> representFunction) {
+                    return new AtomicReferenceArray<>(table.length);
+                }
+            });
+    private volatile FormatterCache lastFormatterCache = new FormatterCache(null, null);
+
+    /**
+     * Instantiates {@code PrecomputedBinaryClock} object using pattern representing binary
+     * clock, validates all specified parameters and builds table of states for entire day.
+     *
+     * @param clockPattern specified {@code BinaryClockPattern} pattern representing binary clock
+     */
+    public PrecomputedBinaryClock(final BinaryClockPattern clockPattern) {
+        super(clockPattern);
+        final List<BinaryClockRowPattern> clockRows = clockPattern.getClockRows();
+        unitNanos = validateUnit(clockRows);
+        stateCodec = new BinaryClockStateCodec(clockPattern);
+        Preconditions.checkArgument(stateCodec.getTotalBits() <= Integer.SIZE,
+                "Clock pattern is too wide for precomputed table!");
+        rowRepresentations = new BinaryClockRowRepresentation[clockRows.size()][];
+        for (int rowNumber = 0; rowNumber < clockRows.size(); rowNumber++) {
+            final BinaryClockRowPattern rowPattern = clockRows.get(rowNumber);
+            rowRepresentations[rowNumber] = new BinaryClockRowRepresentation[rowPattern.getCellsInRow() + 1];
+            for (int lightCells = 0; lightCells <= rowPattern.getCellsInRow(); lightCells++) {
+                //noinspection ObjectAllocationInLoop
+                rowRepresentations[rowNumber][lightCells] = new BinaryClockRowRepresentation(rowPattern, lightCells);
+            }
+        }
+        table = buildTable();
+    }
+
+    /**
+     * Ensures that specified clock rows can be precomputed with most precision row cell
+     * resolution, and calculates that resolution.
+     *
+     * @param clockRows specified clock rows
+     * @return duration in nanoseconds of single table entry
+     */
+    static long validateUnit(final List<BinaryClockRowPattern> clockRows) {
+        final long unitNanos = BinaryClockPattern.getMostPrecisionRow(clockRows).nanoSecondsCoveredByCell();
+        for (BinaryClockRowPattern rowPattern : clockRows) {
+            Preconditions.checkArgument(rowPattern.nanoSecondsCoveredByCell() % unitNanos == 0,
+                    "Cell durations must be multiples of most precision cell duration!");
+        }
+        Preconditions.checkArgument(TimeUnit.DAYS.toNanos(1) / unitNanos < MAX_TABLE_SIZE,
+                "Clock pattern is too precise for precomputed table!");
+        return unitNanos;
+    }
+
+    /**
+     * Calculates packed state of clock for start of each most precision cell of the day.
+     *
+     * @return table of packed states
+     */
+    private int[] buildTable() {
+        final long dayNanos = TimeUnit.DAYS.toNanos(1);
+        //noinspection NumericCastThatLosesPrecision
+        final int[] states = new int[(int) ((dayNanos + unitNanos - 1) / unitNanos)];
+        final int[] lightCells = new int[rowRepresentations.length];
+        for (int index = 0; index < states.length; index++) {
+            //state fits int, it was checked in constructor
+            //noinspection NumericCastThatLosesPrecision
+            states[index] = (int) stateCodec.encode(calculateLightCells(index * unitNanos, lightCells));
+        }
+        return states;
+    }
+
+    /**
+     * Calculates index of table entry that contains state for specified time.
+     *
+     * @param sourceTime specified time in {@code LocalTime} format
+     * @return index of table entry
+     */
+    private int indexOf(final LocalTime sourceTime) {
+        Preconditions.checkNotNull(sourceTime, "Time for conversion must be specified!");
+        //noinspection NumericCastThatLosesPrecision
+        return (int) (sourceTime.toNanoOfDay() / unitNanos);
+    }
+
+    /**
+     * Unpacks table entry to list of {@code BinaryClockRowRepresentation} objects. Row
+     * objects are shared, because they are immutable.
+     *
+     * @param index specified index of table entry
+     * @return list of rows of timed binary clock
+     */
+    private List<BinaryClockRowRepresentation> unpack(final int index) {
+        final long state = table[index] & 0xFFFFFFFFL;
+        final BinaryClockRowRepresentation[] representation = new BinaryClockRowRepresentation[rowRepresentations.length];
+        for (int rowNumber = 0; rowNumber < rowRepresentations.length; rowNumber++) {
+            representation[rowNumber] = rowRepresentations[rowNumber][stateCodec.lightCellsCount(state, rowNumber)];
+        }
+        return Arrays.asList(representation);
+    }
+
+    /**
+     * Unpacks precomputed state of specified time instead of evaluating pattern.
+     *
+     * @param nanoOfDay specified time as nanoseconds from start of day
+     * @return list of rows of timed binary clock
+     */
+    @Override
+    List<BinaryClockRowRepresentation> calculateRepresentation(final long nanoOfDay) {
+        //noinspection NumericCastThatLosesPrecision
+        return unpack((int) (nanoOfDay / unitNanos));
+    }
+
+    /**
+     * Converts time from {@code LocalTime} to string representation. Representation is calculated
+     * once for each table entry and specified formatter, and cached for subsequent calls.
+     * Formatter must be a pure function, formatters are distinguished by identity. Cache of formatter lives
+     * as long as formatter is reachable, so formatter should be kept, not created for each call.
+     *
+     * @param sourceTime        specified time in {@code LocalTime} format
+     * @param representFunction specified closure function for string representation
+     * @return cached represented binary clock time
+     */
+    public String ofCached(final LocalTime sourceTime,
+                           final Function<List<BinaryClockRowRepresentation>, String> representFunction) {
+        Preconditions.checkNotNull(representFunction, "Represent function must be specified!");
+        final int index = indexOf(sourceTime);
+        //lookup in weak cache is slower than indexed read, so cache of the last formatter is kept at hand,
+        //that cache alone may outlive its formatter until another formatter is used
+        FormatterCache formatterCache = lastFormatterCache;
+        if (formatterCache.get() != representFunction) {
+            formatterCache = new FormatterCache(representFunction, formattedCache.getUnchecked(representFunction));
+            lastFormatterCache = formatterCache;
+        }
+        final AtomicReferenceArray<String> formatted = formatterCache.formatted;
+        final String cached = formatted.get(index);
+        if (ClockMetrics.ENABLED) {
+            CACHE_METRICS.record(cached != null);
+        }
+        if (cached != null) {
+            return cached;
+        }
+        //concurrent callers may format the same entry twice, but result is the same
+        final String result = representFunction.apply(unpack(index));
+        formatted.lazySet(index, result);
+        return result;
+    }
+
+    /**
+     * Simple getter for duration of time covered by single table entry.
+     *
+     * @return duration in nanoseconds of single table entry
+     */
+    public long getUnitNanos() {
+        return unitNanos;
+    }
+
+    /**
+     * Simple getter for count of entries in precomputed table.
+     *
+     * @return count of precomputed states
+     */
+    public int getTableSize() {
+        return table.length;
+    }
+
+    /**
+     * A {@code FormatterCache} represents cached representations of formatter, that does not keep formatter
+     * reachable.
+     */
+    private static final class FormatterCache
+            extends WeakReference<Function<List<BinaryClockRowRepresentation>, String>> {
+        private final AtomicReferenceArray<String> formatted;
+
+        private FormatterCache(final Function<List<BinaryClockRowRepresentation>, String> formatter,
+                               final AtomicReferenceArray<String> formatted) {
+            super(formatter);
+            this.formatted = formatted;
+        }
+    }
+}
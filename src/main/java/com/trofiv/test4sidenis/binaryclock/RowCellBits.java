@@ -0,0 +1,207 @@
+package com.trofiv.test4sidenis.binaryclock;
+
+import com.google.common.base.Preconditions;
+
+import java.util.Arrays;
+import java.util.BitSet;
+
+/**
+ * A {@code RowCellBits} represents cells of binary clock row as bits, bit {@code i} is set when
+ * cell {@code i} lights. Light cells of row always form prefix, so each 64-bit word is calculated
+ * from light cells count on demand, and bits are materialized to array only when whole array is requested.
+ * Wide rows can be rendered and compared word by word, in O(cells / 64) instead of cell by cell.
+ */
+public final class RowCellBits {
+    private static final int ADDRESS_BITS_PER_WORD = 6;
+    private static final int BITS_PER_WORD = 1 << ADDRESS_BITS_PER_WORD;
+
+    private final int cellCount;
+    private final int lightCellsCount;
+    private volatile long[] words;
+
+    /**
+     * Instantiates {@code RowCellBits} object and validates all specified parameters.
+     *
+     * @param cellCount       specified count of cells in row
+     * @param lightCellsCount specified count of light cells
+     */
+    public RowCellBits(final int cellCount, final int lightCellsCount) {
+        Preconditions.checkArgument(cellCount > 0, "Count of cells must be positive!");
+        Preconditions.checkArgument(lightCellsCount >= 0 && lightCellsCount <= cellCount,
+                "Count of light cells must be within row!");
+        this.cellCount = cellCount;
+        this.lightCellsCount = lightCellsCount;
+    }
+
+    /**
+     * Calculates count of 64-bit words required for specified count of cells.
+     *
+     * @param cellCount specified count of cells
+     * @return count of words
+     */
+    public static int wordCount(final int cellCount) {
+        return (cellCount + BITS_PER_WORD - 1) >>> ADDRESS_BITS_PER_WORD;
+    }
+
+    /**
+     * Calculates word of row with specified light cells count.
+     *
+     * @param lightCellsCount specified count of light cells
+     * @param wordIndex       specified index of word
+     * @return bits of cells from {@code 64 * wordIndex}
+     */
+    public static long word(final int lightCellsCount, final int wordIndex) {
+        final long firstCell = (long) wordIndex << ADDRESS_BITS_PER_WORD;
+        if (lightCellsCount <= firstCell) {
+            return 0L;
+        }
+        if (lightCellsCount >= firstCell + BITS_PER_WORD) {
+            return -1L;
+        }
+        return (1L << (lightCellsCount - firstCell)) - 1L;
+    }
+
+    /**
+     * Simple getter for count of cells.
+     *
+     * @return count of cells in row
+     */
+    public int getCellCount() {
+        return cellCount;
+    }
+
+    /**
+     * Simple getter for count of lighted cells.
+     *
+     * @return count of binary cell that have to light
+     */
+    public int getLightCellsCount() {
+        return lightCellsCount;
+    }
+
+    /**
+     * Simple getter for count of words.
+     *
+     * @return count of 64-bit words covering all cells
+     */
+    public int getWordCount() {
+        return wordCount(cellCount);
+    }
+
+    /**
+     * Checks whether specified cell lights.
+     *
+     * @param cellNumber specified index of cell
+     * @return {@code true} if cell lights
+     */
+    public boolean isLit(final int cellNumber) {
+        Preconditions.checkElementIndex(cellNumber, cellCount, "Cell");
+        return cellNumber < lightCellsCount;
+    }
+
+    /**
+     * Calculates word of cells without materializing other words.
+     *
+     * @param wordIndex specified index of word
+     * @return bits of cells from {@code 64 * wordIndex}
+     */
+    public long getWord(final int wordIndex) {
+        Preconditions.checkElementIndex(wordIndex, getWordCount(), "Word");
+        return word(lightCellsCount, wordIndex);
+    }
+
+    /**
+     * Calculates word of cells that differ from cells of specified row.
+     *
+     * @param other     specified row with the same count of cells
+     * @param wordIndex specified index of word
+     * @return bits of changed cells from {@code 64 * wordIndex}
+     */
+    public long getChangedWord(final RowCellBits other, final int wordIndex) {
+        checkSameWidth(other);
+        return getWord(wordIndex) ^ other.getWord(wordIndex);
+    }
+
+    /**
+     * Finds the first cell that differs from cell of specified row.
+     *
+     * @param other specified row with the same count of cells
+     * @return index of the first changed cell, or -1 if rows are equal
+     */
+    public int mismatch(final RowCellBits other) {
+        checkSameWidth(other);
+        //cells between both light counts differ, others are equal
+        return lightCellsCount == other.lightCellsCount ? -1 : Math.min(lightCellsCount, other.lightCellsCount);
+    }
+
+    /**
+     * Ensures that specified row has the same count of cells.
+     *
+     * @param other specified row
+     */
+    private void checkSameWidth(final RowCellBits other) {
+        Preconditions.checkNotNull(other, "Row must be specified!");
+        Preconditions.checkArgument(other.cellCount == cellCount, "Rows must have the same count of cells!");
+    }
+
+    /**
+     * Materializes words once and shares them between calls. Array is filled before it is published
+     * by volatile write, so other threads never see it partially filled. Racing threads may build equal
+     * arrays, and either of them is kept.
+     *
+     * @return shared words, must not be modified
+     */
+    private long[] words() {
+        long[] result = words;
+        if (result == null) {
+            result = new long[getWordCount()];
+            final int fullWords = lightCellsCount >>> ADDRESS_BITS_PER_WORD;
+            Arrays.fill(result, 0, fullWords, -1L);
+            if (fullWords < result.length) {
+                result[fullWords] = word(lightCellsCount, fullWords);
+            }
+            words = result;
+        }
+        return result;
+    }
+
+    /**
+     * Returns copy of all words of row, in {@code BitSet.toLongArray} layout.
+     *
+     * @return new array of words
+     */
+    public long[] toLongArray() {
+        return words().clone();
+    }
+
+    /**
+     * Returns cells of row as {@code BitSet}.
+     *
+     * @return new bit set of light cells
+     */
+    public BitSet toBitSet() {
+        return BitSet.valueOf(words());
+    }
+
+    @Override
+    public boolean equals(final Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+        final RowCellBits that = (RowCellBits) o;
+        return cellCount == that.cellCount && lightCellsCount == that.lightCellsCount;
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * cellCount + lightCellsCount;
+    }
+
+    @Override
+    public String toString() {
+        return lightCellsCount + " of " + cellCount;
+    }
+}
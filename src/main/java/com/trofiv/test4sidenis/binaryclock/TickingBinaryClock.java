@@ -0,0 +1,232 @@
+package com.trofiv.test4sidenis.binaryclock;
+
+import com.google.common.base.Preconditions;
+
+import java.time.Clock;
+import java.time.LocalTime;
+import java.util.BitSet;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A {@code TickingBinaryClock} represents stateful binary clock that advances its state by ticks
+ * of most precision row cell instead of recalculating it from scratch. If rows of pattern form
+ * mixed radix number (each row cell covers all cells of next row plus one cell, like Berlin clock),
+ * tick is odometer-style carry propagation that touches only changed rows, otherwise state is
+ * recalculated by compiled pattern and compared with previous one. Each tick reports which rows
+ * changed. State is periodically resynchronized with wall clock to eliminate drift.
+ */
+public class TickingBinaryClock {
+    private static final long NANOS_IN_DAY = TimeUnit.DAYS.toNanos(1);
+
+    private final CompiledBinaryClockPattern compiledPattern;
+    private final Clock wallClock;
+    private final long resyncIntervalTicks;
+    private final long unitNanos;
+    private final boolean mixedRadix;
+    private final int[] lightCells;
+    private final int[] recalculatedCells;
+    private final BitSet changedRows;
+    private long nanoOfDay;
+    private long ticksSinceResync;
+
+    /**
+     * Instantiates {@code TickingBinaryClock} object synchronized with specified wall clock
+     * and validates all specified parameters.
+     *
+     * @param clockPattern        specified {@code BinaryClockPattern} pattern representing binary clock
+     * @param wallClock           specified wall clock for synchronization
+     * @param resyncIntervalTicks specified count of ticks between synchronizations with wall clock,
+     *                            zero means that clock is synchronized only on demand
+     */
+    public TickingBinaryClock(
+            final BinaryClockPattern clockPattern,
+            final Clock wallClock,
+            final long resyncIntervalTicks) {
+        Preconditions.checkNotNull(clockPattern, "Clock pattern must be specified!");
+        Preconditions.checkNotNull(wallClock, "Wall clock must be specified!");
+        Preconditions.checkArgument(resyncIntervalTicks >= 0, "Resync interval must not be negative!");
+        final List<BinaryClockRowPattern> clockRows = clockPattern.getClockRows();
+        compiledPattern = clockPattern.compile();
+        this.wallClock = wallClock;
+        this.resyncIntervalTicks = resyncIntervalTicks;
+        unitNanos = BinaryClockPattern.getMostPrecisionRow(clockRows).nanoSecondsCoveredByCell();
+        mixedRadix = isMixedRadix(compiledPattern, unitNanos);
+        lightCells = new int[compiledPattern.getRowCount()];
+        recalculatedCells = new int[compiledPattern.getRowCount()];
+        changedRows = new BitSet(compiledPattern.getRowCount());
+        resync();
+    }
+
+    /**
+     * Checks that rows of compiled pattern form mixed radix number, so adding time to the last
+     * (most precision) row can be propagated to previous rows as carry.
+     *
+     * @param compiledPattern specified compiled pattern
+     * @param unitNanos       specified duration of most precision row cell
+     * @return {@code true} if tick can be calculated as carry propagation
+     */
+    private static boolean isMixedRadix(final CompiledBinaryClockPattern compiledPattern, final long unitNanos) {
+        final int lastRow = compiledPattern.getRowCount() - 1;
+        if (compiledPattern.getCellNanos(lastRow) != unitNanos
+                || compiledPattern.getCellNanos(0) * (compiledPattern.getCellsInRow(0) + 1) < NANOS_IN_DAY) {
+            return false;
+        }
+        for (int rowNumber = 1; rowNumber <= lastRow; rowNumber++) {
+            if (compiledPattern.getCellNanos(rowNumber - 1) != compiledPattern.getCellNanos(rowNumber)
+                    * (compiledPattern.getCellsInRow(rowNumber) + 1)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Advances clock by one cell of most precision row.
+     *
+     * @return set of indexes of rows that changed
+     */
+    public BitSet tick() {
+        return advance(1);
+    }
+
+    /**
+     * Advances clock by specified count of most precision row cells. Clock is synchronized with
+     * wall clock instead, if synchronization interval is elapsed.
+     *
+     * @param units specified count of most precision row cells
+     * @return set of indexes of rows that changed, set is reused by subsequent ticks
+     */
+    public BitSet advance(final long units) {
+        Preconditions.checkArgument(units >= 0 && units < NANOS_IN_DAY / unitNanos, "Units must be within a day!");
+        ticksSinceResync += units;
+        if (resyncIntervalTicks > 0 && ticksSinceResync >= resyncIntervalTicks) {
+            return resync();
+        }
+        changedRows.clear();
+        final long advancedNanoOfDay = nanoOfDay + units * unitNanos;
+        if (mixedRadix && advancedNanoOfDay < NANOS_IN_DAY) {
+            nanoOfDay = advancedNanoOfDay;
+            carry(units);
+        } else {
+            recalculate(advancedNanoOfDay % NANOS_IN_DAY);
+        }
+        return changedRows;
+    }
+
+    /**
+     * Adds specified count of cells to the last row and propagates carry to previous rows.
+     *
+     * @param units specified count of most precision row cells
+     */
+    private void carry(final long units) {
+        long carry = units;
+        for (int rowNumber = lightCells.length - 1; rowNumber >= 0 && carry > 0; rowNumber--) {
+            final long radix = compiledPattern.getCellsInRow(rowNumber) + 1L;
+            final long digit = lightCells[rowNumber] + carry;
+            //noinspection NumericCastThatLosesPrecision
+            final int lightCellCount = (int) (digit % radix);
+            carry = digit / radix;
+            if (lightCellCount != lightCells[rowNumber]) {
+                lightCells[rowNumber] = lightCellCount;
+                changedRows.set(rowNumber);
+            }
+        }
+    }
+
+    /**
+     * Recalculates state for specified time and marks rows that differ from current state.
+     *
+     * @param newNanoOfDay specified time as nanoseconds from start of day
+     */
+    private void recalculate(final long newNanoOfDay) {
+        nanoOfDay = newNanoOfDay;
+        compiledPattern.evaluate(newNanoOfDay, recalculatedCells);
+        for (int rowNumber = 0; rowNumber < lightCells.length; rowNumber++) {
+            if (recalculatedCells[rowNumber] != lightCells[rowNumber]) {
+                lightCells[rowNumber] = recalculatedCells[rowNumber];
+                changedRows.set(rowNumber);
+            }
+        }
+    }
+
+    /**
+     * Synchronizes clock with wall clock.
+     *
+     * @return set of indexes of rows that changed, set is reused by subsequent ticks
+     */
+    public BitSet resync() {
+        return resync(LocalTime.now(wallClock).toNanoOfDay());
+    }
+
+    /**
+     * Synchronizes clock with specified time.
+     *
+     * @param newNanoOfDay specified time as nanoseconds from start of day
+     * @return set of indexes of rows that changed, set is reused by subsequent ticks
+     */
+    public BitSet resync(final long newNanoOfDay) {
+        Preconditions.checkArgument(newNanoOfDay >= 0 && newNanoOfDay < NANOS_IN_DAY, "Time must be within a day!");
+        ticksSinceResync = 0;
+        changedRows.clear();
+        recalculate(newNanoOfDay);
+        return changedRows;
+    }
+
+    /**
+     * Simple getter for light cells count of specified row at current state.
+     *
+     * @param rowNumber specified index of row
+     * @return count of light cells of row
+     */
+    public int getLightCellsCount(final int rowNumber) {
+        return lightCells[rowNumber];
+    }
+
+    /**
+     * Copies light cells count of each row at current state to specified array.
+     *
+     * @param target specified array for light cells count of each row
+     * @return specified array filled by light cells count of each row
+     */
+    public int[] getLightCells(final int[] target) {
+        System.arraycopy(lightCells, 0, target, 0, lightCells.length);
+        return target;
+    }
+
+    /**
+     * Simple getter for set of rows changed by last tick or synchronization.
+     *
+     * @return set of indexes of rows that changed
+     */
+    public BitSet getChangedRows() {
+        return changedRows;
+    }
+
+    /**
+     * Simple getter for current time of clock.
+     *
+     * @return current time as nanoseconds from start of day
+     */
+    public long getNanoOfDay() {
+        return nanoOfDay;
+    }
+
+    /**
+     * Simple getter for duration of single tick.
+     *
+     * @return duration in nanoseconds of most precision row cell
+     */
+    public long getUnitNanos() {
+        return unitNanos;
+    }
+
+    /**
+     * Simple getter for tick mode.
+     *
+     * @return {@code true} if ticks are calculated as carry propagation
+     */
+    public boolean isMixedRadix() {
+        return mixedRadix;
+    }
+}
@@ -0,0 +1,88 @@
+package com.trofiv.test4sidenis.binaryclock;
+
+import com.google.common.base.Preconditions;
+
+import java.time.Instant;
+import java.time.LocalTime;
+import java.time.ZoneId;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * A {@code WorldClockRenderer} renders single instant in many time zones at once. Zones are grouped
+ * by local time of day, that is the same for zones with identical offset (and for offsets that differ
+ * by whole day, like UTC-10 and UTC+14), and each distinct local time is converted and represented
+ * only once. Offsets are taken from {@code ZoneOffsetCache}, so transition tables of zones are
+ * consulted only when offset changes.
+ */
+public class WorldClockRenderer {
+    private final GenericBinaryClock clock;
+    private final ZoneOffsetCache offsetCache;
+
+    /**
+     * Instantiates {@code WorldClockRenderer} object for specified clock with its own offset cache.
+     *
+     * @param clock specified binary clock
+     */
+    public WorldClockRenderer(final GenericBinaryClock clock) {
+        this(clock, new ZoneOffsetCache());
+    }
+
+    /**
+     * Instantiates {@code WorldClockRenderer} object and validates all specified parameters.
+     *
+     * @param clock       specified binary clock
+     * @param offsetCache specified cache of zone offsets, that may be shared with other renderers
+     */
+    public WorldClockRenderer(final GenericBinaryClock clock, final ZoneOffsetCache offsetCache) {
+        Preconditions.checkNotNull(clock, "Clock must be specified!");
+        Preconditions.checkNotNull(offsetCache, "Offset cache must be specified!");
+        this.clock = clock;
+        this.offsetCache = offsetCache;
+    }
+
+    /**
+     * Renders specified instant in each of specified zones. Representation function is called once
+     * for each distinct local time of day, and zones with the same local time share its result.
+     *
+     * @param instant           specified instant
+     * @param zones             specified time zones
+     * @param representFunction specified closure function for result representation
+     * @param <T>               specified type of object to which result will be represented
+     * @return map of represented binary clock time of each zone, in order of specified zones
+     */
+    public <T> Map<ZoneId, T> render(final Instant instant, final Collection<ZoneId> zones,
+                                     final Function<List<BinaryClockRowRepresentation>, T> representFunction) {
+        Preconditions.checkNotNull(instant, "Instant must be specified!");
+        Preconditions.checkNotNull(zones, "Time zones must be specified!");
+        Preconditions.checkNotNull(representFunction, "Represent function must be specified!");
+        final long epochSecond = instant.getEpochSecond();
+        final int nanoAdjustment = instant.getNano();
+        //count of distinct local times is small (about forty offsets are in use), so map stays tiny
+        final Map<Long, T> renderedTimes = new HashMap<>();
+        final Map<ZoneId, T> result = new LinkedHashMap<>(zones.size() * 4 / 3 + 1);
+        for (ZoneId zone : zones) {
+            final long nanoOfDay = offsetCache.toNanoOfDay(zone, epochSecond, nanoAdjustment);
+            T rendered = renderedTimes.get(nanoOfDay);
+            if (rendered == null) {
+                rendered = clock.of(LocalTime.ofNanoOfDay(nanoOfDay), representFunction);
+                renderedTimes.put(nanoOfDay, rendered);
+            }
+            result.put(zone, rendered);
+        }
+        return result;
+    }
+
+    /**
+     * Simple getter for cache of zone offsets.
+     *
+     * @return {@code ZoneOffsetCache} object used by renderer
+     */
+    public ZoneOffsetCache getOffsetCache() {
+        return offsetCache;
+    }
+}
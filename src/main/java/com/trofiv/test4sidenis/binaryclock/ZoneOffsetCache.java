@@ -0,0 +1,229 @@
+package com.trofiv.test4sidenis.binaryclock;
+
+import com.google.common.base.Preconditions;
+
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.time.zone.ZoneOffsetTransition;
+import java.time.zone.ZoneRules;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A {@code ZoneOffsetCache} caches offsets of each time zone as table of intervals of instants between
+ * offset transitions from 1900 to 2100, built once per zone. Offset for instant is found without consulting
+ * {@code ZoneRules}, that search transition tables and allocate on each call: the last found interval of zone
+ * is checked first, that is enough for ordered instants, and otherwise table is searched by binary search,
+ * so unordered instants are converted without allocation too. Instants outside of table are resolved by
+ * {@code ZoneRules}. Cache is thread-safe.
+ */
+public class ZoneOffsetCache {
+    private static final long SECONDS_IN_DAY = TimeUnit.DAYS.toSeconds(1);
+    private static final long MILLIS_IN_SECOND = TimeUnit.SECONDS.toMillis(1);
+    private static final long NANOS_IN_SECOND = TimeUnit.SECONDS.toNanos(1);
+    private static final long NANOS_IN_MILLI = TimeUnit.MILLISECONDS.toNanos(1);
+    private static final long TABLE_FROM = Instant.parse("1900-01-01T00:00:00Z").getEpochSecond();
+    private static final long TABLE_UNTIL = Instant.parse("2100-01-01T00:00:00Z").getEpochSecond();
+
+    private final ConcurrentMap<ZoneId, ZoneOffsets> zones = new ConcurrentHashMap<>();
+
+    /**
+     * Finds offset of specified zone at specified instant.
+     *
+     * @param zone        specified time zone
+     * @param epochSecond specified instant as seconds from epoch
+     * @return offset of zone from UTC
+     */
+    public ZoneOffset getOffset(final ZoneId zone, final long epochSecond) {
+        return intervalOf(zone, epochSecond).offset;
+    }
+
+    /**
+     * Finds offset in seconds of specified zone at specified instant.
+     *
+     * @param zone        specified time zone
+     * @param epochSecond specified instant as seconds from epoch
+     * @return offset of zone from UTC in seconds
+     */
+    public int getOffsetSeconds(final ZoneId zone, final long epochSecond) {
+        return intervalOf(zone, epochSecond).offsetSeconds;
+    }
+
+    /**
+     * Converts specified instant to local time of day in specified zone.
+     *
+     * @param zone           specified time zone
+     * @param epochSecond    specified instant as seconds from epoch
+     * @param nanoAdjustment specified nanoseconds of second of instant
+     * @return local time of day as nanoseconds from start of day
+     */
+    public long toNanoOfDay(final ZoneId zone, final long epochSecond, final int nanoAdjustment) {
+        Preconditions.checkArgument(nanoAdjustment >= 0 && nanoAdjustment < TimeUnit.SECONDS.toNanos(1),
+                "Nanosecond adjustment must be within a second!");
+        final long secondOfDay = Math.floorMod(epochSecond + getOffsetSeconds(zone, epochSecond), SECONDS_IN_DAY);
+        return TimeUnit.SECONDS.toNanos(secondOfDay) + nanoAdjustment;
+    }
+
+    /**
+     * Converts specified instant given as milliseconds from epoch to local time of day in specified zone.
+     *
+     * @param zone       specified time zone
+     * @param epochMilli specified instant as milliseconds from epoch
+     * @return local time of day as nanoseconds from start of day
+     */
+    public long epochMilliToNanoOfDay(final ZoneId zone, final long epochMilli) {
+        //noinspection NumericCastThatLosesPrecision
+        return toNanoOfDay(zone, Math.floorDiv(epochMilli, MILLIS_IN_SECOND),
+                (int) (Math.floorMod(epochMilli, MILLIS_IN_SECOND) * NANOS_IN_MILLI));
+    }
+
+    /**
+     * Converts specified instant given as nanoseconds from epoch to local time of day in specified zone.
+     *
+     * @param zone      specified time zone
+     * @param epochNano specified instant as nanoseconds from epoch
+     * @return local time of day as nanoseconds from start of day
+     */
+    public long epochNanoToNanoOfDay(final ZoneId zone, final long epochNano) {
+        //noinspection NumericCastThatLosesPrecision
+        return toNanoOfDay(zone, Math.floorDiv(epochNano, NANOS_IN_SECOND),
+                (int) Math.floorMod(epochNano, NANOS_IN_SECOND));
+    }
+
+    /**
+     * Finds cached interval of specified zone that contains specified instant.
+     *
+     * @param zone        specified time zone
+     * @param epochSecond specified instant as seconds from epoch
+     * @return interval of constant offset containing instant
+     */
+    private OffsetInterval intervalOf(final ZoneId zone, final long epochSecond) {
+        Preconditions.checkNotNull(zone, "Time zone must be specified!");
+        ZoneOffsets offsets = zones.get(zone);
+        if (offsets == null) {
+            offsets = zones.computeIfAbsent(zone, ZoneOffsets::new);
+        }
+        return offsets.intervalOf(epochSecond);
+    }
+
+    /**
+     * Calculates interval of constant offset that contains specified instant.
+     *
+     * @param rules       specified rules of time zone
+     * @param epochSecond specified instant as seconds from epoch
+     * @return interval of constant offset containing instant
+     */
+    private static OffsetInterval calculateInterval(final ZoneRules rules, final long epochSecond) {
+        final Instant instant = Instant.ofEpochSecond(epochSecond);
+        final ZoneOffset offset = rules.getOffset(instant);
+        if (rules.isFixedOffset()) {
+            return new OffsetInterval(Long.MIN_VALUE, Long.MAX_VALUE, offset);
+        }
+        //previous transition is strictly before specified instant, so instant of transition itself is shifted
+        final ZoneOffsetTransition previous = rules.previousTransition(instant.plusSeconds(1));
+        final ZoneOffsetTransition next = rules.nextTransition(instant);
+        return new OffsetInterval(
+                previous == null ? Long.MIN_VALUE : previous.toEpochSecond(),
+                next == null ? Long.MAX_VALUE : next.toEpochSecond(),
+                offset);
+    }
+
+    /**
+     * Simple getter for count of cached zones.
+     *
+     * @return count of zones with cached interval
+     */
+    public int size() {
+        return zones.size();
+    }
+
+    /**
+     * A {@code ZoneOffsets} represents table of intervals of constant offset of single time zone.
+     */
+    private static final class ZoneOffsets {
+        private final ZoneRules rules;
+        private final long[] starts;
+        private final OffsetInterval[] intervals;
+        private OffsetInterval lastInterval;
+
+        private ZoneOffsets(final ZoneId zone) {
+            rules = zone.getRules();
+            final List<OffsetInterval> table = new ArrayList<>();
+            if (rules.isFixedOffset()) {
+                table.add(new OffsetInterval(Long.MIN_VALUE, Long.MAX_VALUE, rules.getOffset(Instant.EPOCH)));
+            } else {
+                long validFrom = TABLE_FROM;
+                ZoneOffset offset = rules.getOffset(Instant.ofEpochSecond(TABLE_FROM));
+                ZoneOffsetTransition transition = rules.nextTransition(Instant.ofEpochSecond(TABLE_FROM));
+                while (transition != null && transition.toEpochSecond() < TABLE_UNTIL) {
+                    //noinspection ObjectAllocationInLoop
+                    table.add(new OffsetInterval(validFrom, transition.toEpochSecond(), offset));
+                    validFrom = transition.toEpochSecond();
+                    offset = transition.getOffsetAfter();
+                    transition = rules.nextTransition(transition.getInstant());
+                }
+                table.add(new OffsetInterval(validFrom, TABLE_UNTIL, offset));
+            }
+            intervals = table.toArray(new OffsetInterval[table.size()]);
+            starts = new long[intervals.length];
+            for (int index = 0; index < intervals.length; index++) {
+                starts[index] = intervals[index].validFrom;
+            }
+        }
+
+        /**
+         * Finds interval that contains specified instant, checking the last found interval first.
+         *
+         * @param epochSecond specified instant as seconds from epoch
+         * @return interval of constant offset containing instant
+         */
+        private OffsetInterval intervalOf(final long epochSecond) {
+            OffsetInterval interval = lastInterval;
+            if (interval != null && interval.contains(epochSecond)) {
+                return interval;
+            }
+            if (epochSecond >= starts[0] && epochSecond < intervals[intervals.length - 1].validUntil) {
+                final int index = Arrays.binarySearch(starts, epochSecond);
+                interval = intervals[index >= 0 ? index : -index - 2];
+            } else {
+                interval = calculateInterval(rules, epochSecond);
+            }
+            //intervals are immutable, so racing threads may only replace the last interval by another correct one
+            lastInterval = interval;
+            return interval;
+        }
+    }
+
+    /**
+     * An {@code OffsetInterval} represents interval of instants {@code [validFrom, validUntil)}
+     * with constant offset of time zone.
+     */
+    private static final class OffsetInterval {
+        private final long validFrom;
+        private final long validUntil;
+        private final ZoneOffset offset;
+        private final int offsetSeconds;
+
+        private OffsetInterval(final long validFrom, final long validUntil, final ZoneOffset offset) {
+            this.validFrom = validFrom;
+            this.validUntil = validUntil;
+            this.offset = offset;
+            offsetSeconds = offset.getTotalSeconds();
+        }
+
+        /**
+         * Checks whether interval contains specified instant.
+         *
+         * @param epochSecond specified instant as seconds from epoch
+         * @return {@code true} if offset of interval is valid for instant
+         */
+        private boolean contains(final long epochSecond) {
+            return epochSecond >= validFrom && epochSecond < validUntil;
+        }
+    }
+}
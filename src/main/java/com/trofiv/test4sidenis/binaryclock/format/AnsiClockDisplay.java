@@ -0,0 +1,271 @@
+package com.trofiv.test4sidenis.binaryclock.format;
+
+import com.google.common.base.Preconditions;
+import com.trofiv.test4sidenis.binaryclock.BinaryClockPattern;
+import com.trofiv.test4sidenis.binaryclock.BinaryClockRowPattern;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * An {@code AnsiClockDisplay} keeps live view of binary clock on ANSI terminal. Grid of cells is drawn once in
+ * the same layout as {@code GridClockFormatter} output, then each new state is diffed with displayed one and
+ * only flipped cells are written, each at position set by cursor escape sequence. Light cells of row form
+ * prefix, so cells flipped in a line of row are consecutive: they are written as single cursor move followed
+ * by glyphs, with brackets between glyphs written over with the same characters, that is shorter than moving
+ * cursor to each glyph. All output is ASCII, so count of written characters is count of written bytes.
+ * Display is not thread-safe.
+ */
+public class AnsiClockDisplay {
+    private static final String ESCAPE = "\u001B[";
+    private static final String CLEAR_SCREEN = ESCAPE + "2J";
+    private static final String HIDE_CURSOR = ESCAPE + "?25l";
+    private static final String SHOW_CURSOR = ESCAPE + "?25h";
+    private static final String LIGHT_CELL = "[X]";
+    private static final String DARK_CELL = "[ ]";
+    private static final char LIGHT_GLYPH = 'X';
+    private static final char DARK_GLYPH = ' ';
+    private static final int CELL_LENGTH = LIGHT_CELL.length();
+
+    private final int[] cellsInRow;
+    private final boolean[] blinkRows;
+    private final int[] firstLines;
+    private final int lineCount;
+    private final int maxCellsPerLine;
+    private final int[] displayedLightCells;
+    private boolean drawn;
+    private long writtenBytes;
+    private long fullFrameBytes;
+    private long updateCount;
+
+    /**
+     * Instantiates {@code AnsiClockDisplay} object without wrapping and blink rows.
+     *
+     * @param clockPattern specified pattern of binary clock
+     */
+    public AnsiClockDisplay(final BinaryClockPattern clockPattern) {
+        this(clockPattern, Integer.MAX_VALUE, Collections.emptySet());
+    }
+
+    /**
+     * Instantiates {@code AnsiClockDisplay} object and validates all specified parameters.
+     *
+     * @param clockPattern    specified pattern of binary clock
+     * @param maxCellsPerLine specified maximal count of cells in a line, wider rows are wrapped
+     * @param blinkRows       specified indexes of rows rendered as single blink cell
+     */
+    public AnsiClockDisplay(
+            final BinaryClockPattern clockPattern,
+            final int maxCellsPerLine,
+            final Set<Integer> blinkRows) {
+        Preconditions.checkNotNull(clockPattern, "Clock pattern must be specified!");
+        Preconditions.checkArgument(maxCellsPerLine > 0, "Line must have at least one cell!");
+        Preconditions.checkNotNull(blinkRows, "Blink rows must be specified!");
+        final List<BinaryClockRowPattern> clockRows = clockPattern.getClockRows();
+        cellsInRow = new int[clockRows.size()];
+        this.blinkRows = new boolean[clockRows.size()];
+        for (Integer blinkRow : blinkRows) {
+            Preconditions.checkArgument(blinkRow != null && blinkRow >= 0 && blinkRow < clockRows.size(),
+                    "Blink row must be a row of clock pattern!");
+            this.blinkRows[blinkRow] = true;
+        }
+        firstLines = new int[clockRows.size()];
+        int lines = 0;
+        for (int rowNumber = 0; rowNumber < clockRows.size(); rowNumber++) {
+            cellsInRow[rowNumber] = this.blinkRows[rowNumber] ? 1 : clockRows.get(rowNumber).getCellsInRow();
+            firstLines[rowNumber] = lines;
+            lines += (cellsInRow[rowNumber] - 1) / maxCellsPerLine + 1;
+        }
+        lineCount = lines;
+        this.maxCellsPerLine = maxCellsPerLine;
+        displayedLightCells = new int[clockRows.size()];
+    }
+
+    /**
+     * Clears screen and draws whole grid for specified state of binary clock. Cursor is hidden.
+     *
+     * @param lightCells specified light cells count of each row
+     * @param target     specified terminal output
+     * @param <A>        specified type of output
+     * @return specified output
+     */
+    public <A extends Appendable> A drawFrame(final int[] lightCells, final A target) {
+        checkLightCells(lightCells);
+        final StringBuilder frame = new StringBuilder();
+        frame.append(HIDE_CURSOR).append(CLEAR_SCREEN);
+        for (int rowNumber = 0; rowNumber < cellsInRow.length; rowNumber++) {
+            final int cells = cellsInRow[rowNumber];
+            final int lightCellCount = lightCellCount(lightCells, rowNumber);
+            for (int lineStart = 0; lineStart < cells; lineStart += maxCellsPerLine) {
+                moveCursor(frame, firstLines[rowNumber] + lineStart / maxCellsPerLine, 0);
+                final int lineEnd = Math.min(cells, lineStart + maxCellsPerLine);
+                for (int cellNumber = lineStart; cellNumber < lineEnd; cellNumber++) {
+                    frame.append(cellNumber < lightCellCount ? LIGHT_CELL : DARK_CELL);
+                }
+            }
+            displayedLightCells[rowNumber] = lightCellCount;
+        }
+        drawn = true;
+        fullFrameBytes = frame.length();
+        return write(frame, target);
+    }
+
+    /**
+     * Writes only cells that differ between displayed state and specified state of binary clock. Draws whole
+     * grid if nothing was drawn yet.
+     *
+     * @param lightCells specified light cells count of each row
+     * @param target     specified terminal output
+     * @param <A>        specified type of output
+     * @return specified output
+     */
+    public <A extends Appendable> A update(final int[] lightCells, final A target) {
+        if (!drawn) {
+            return drawFrame(lightCells, target);
+        }
+        checkLightCells(lightCells);
+        final StringBuilder changes = new StringBuilder();
+        for (int rowNumber = 0; rowNumber < cellsInRow.length; rowNumber++) {
+            final int lightCellCount = lightCellCount(lightCells, rowNumber);
+            final int displayedCount = displayedLightCells[rowNumber];
+            if (lightCellCount == displayedCount) {
+                continue;
+            }
+            //cells between old and new counts flip: all of them light up, or all of them go dark
+            final char glyph = lightCellCount > displayedCount ? LIGHT_GLYPH : DARK_GLYPH;
+            final int from = Math.min(lightCellCount, displayedCount);
+            final int to = Math.max(lightCellCount, displayedCount);
+            for (int cellNumber = from; cellNumber < to; cellNumber++) {
+                final int column = cellNumber % maxCellsPerLine;
+                if (cellNumber == from || column == 0) {
+                    moveCursor(changes, firstLines[rowNumber] + cellNumber / maxCellsPerLine,
+                            column * CELL_LENGTH + 1);
+                } else {
+                    //cursor is right after previous glyph, closing and opening brackets stay the same
+                    changes.append(']').append('[');
+                }
+                changes.append(glyph);
+            }
+            displayedLightCells[rowNumber] = lightCellCount;
+        }
+        updateCount++;
+        return write(changes, target);
+    }
+
+    /**
+     * Moves cursor below the grid and shows it, so terminal can be used after display.
+     *
+     * @param target specified terminal output
+     * @param <A>    specified type of output
+     * @return specified output
+     */
+    public <A extends Appendable> A release(final A target) {
+        final StringBuilder release = new StringBuilder();
+        moveCursor(release, lineCount, 0);
+        release.append(SHOW_CURSOR);
+        return write(release, target);
+    }
+
+    /**
+     * Appends escape sequence that moves cursor to specified position.
+     *
+     * @param target specified text of escape sequences
+     * @param line   specified zero-based line of grid
+     * @param column specified zero-based column of line
+     */
+    private static void moveCursor(final StringBuilder target, final int line, final int column) {
+        target.append(ESCAPE).append(line + 1).append(';').append(column + 1).append('H');
+    }
+
+    /**
+     * Writes specified text to specified output and counts written bytes.
+     *
+     * @param text   specified text of escape sequences and glyphs
+     * @param target specified terminal output
+     * @param <A>    specified type of output
+     * @return specified output
+     */
+    private <A extends Appendable> A write(final CharSequence text, final A target) {
+        try {
+            target.append(text);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        writtenBytes += text.length();
+        return target;
+    }
+
+    /**
+     * Validates that specified state has light cells count of each row.
+     *
+     * @param lightCells specified light cells count of each row
+     */
+    private void checkLightCells(final int[] lightCells) {
+        Preconditions.checkNotNull(lightCells, "Light cells must be specified!");
+        Preconditions.checkArgument(lightCells.length == cellsInRow.length,
+                "Light cells array must have one element per clock row!");
+    }
+
+    /**
+     * Calculates count of lit cells of specified row, blink cell lights when count is odd.
+     *
+     * @param lightCells specified light cells count of each row
+     * @param rowNumber  specified index of row
+     * @return count of lit cells on screen
+     */
+    private int lightCellCount(final int[] lightCells, final int rowNumber) {
+        return blinkRows[rowNumber]
+                ? lightCells[rowNumber] % 2
+                : Math.min(Math.max(lightCells[rowNumber], 0), cellsInRow[rowNumber]);
+    }
+
+    /**
+     * Returns state that is on screen now.
+     *
+     * @return copy of light cells count of each row as displayed, blink rows have 0 or 1
+     */
+    public int[] getDisplayedLightCells() {
+        return Arrays.copyOf(displayedLightCells, displayedLightCells.length);
+    }
+
+    /**
+     * Simple getter for count of bytes written by display.
+     *
+     * @return count of bytes
+     */
+    public long getWrittenBytes() {
+        return writtenBytes;
+    }
+
+    /**
+     * Simple getter for size of the last whole grid drawn, that is what each update would cost
+     * without diffing.
+     *
+     * @return count of bytes
+     */
+    public long getFullFrameBytes() {
+        return fullFrameBytes;
+    }
+
+    /**
+     * Simple getter for count of updates written after whole grid.
+     *
+     * @return count of updates
+     */
+    public long getUpdateCount() {
+        return updateCount;
+    }
+
+    /**
+     * Simple getter for count of lines of grid.
+     *
+     * @return count of lines
+     */
+    public int getLineCount() {
+        return lineCount;
+    }
+}
@@ -0,0 +1,174 @@
+package com.trofiv.test4sidenis.binaryclock.format;
+
+import com.google.common.base.Preconditions;
+import com.trofiv.test4sidenis.binaryclock.BerlinBinaryClock;
+import com.trofiv.test4sidenis.binaryclock.BinaryClockPattern;
+import com.trofiv.test4sidenis.binaryclock.BinaryClockRowPattern;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A {@code BerlinClockParser} converts text frames in layout of {@code ClockFormatter.BERLIN_CLOCK_FORMATTER}
+ * back to time. Layout is checked against {@code BinaryClockPattern}: first line is blink cell of the last
+ * row of pattern, next lines contain cells of all other rows in order of pattern. Lit cells of each line
+ * must precede unlit ones, and lit cells must add up to less than a day. Blink cell gives only parity of the
+ * last row, so frame encodes range of time: exact lower bound and width of range equal to cell duration of
+ * most precision rendered row. Input is scanned once, char by char, without regular expressions and splitting.
+ */
+public class BerlinClockParser {
+    private static final char CELL_START = '[';
+    private static final char CELL_END = ']';
+    private static final char LIGHT_GLYPH = 'X';
+    private static final char DARK_GLYPH = ' ';
+    private static final char LINE_END = '\n';
+    private static final int CELL_LENGTH = 3;
+    private static final long NANOS_IN_DAY = TimeUnit.DAYS.toNanos(1);
+
+    private final int[] lineCells;
+    private final long[] lineCellNanos;
+    private final long rangeNanos;
+
+    /**
+     * Instantiates {@code BerlinClockParser} object for Berlin clock pattern.
+     */
+    public BerlinClockParser() {
+        this(BerlinBinaryClock.BERLIN_CLOCK_PATTERN);
+    }
+
+    /**
+     * Instantiates {@code BerlinClockParser} object and validates all specified parameters.
+     *
+     * @param clockPattern specified pattern of binary clock, that must have at least two rows
+     */
+    public BerlinClockParser(final BinaryClockPattern clockPattern) {
+        Preconditions.checkNotNull(clockPattern, "Clock pattern must be specified!");
+        final List<BinaryClockRowPattern> clockRows = clockPattern.getClockRows();
+        Preconditions.checkArgument(clockRows.size() > 1, "Clock pattern is not suitable for Berlin clock layout!");
+        final int blinkRow = clockRows.size() - 1;
+        lineCells = new int[clockRows.size()];
+        lineCellNanos = new long[clockRows.size()];
+        lineCells[0] = 1;
+        long mostPrecisionCellNanos = Long.MAX_VALUE;
+        for (int rowNumber = 0; rowNumber < blinkRow; rowNumber++) {
+            lineCells[rowNumber + 1] = clockRows.get(rowNumber).getCellsInRow();
+            lineCellNanos[rowNumber + 1] = clockRows.get(rowNumber).nanoSecondsCoveredByCell();
+            mostPrecisionCellNanos = Math.min(mostPrecisionCellNanos, lineCellNanos[rowNumber + 1]);
+        }
+        //blink cell lights for odd light cells count, so minimal time of lit blink is one cell of the last row
+        lineCellNanos[0] = clockRows.get(blinkRow).nanoSecondsCoveredByCell();
+        rangeNanos = mostPrecisionCellNanos;
+    }
+
+    /**
+     * Parses single frame. Whole input must be a frame, the last line end is optional.
+     *
+     * @param frame specified text of frame
+     * @return parsed range of time
+     */
+    public ParsedClockTime parse(final CharSequence frame) {
+        Preconditions.checkNotNull(frame, "Frame must be specified!");
+        final int[] cursor = new int[1];
+        final long lowerBound = parseFrame(frame, cursor);
+        Preconditions.checkArgument(cursor[0] == frame.length(), "Unexpected text after frame!");
+        return new ParsedClockTime(lowerBound, upperBound(lowerBound) - lowerBound);
+    }
+
+    /**
+     * Parses stream of concatenated frames, empty lines between frames are skipped. Each parsed frame
+     * is passed to specified consumer, so parsing itself allocates nothing per frame.
+     *
+     * @param frames   specified text of concatenated frames
+     * @param consumer specified consumer of parsed ranges of time
+     * @return count of parsed frames
+     */
+    public int parseAll(final CharSequence frames, final ParsedFrameConsumer consumer) {
+        Preconditions.checkNotNull(frames, "Frames must be specified!");
+        Preconditions.checkNotNull(consumer, "Consumer must be specified!");
+        final int[] cursor = new int[1];
+        int count = 0;
+        while (true) {
+            while (cursor[0] < frames.length() && frames.charAt(cursor[0]) == LINE_END) {
+                cursor[0]++;
+            }
+            if (cursor[0] == frames.length()) {
+                return count;
+            }
+            final long lowerBound = parseFrame(frames, cursor);
+            consumer.accept(lowerBound, upperBound(lowerBound) - lowerBound);
+            count++;
+        }
+    }
+
+    /**
+     * Calculates exclusive upper bound of time range for specified lower bound. Blink cell shifts lower
+     * bound within range of most precision rendered row cell, but not upper bound.
+     *
+     * @param lowerBound specified lower bound as nanoseconds from start of day
+     * @return upper bound as nanoseconds from start of day
+     */
+    private long upperBound(final long lowerBound) {
+        return lowerBound - lowerBound % rangeNanos + rangeNanos;
+    }
+
+    /**
+     * Parses frame starting at specified position.
+     *
+     * @param input  specified text
+     * @param cursor specified single-element array with position of frame, updated to position after frame
+     * @return lower bound of time range as nanoseconds from start of day
+     */
+    private long parseFrame(final CharSequence input, final int[] cursor) {
+        int position = cursor[0];
+        long lowerBound = 0L;
+        for (int line = 0; line < lineCells.length; line++) {
+            int lightCellCount = 0;
+            for (int cellNumber = 0; cellNumber < lineCells[line]; cellNumber++) {
+                Preconditions.checkArgument(position + CELL_LENGTH <= input.length()
+                        && input.charAt(position) == CELL_START
+                        && input.charAt(position + 2) == CELL_END, "Frame does not match clock pattern!");
+                final char glyph = input.charAt(position + 1);
+                if (glyph == LIGHT_GLYPH) {
+                    Preconditions.checkArgument(lightCellCount == cellNumber, "Lit cells must precede unlit cells!");
+                    lightCellCount++;
+                } else {
+                    Preconditions.checkArgument(glyph == DARK_GLYPH, "Unknown cell glyph!");
+                }
+                position += CELL_LENGTH;
+            }
+            if (position < input.length()) {
+                Preconditions.checkArgument(input.charAt(position) == LINE_END, "Frame does not match clock pattern!");
+                position++;
+            } else {
+                Preconditions.checkArgument(line == lineCells.length - 1, "Frame is truncated!");
+            }
+            lowerBound += lightCellCount * lineCellNanos[line];
+        }
+        Preconditions.checkArgument(lowerBound < NANOS_IN_DAY, "Frame represents time out of day!");
+        cursor[0] = position;
+        return lowerBound;
+    }
+
+    /**
+     * Simple getter for width of time range encoded by frame without blink.
+     *
+     * @return duration in nanoseconds of most precision rendered row cell
+     */
+    public long getRangeNanos() {
+        return rangeNanos;
+    }
+
+    /**
+     * A {@code ParsedFrameConsumer} accepts ranges of time parsed in bulk mode.
+     */
+    @FunctionalInterface
+    public interface ParsedFrameConsumer {
+        /**
+         * Accepts parsed range of time.
+         *
+         * @param lowerBoundNanos  lower bound of time as nanoseconds from start of day
+         * @param uncertaintyNanos width of time range in nanoseconds
+         */
+        void accept(long lowerBoundNanos, long uncertaintyNanos);
+    }
+}
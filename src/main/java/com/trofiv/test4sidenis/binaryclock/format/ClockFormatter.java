@@ -40,33 +40,18 @@ public class ClockFormatter {
      * "[ ]" means cell does not light
      * "[X]" means cell lights
      * First row contains one cell for second-blinking light
+     * Rendering is done by {@code ClockFrameTemplate}, use it directly for allocation-free formatting.
      */
     public static final Function<List<BinaryClockRowRepresentation>, String> BERLIN_CLOCK_FORMATTER =
             result -> {
                 Preconditions.checkArgument(result.size() == BerlinBinaryClock
                         .BERLIN_CLOCK_PATTERN.getClockRows().size(), "Clock pattern is not suitable for Berlin clock");
-                final StringBuilder stringBuilder = new StringBuilder(result.size() * AVERAGE_LINE_LENGTH);
-                final boolean lightBlink = result.get(4).getLightCellsCount() % 2 != 0;
-                if (lightBlink) {
-                    stringBuilder.append("[X]");
-                } else {
-                    stringBuilder.append("[ ]");
-                }
-                // noinspection HardcodedLineSeparator
-                stringBuilder.append('\n');
-                //iterate over all rows except last row with seconds
-                for (int rowNumber = 0; rowNumber < 4; rowNumber++) {
-                    for (int cellNumber = 0; cellNumber < result.get(rowNumber)
-                            .getRowPattern().getCellsInRow(); cellNumber++) {
-                        if (result.get(rowNumber).getLightCellsCount() > cellNumber) {
-                            stringBuilder.append("[X]");
-                        } else {
-                            stringBuilder.append("[ ]");
-                        }
-                    }
-                    // noinspection HardcodedLineSeparator
-                    stringBuilder.append('\n');
+                final int[] lightCells = new int[result.size()];
+                int rowNumber = 0;
+                for (BinaryClockRowRepresentation row : result) {
+                    lightCells[rowNumber++] = row.getLightCellsCount();
                 }
-                return stringBuilder.toString();
+                final ClockFrameTemplate template = ClockFrameTemplate.berlinClock();
+                return template.render(lightCells, template.newFrame()).toString();
             };
-}
\ No newline at end of file
+}
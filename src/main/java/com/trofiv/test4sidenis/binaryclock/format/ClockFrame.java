@@ -0,0 +1,135 @@
+package com.trofiv.test4sidenis.binaryclock.format;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+
+/**
+ * A {@code ClockFrame} represents mutable text frame of binary clock rendered by
+ * {@code ClockFrameTemplate}. Frame keeps both chars and ASCII bytes of text, so it can be written
+ * to character and byte destinations without encoding and allocation. Frame is meant to be reused
+ * for rendering of subsequent states by single thread, it remembers rendered light cells count of each
+ * row, so only cells changed since previous state are rendered.
+ */
+public class ClockFrame {
+    private final char[] chars;
+    private final byte[] bytes;
+    private final int[] renderedLightCells;
+
+    /**
+     * Instantiates {@code ClockFrame} object as copy of specified template text.
+     *
+     * @param prototype specified text of template frame with all cells unlit
+     * @param rowCount  specified count of rows of template
+     */
+    ClockFrame(final char[] prototype, final int rowCount) {
+        chars = prototype.clone();
+        renderedLightCells = new int[rowCount];
+        bytes = new byte[prototype.length];
+        for (int index = 0; index < prototype.length; index++) {
+            //noinspection NumericCastThatLosesPrecision
+            bytes[index] = (byte) prototype[index];
+        }
+    }
+
+    /**
+     * Sets glyph at specified offset of frame.
+     *
+     * @param offset specified offset of glyph
+     * @param glyph  specified ASCII glyph
+     */
+    void setGlyph(final int offset, final char glyph) {
+        chars[offset] = glyph;
+        //noinspection NumericCastThatLosesPrecision
+        bytes[offset] = (byte) glyph;
+    }
+
+    /**
+     * Simple getter for rendered light cells count of row.
+     *
+     * @param rowNumber specified index of row
+     * @return count of cells rendered as lit
+     */
+    int getRenderedLightCells(final int rowNumber) {
+        return renderedLightCells[rowNumber];
+    }
+
+    /**
+     * Simple setter for rendered light cells count of row.
+     *
+     * @param rowNumber       specified index of row
+     * @param lightCellsCount specified count of cells rendered as lit
+     */
+    void setRenderedLightCells(final int rowNumber, final int lightCellsCount) {
+        renderedLightCells[rowNumber] = lightCellsCount;
+    }
+
+    /**
+     * Simple getter for count of rows of template.
+     *
+     * @return count of rows
+     */
+    int getRowCount() {
+        return renderedLightCells.length;
+    }
+
+    /**
+     * Writes text of frame to specified {@code Appendable}.
+     *
+     * @param target specified destination of text
+     * @param <A>    specified type of destination
+     * @return specified destination
+     */
+    public <A extends Appendable> A writeTo(final A target) {
+        try {
+            if (target instanceof StringBuilder) {
+                ((StringBuilder) target).append(chars);
+            } else if (target instanceof Writer) {
+                ((Writer) target).write(chars);
+            } else {
+                for (char character : chars) {
+                    target.append(character);
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return target;
+    }
+
+    /**
+     * Writes text of frame to specified {@code CharBuffer}.
+     *
+     * @param target specified buffer with enough remaining space
+     * @return specified buffer
+     */
+    public CharBuffer writeTo(final CharBuffer target) {
+        return target.put(chars);
+    }
+
+    /**
+     * Writes text of frame as ASCII (and so UTF-8) bytes to specified {@code ByteBuffer}.
+     *
+     * @param target specified buffer with enough remaining space
+     * @return specified buffer
+     */
+    public ByteBuffer writeTo(final ByteBuffer target) {
+        return target.put(bytes);
+    }
+
+    /**
+     * Simple getter for length of frame text.
+     *
+     * @return count of characters in frame
+     */
+    public int length() {
+        return chars.length;
+    }
+
+    @Override
+    public String toString() {
+        return new String(chars);
+    }
+}
@@ -0,0 +1,136 @@
+package com.trofiv.test4sidenis.binaryclock.format;
+
+import com.google.common.base.Preconditions;
+import com.trofiv.test4sidenis.binaryclock.BerlinBinaryClock;
+import com.trofiv.test4sidenis.binaryclock.BinaryClockPattern;
+import com.trofiv.test4sidenis.binaryclock.BinaryClockRowPattern;
+
+import java.util.List;
+
+/**
+ * A {@code ClockFrameTemplate} represents precompiled text layout of binary clock. Template contains
+ * text of frame with all cells unlit, and fixed offset of glyph of each cell, so rendering of state
+ * only fills glyphs of cells in {@code ClockFrame}, without any allocation and list traversal.
+ * Each cell is rendered as "[X]" if it lights and "[ ]" otherwise. Row of pattern can be rendered
+ * as single blink cell, that lights when light cells count of row is odd. Frame remembers previously
+ * rendered state, so only cells between previous and new light cells count of each row are written, and
+ * rendering of subsequent states of wide rows costs count of changed cells rather than width of row.
+ * Template is immutable and can be shared between threads, frames can not.
+ */
+public class ClockFrameTemplate {
+    private static final char LIGHT_GLYPH = 'X';
+    private static final char DARK_GLYPH = ' ';
+    private static final String DARK_CELL = "[ ]";
+    private static final int BERLIN_BLINK_ROW = 4;
+    private static final int[] BERLIN_ROW_ORDER = {BERLIN_BLINK_ROW, 0, 1, 2, 3};
+
+    private static final ClockFrameTemplate BERLIN_CLOCK_TEMPLATE = new ClockFrameTemplate(
+            BerlinBinaryClock.BERLIN_CLOCK_PATTERN, BERLIN_ROW_ORDER, BERLIN_BLINK_ROW);
+
+    private final char[] prototype;
+    private final int[][] glyphOffsets;
+    private final boolean[] blinkRows;
+
+    /**
+     * Instantiates {@code ClockFrameTemplate} object with one line of text per row.
+     *
+     * @param clockPattern specified pattern of binary clock
+     * @param rowOrder     specified indexes of rows in order of lines
+     * @param blinkRow     specified index of row rendered as single blink cell, or -1
+     */
+    @SuppressWarnings("HardcodedLineSeparator")
+    private ClockFrameTemplate(final BinaryClockPattern clockPattern, final int[] rowOrder, final int blinkRow) {
+        final List<BinaryClockRowPattern> clockRows = clockPattern.getClockRows();
+        glyphOffsets = new int[clockRows.size()][];
+        blinkRows = new boolean[clockRows.size()];
+        final StringBuilder text = new StringBuilder();
+        for (int rowNumber : rowOrder) {
+            blinkRows[rowNumber] = rowNumber == blinkRow;
+            final int cellsInLine = blinkRows[rowNumber] ? 1 : clockRows.get(rowNumber).getCellsInRow();
+            glyphOffsets[rowNumber] = new int[cellsInLine];
+            for (int cellNumber = 0; cellNumber < cellsInLine; cellNumber++) {
+                //glyph is the middle char of cell
+                glyphOffsets[rowNumber][cellNumber] = text.length() + 1;
+                text.append(DARK_CELL);
+            }
+            text.append('\n');
+        }
+        prototype = text.toString().toCharArray();
+    }
+
+    /**
+     * Returns template of Berlin clock layout, identical to {@code ClockFormatter.BERLIN_CLOCK_FORMATTER}
+     * output: blink cell of seconds row and then four rows of hours and minutes.
+     *
+     * @return shared template of Berlin clock
+     */
+    public static ClockFrameTemplate berlinClock() {
+        return BERLIN_CLOCK_TEMPLATE;
+    }
+
+    /**
+     * Creates template of specified pattern with one line of text per row, in order of rows.
+     *
+     * @param clockPattern specified pattern of binary clock
+     * @return new template
+     */
+    public static ClockFrameTemplate of(final BinaryClockPattern clockPattern) {
+        Preconditions.checkNotNull(clockPattern, "Clock pattern must be specified!");
+        final int[] rowOrder = new int[clockPattern.getClockRows().size()];
+        for (int rowNumber = 0; rowNumber < rowOrder.length; rowNumber++) {
+            rowOrder[rowNumber] = rowNumber;
+        }
+        return new ClockFrameTemplate(clockPattern, rowOrder, -1);
+    }
+
+    /**
+     * Creates new frame for rendering with this template.
+     *
+     * @return frame with all cells unlit
+     */
+    public ClockFrame newFrame() {
+        return new ClockFrame(prototype, glyphOffsets.length);
+    }
+
+    /**
+     * Renders specified state of binary clock to specified frame. Only glyphs of cells are written.
+     *
+     * @param lightCells specified light cells count of each row
+     * @param frame      specified frame created by this template
+     * @return specified frame
+     */
+    public ClockFrame render(final int[] lightCells, final ClockFrame frame) {
+        Preconditions.checkArgument(lightCells.length == glyphOffsets.length,
+                "Light cells array must have one element per clock row!");
+        Preconditions.checkArgument(frame.length() == prototype.length && frame.getRowCount() == glyphOffsets.length,
+                "Frame was not created by this template!");
+        for (int rowNumber = 0; rowNumber < glyphOffsets.length; rowNumber++) {
+            final int[] offsets = glyphOffsets[rowNumber];
+            if (offsets == null) {
+                continue;
+            }
+            //blink cell is the only cell of its line, it lights when count is odd
+            final int lightCellCount = blinkRows[rowNumber]
+                    ? lightCells[rowNumber] % 2
+                    : Math.min(lightCells[rowNumber], offsets.length);
+            final int renderedCount = frame.getRenderedLightCells(rowNumber);
+            for (int cellNumber = renderedCount; cellNumber < lightCellCount; cellNumber++) {
+                frame.setGlyph(offsets[cellNumber], LIGHT_GLYPH);
+            }
+            for (int cellNumber = lightCellCount; cellNumber < renderedCount; cellNumber++) {
+                frame.setGlyph(offsets[cellNumber], DARK_GLYPH);
+            }
+            frame.setRenderedLightCells(rowNumber, lightCellCount);
+        }
+        return frame;
+    }
+
+    /**
+     * Simple getter for length of frame text.
+     *
+     * @return count of characters in frame
+     */
+    public int getFrameLength() {
+        return prototype.length;
+    }
+}
@@ -0,0 +1,404 @@
+package com.trofiv.test4sidenis.binaryclock.format;
+
+import com.google.common.base.Preconditions;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.trofiv.test4sidenis.binaryclock.BinaryClockPattern;
+import com.trofiv.test4sidenis.binaryclock.BinaryClockRowPattern;
+import com.trofiv.test4sidenis.binaryclock.BinaryClockRowRepresentation;
+import com.trofiv.test4sidenis.binaryclock.BinaryClockStateCodec;
+import com.trofiv.test4sidenis.binaryclock.metrics.CacheMetrics;
+import com.trofiv.test4sidenis.binaryclock.metrics.ClockMetrics;
+
+import javax.imageio.ImageIO;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBufferInt;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Function;
+
+/**
+ * A {@code ClockImageRenderer} visualizes time of any {@code BinaryClockPattern} as image: raster
+ * {@code BufferedImage} encoded to PNG, or SVG text. Layout is the same as {@code GridClockFormatter}
+ * layout: one row of pattern per line of square cells, wide rows are wrapped to several lines, and any
+ * row can be rendered as single blink cell. Cells of each row are drawn by {@code java.awt} only once,
+ * to sprite of line of lit cells followed by line of unlit cells, so each line of row with any light
+ * cells count is a window of the sprite, and rendering of frame only copies scanlines of windows. PNG bytes
+ * are cached per distinct displayed state of clock, least recently used states are evicted above specified
+ * count of states. SVG elements of each row are prepared once the same way, as text of all lit cells and
+ * text of all unlit cells. Headless mode is enough.
+ * Renderer is thread-safe, images returned by {@code newImage} are not.
+ */
+public class ClockImageRenderer implements Function<List<BinaryClockRowRepresentation>, String> {
+    /**
+     * Default maximal count of states with cached PNG bytes.
+     */
+    public static final int DEFAULT_MAX_CACHED_STATES = 4096;
+    private static final CacheMetrics CACHE_METRICS = ClockMetrics.cache("ClockImageRenderer");
+    private static final Color LIGHT_COLOR = new Color(0xFFC107);
+    private static final Color DARK_COLOR = new Color(0x3C3C3C);
+    private static final String LIGHT_FILL = "#FFC107";
+    private static final String DARK_FILL = "#3C3C3C";
+    private static final int GAP_FRACTION = 8;
+    private static final int SVG_CELL_LENGTH = 80;
+
+    private final int cellSize;
+    private final int maxCellsPerLine;
+    private final int[] cellsInRow;
+    private final boolean[] blinkRows;
+    private final int[] firstLines;
+    private final int[][] sprites;
+    private final String[] lightElements;
+    private final String[] darkElements;
+    private final int[][] elementOffsets;
+    private final int width;
+    private final int height;
+    private final BinaryClockStateCodec codec;
+    private final Cache<StateKey, byte[]> pngCache;
+
+    /**
+     * Instantiates {@code ClockImageRenderer} object without wrapping and blink rows.
+     *
+     * @param clockPattern specified pattern of binary clock
+     * @param cellSize     specified size of side of cell in pixels
+     */
+    public ClockImageRenderer(final BinaryClockPattern clockPattern, final int cellSize) {
+        this(clockPattern, cellSize, Integer.MAX_VALUE, Collections.emptySet(), DEFAULT_MAX_CACHED_STATES);
+    }
+
+    /**
+     * Instantiates {@code ClockImageRenderer} object and validates all specified parameters.
+     *
+     * @param clockPattern    specified pattern of binary clock
+     * @param cellSize        specified size of side of cell in pixels
+     * @param maxCellsPerLine specified maximal count of cells in a line, wider rows are wrapped
+     * @param blinkRows       specified indexes of rows rendered as single blink cell
+     * @param maxCachedStates specified maximal count of states with cached PNG bytes
+     */
+    public ClockImageRenderer(
+            final BinaryClockPattern clockPattern,
+            final int cellSize,
+            final int maxCellsPerLine,
+            final Set<Integer> blinkRows,
+            final int maxCachedStates) {
+        Preconditions.checkNotNull(clockPattern, "Clock pattern must be specified!");
+        Preconditions.checkArgument(cellSize > 0, "Cell size must be a positive value!");
+        Preconditions.checkArgument(maxCellsPerLine > 0, "Line must have at least one cell!");
+        Preconditions.checkNotNull(blinkRows, "Blink rows must be specified!");
+        Preconditions.checkArgument(maxCachedStates >= 0, "Count of cached states can't be negative!");
+        final List<BinaryClockRowPattern> clockRows = clockPattern.getClockRows();
+        this.cellSize = cellSize;
+        this.maxCellsPerLine = maxCellsPerLine;
+        pngCache = CacheBuilder.newBuilder().maximumSize(maxCachedStates).build();
+        cellsInRow = new int[clockRows.size()];
+        this.blinkRows = new boolean[clockRows.size()];
+        for (Integer blinkRow : blinkRows) {
+            Preconditions.checkArgument(blinkRow != null && blinkRow >= 0 && blinkRow < clockRows.size(),
+                    "Blink row must be a row of clock pattern!");
+            this.blinkRows[blinkRow] = true;
+        }
+        firstLines = new int[clockRows.size()];
+        long lines = 0;
+        int maxLineCells = 0;
+        for (int rowNumber = 0; rowNumber < clockRows.size(); rowNumber++) {
+            cellsInRow[rowNumber] = this.blinkRows[rowNumber] ? 1 : clockRows.get(rowNumber).getCellsInRow();
+            //noinspection NumericCastThatLosesPrecision
+            firstLines[rowNumber] = (int) lines;
+            lines += (cellsInRow[rowNumber] - 1) / maxCellsPerLine + 1;
+            maxLineCells = Math.max(maxLineCells, Math.min(cellsInRow[rowNumber], maxCellsPerLine));
+        }
+        //sprite has two lines of cells, image has all lines
+        Preconditions.checkArgument(Math.max(lines, 2) * cellSize * maxLineCells * cellSize <= Integer.MAX_VALUE,
+                "Image of clock pattern is too large!");
+        width = maxLineCells * cellSize;
+        //noinspection NumericCastThatLosesPrecision
+        height = (int) lines * cellSize;
+        sprites = new int[clockRows.size()][];
+        lightElements = new String[clockRows.size()];
+        darkElements = new String[clockRows.size()];
+        elementOffsets = new int[clockRows.size()][];
+        for (int rowNumber = 0; rowNumber < clockRows.size(); rowNumber++) {
+            sprites[rowNumber] = sprite(Math.min(cellsInRow[rowNumber], maxCellsPerLine));
+            prepareElements(rowNumber);
+        }
+        codec = new BinaryClockStateCodec(clockPattern);
+    }
+
+    /**
+     * Draws sprite of row: all cells of line lit followed by all cells of line unlit. Light cells
+     * form prefix of row, so each line of wrapped row is a window of the same sprite too.
+     *
+     * @param cells specified count of cells in a line
+     * @return pixels of sprite, {@code cellSize} scanlines of double count of cells
+     */
+    private int[] sprite(final int cells) {
+        final BufferedImage sprite = new BufferedImage(2 * cells * cellSize, cellSize, BufferedImage.TYPE_INT_ARGB);
+        final Graphics2D graphics = sprite.createGraphics();
+        try {
+            graphics.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+            final int gap = Math.max(1, cellSize / GAP_FRACTION);
+            final int side = Math.max(1, cellSize - 2 * gap);
+            for (int cellNumber = 0; cellNumber < 2 * cells; cellNumber++) {
+                graphics.setColor(cellNumber < cells ? LIGHT_COLOR : DARK_COLOR);
+                graphics.fillRoundRect(cellNumber * cellSize + gap, gap, side, side, gap, gap);
+            }
+        } finally {
+            graphics.dispose();
+        }
+        return ((DataBufferInt) sprite.getRaster().getDataBuffer()).getData();
+    }
+
+    /**
+     * Prepares SVG elements of row: text of all lit cells, text of all unlit cells and offset
+     * of element of each cell in both texts.
+     *
+     * @param rowNumber specified index of row
+     */
+    private void prepareElements(final int rowNumber) {
+        final int cells = cellsInRow[rowNumber];
+        final int[] offsets = new int[cells + 1];
+        final StringBuilder light = new StringBuilder(cells * SVG_CELL_LENGTH);
+        final StringBuilder dark = new StringBuilder(cells * SVG_CELL_LENGTH);
+        //elements of both colors have the same length, so offsets are shared
+        for (int cellNumber = 0; cellNumber < cells; cellNumber++) {
+            offsets[cellNumber] = light.length();
+            appendElement(light, rowNumber, cellNumber, LIGHT_FILL);
+            appendElement(dark, rowNumber, cellNumber, DARK_FILL);
+        }
+        offsets[cells] = light.length();
+        lightElements[rowNumber] = light.toString();
+        darkElements[rowNumber] = dark.toString();
+        elementOffsets[rowNumber] = offsets;
+    }
+
+    /**
+     * Appends SVG element of single cell.
+     *
+     * @param target     specified destination of text
+     * @param rowNumber  specified index of row
+     * @param cellNumber specified index of cell in row
+     * @param fill       specified color of cell
+     */
+    @SuppressWarnings("HardcodedLineSeparator")
+    private void appendElement(
+            final StringBuilder target,
+            final int rowNumber,
+            final int cellNumber,
+            final String fill) {
+        final int gap = Math.max(1, cellSize / GAP_FRACTION);
+        target.append("<rect x=\"").append(cellNumber % maxCellsPerLine * cellSize + gap)
+                .append("\" y=\"").append((firstLines[rowNumber] + cellNumber / maxCellsPerLine) * cellSize + gap)
+                .append("\" width=\"").append(Math.max(1, cellSize - 2 * gap))
+                .append("\" height=\"").append(Math.max(1, cellSize - 2 * gap))
+                .append("\" rx=\"").append(gap / 2.0)
+                .append("\" fill=\"").append(fill).append("\"/>\n");
+    }
+
+    /**
+     * Creates new image for rendering by this renderer.
+     *
+     * @return transparent image of size of clock
+     */
+    public BufferedImage newImage() {
+        return new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB);
+    }
+
+    /**
+     * Renders specified state of binary clock to specified image by copying windows of row sprites.
+     *
+     * @param lightCells specified light cells count of each row
+     * @param image      specified image created by {@code newImage}
+     * @return specified image
+     */
+    public BufferedImage render(final int[] lightCells, final BufferedImage image) {
+        Preconditions.checkArgument(lightCells.length == cellsInRow.length,
+                "Light cells array must have one element per clock row!");
+        Preconditions.checkArgument(image.getWidth() == width && image.getHeight() == height
+                        && image.getType() == BufferedImage.TYPE_INT_ARGB,
+                "Image was not created by this renderer!");
+        final int[] pixels = ((DataBufferInt) image.getRaster().getDataBuffer()).getData();
+        for (int rowNumber = 0; rowNumber < cellsInRow.length; rowNumber++) {
+            final int cells = cellsInRow[rowNumber];
+            final int lightCellCount = lightCellCount(lightCells, rowNumber);
+            final int[] sprite = sprites[rowNumber];
+            final int spriteCells = Math.min(cells, maxCellsPerLine);
+            final int spriteWidth = 2 * spriteCells * cellSize;
+            for (int lineStart = 0; lineStart < cells; lineStart += maxCellsPerLine) {
+                final int lineCells = Math.min(cells - lineStart, maxCellsPerLine);
+                final int lineLightCells = Math.min(Math.max(lightCellCount - lineStart, 0), lineCells);
+                //window of sprite that starts with required count of lit cells
+                final int windowStart = (spriteCells - lineLightCells) * cellSize;
+                final int lineTop = (firstLines[rowNumber] + lineStart / maxCellsPerLine) * cellSize;
+                for (int scanline = 0; scanline < cellSize; scanline++) {
+                    System.arraycopy(sprite, scanline * spriteWidth + windowStart,
+                            pixels, (lineTop + scanline) * width, lineCells * cellSize);
+                }
+            }
+        }
+        return image;
+    }
+
+    /**
+     * Returns PNG image of specified state of binary clock. Bytes are encoded once per distinct displayed
+     * state, while state stays among the most recently used ones.
+     *
+     * @param lightCells specified light cells count of each row
+     * @return PNG bytes, returned array is shared, so it must not be modified
+     */
+    public byte[] toPng(final int[] lightCells) {
+        final long[] words = new long[codec.getWordsPerState()];
+        //validates light cells count of each row
+        codec.encode(lightCells, words, 0);
+        //states that look the same (blink rows of the same parity) share cached image
+        final int[] displayedLightCells = new int[lightCells.length];
+        for (int rowNumber = 0; rowNumber < lightCells.length; rowNumber++) {
+            displayedLightCells[rowNumber] = lightCellCount(lightCells, rowNumber);
+        }
+        codec.encode(displayedLightCells, words, 0);
+        final StateKey key = new StateKey(words);
+        final byte[] cached = pngCache.getIfPresent(key);
+        if (ClockMetrics.ENABLED) {
+            CACHE_METRICS.record(cached != null);
+        }
+        if (cached != null) {
+            return cached;
+        }
+        //concurrent requests may encode the same state twice, but result is the same
+        final byte[] png = encodePng(render(displayedLightCells, newImage()));
+        pngCache.put(key, png);
+        return png;
+    }
+
+    /**
+     * Encodes specified image to PNG.
+     *
+     * @param image specified image
+     * @return PNG bytes
+     */
+    private static byte[] encodePng(final BufferedImage image) {
+        final ByteArrayOutputStream output = new ByteArrayOutputStream();
+        try {
+            Preconditions.checkState(ImageIO.write(image, "png", output), "PNG writer is not available!");
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return output.toByteArray();
+    }
+
+    /**
+     * Writes SVG image of specified state of binary clock to specified destination.
+     *
+     * @param lightCells specified light cells count of each row
+     * @param target     specified destination of text
+     * @param <A>        specified type of destination
+     * @return specified destination
+     */
+    @SuppressWarnings("HardcodedLineSeparator")
+    public <A extends Appendable> A formatSvgTo(final int[] lightCells, final A target) {
+        Preconditions.checkArgument(lightCells.length == cellsInRow.length,
+                "Light cells array must have one element per clock row!");
+        try {
+            target.append("<svg xmlns=\"http://www.w3.org/2000/svg\" width=\"").append(Integer.toString(width))
+                    .append("\" height=\"").append(Integer.toString(height)).append("\">\n");
+            for (int rowNumber = 0; rowNumber < cellsInRow.length; rowNumber++) {
+                final int[] offsets = elementOffsets[rowNumber];
+                final int split = offsets[lightCellCount(lightCells, rowNumber)];
+                target.append(lightElements[rowNumber], 0, split);
+                target.append(darkElements[rowNumber], split, offsets[offsets.length - 1]);
+            }
+            target.append("</svg>\n");
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return target;
+    }
+
+    /**
+     * Calculates count of lit cells of specified row, blink cell lights when count is odd.
+     *
+     * @param lightCells specified light cells count of each row
+     * @param rowNumber  specified index of row
+     * @return count of lit cells in image
+     */
+    private int lightCellCount(final int[] lightCells, final int rowNumber) {
+        return blinkRows[rowNumber]
+                ? lightCells[rowNumber] % 2
+                : Math.min(Math.max(lightCells[rowNumber], 0), cellsInRow[rowNumber]);
+    }
+
+    /**
+     * Visualizes specified rows of timed binary clock as SVG image.
+     *
+     * @param result specified rows of timed binary clock
+     * @return text of SVG image
+     */
+    @Override
+    public String apply(final List<BinaryClockRowRepresentation> result) {
+        Preconditions.checkArgument(result.size() == cellsInRow.length, "Clock pattern is not suitable for renderer");
+        final int[] lightCells = new int[result.size()];
+        int rowNumber = 0;
+        for (BinaryClockRowRepresentation row : result) {
+            lightCells[rowNumber++] = row.getLightCellsCount();
+        }
+        return formatSvgTo(lightCells, new StringBuilder()).toString();
+    }
+
+    /**
+     * Simple getter for width of image.
+     *
+     * @return width in pixels
+     */
+    public int getWidth() {
+        return width;
+    }
+
+    /**
+     * Simple getter for height of image.
+     *
+     * @return height in pixels
+     */
+    public int getHeight() {
+        return height;
+    }
+
+    /**
+     * Simple getter for count of states with cached PNG bytes.
+     *
+     * @return count of cached states
+     */
+    public int getCachedStateCount() {
+        //noinspection NumericCastThatLosesPrecision
+        return (int) pngCache.size();
+    }
+
+    /**
+     * A {@code StateKey} represents packed state of clock as key of cache.
+     */
+    private static final class StateKey {
+        private final long[] words;
+        private final int hash;
+
+        private StateKey(final long[] words) {
+            this.words = words;
+            hash = Arrays.hashCode(words);
+        }
+
+        @Override
+        public boolean equals(final Object obj) {
+            return this == obj || obj instanceof StateKey && Arrays.equals(words, ((StateKey) obj).words);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+}
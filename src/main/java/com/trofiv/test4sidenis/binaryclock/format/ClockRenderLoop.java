@@ -0,0 +1,221 @@
+package com.trofiv.test4sidenis.binaryclock.format;
+
+import com.google.common.base.Preconditions;
+import com.trofiv.test4sidenis.binaryclock.BinaryClockPattern;
+import com.trofiv.test4sidenis.binaryclock.CompiledBinaryClockPattern;
+import com.trofiv.test4sidenis.binaryclock.metrics.LatencyHistogram;
+
+import java.time.Clock;
+import java.time.LocalTime;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * A {@code ClockRenderLoop} evaluates and renders binary clock at fixed rate on dedicated thread, for patterns
+ * with sub-second rows. Frames are paced by {@code System.nanoTime}: loop parks until shortly before deadline
+ * of frame and spins the rest, deadlines follow fixed schedule, and frames that can not be rendered in time are
+ * skipped instead of being rendered in a burst. Time of clock is taken from wall clock once at start and then
+ * advanced by {@code System.nanoTime}, so rendering in steady state allocates nothing. Loop records frame time
+ * (evaluation, rendering and listener) and jitter (lateness of frame start against its deadline) histograms.
+ */
+public class ClockRenderLoop implements AutoCloseable {
+    private static final long NANOS_IN_DAY = TimeUnit.DAYS.toNanos(1);
+    private static final long SPIN_NANOS = TimeUnit.MICROSECONDS.toNanos(50);
+
+    private final CompiledBinaryClockPattern compiledPattern;
+    private final ClockFrameTemplate template;
+    private final ClockFrame frame;
+    private final int[] lightCells;
+    private final long periodNanos;
+    private final Clock wallClock;
+    private final FrameListener listener;
+    private final LatencyHistogram frameTimes = new LatencyHistogram("renderLoop:frameTime");
+    private final LatencyHistogram jitter = new LatencyHistogram("renderLoop:jitter");
+    private final Thread thread;
+    private volatile boolean running;
+    private volatile long frameCount;
+    private volatile long missedFrames;
+    private volatile RuntimeException failure;
+
+    /**
+     * Instantiates {@code ClockRenderLoop} object and validates all specified parameters.
+     * Loop does not run until it is started.
+     *
+     * @param clockPattern specified {@code BinaryClockPattern} pattern representing binary clock
+     * @param period       specified period of frames
+     * @param unit         specified unit of period
+     * @param wallClock    specified source of current time
+     * @param listener     specified receiver of rendered frames
+     */
+    public ClockRenderLoop(
+            final BinaryClockPattern clockPattern,
+            final long period,
+            final TimeUnit unit,
+            final Clock wallClock,
+            final FrameListener listener) {
+        Preconditions.checkNotNull(clockPattern, "Clock pattern must be specified!");
+        Preconditions.checkNotNull(unit, "Time unit must be specified!");
+        Preconditions.checkArgument(period > 0, "Period must be positive!");
+        Preconditions.checkNotNull(wallClock, "Wall clock must be specified!");
+        Preconditions.checkNotNull(listener, "Listener must be specified!");
+        compiledPattern = clockPattern.compile();
+        template = ClockFrameTemplate.of(clockPattern);
+        frame = template.newFrame();
+        lightCells = new int[compiledPattern.getRowCount()];
+        periodNanos = unit.toNanos(period);
+        this.wallClock = wallClock;
+        this.listener = listener;
+        thread = new Thread(this::run, "clock-render-loop");
+        thread.setDaemon(true);
+    }
+
+    /**
+     * Starts rendering thread.
+     */
+    public void start() {
+        Preconditions.checkState(thread.getState() == Thread.State.NEW, "Render loop is already started!");
+        running = true;
+        thread.start();
+    }
+
+    /**
+     * Renders frames until loop is stopped.
+     */
+    private void run() {
+        final long startNanoTime = System.nanoTime();
+        final long startNanoOfDay = LocalTime.now(wallClock).toNanoOfDay();
+        long deadline = startNanoTime;
+        try {
+            while (running && waitUntil(deadline)) {
+                final long frameStart = System.nanoTime();
+                jitter.record(frameStart - deadline);
+                final long nanoOfDay = (startNanoOfDay + frameStart - startNanoTime) % NANOS_IN_DAY;
+                template.render(compiledPattern.evaluate(nanoOfDay, lightCells), frame);
+                listener.onFrame(nanoOfDay, frame);
+                final long frameEnd = System.nanoTime();
+                frameTimes.record(frameEnd - frameStart);
+                //noinspection NonAtomicOperationOnVolatileField
+                frameCount++;
+                deadline += periodNanos;
+                if (frameEnd - deadline > 0) {
+                    //deadlines already passed are skipped, schedule stays aligned to start
+                    final long missed = (frameEnd - deadline) / periodNanos + 1;
+                    //noinspection NonAtomicOperationOnVolatileField
+                    missedFrames += missed;
+                    deadline += missed * periodNanos;
+                }
+            }
+        } catch (RuntimeException e) {
+            failure = e;
+        }
+    }
+
+    /**
+     * Waits until specified deadline: parks while it is far and spins when it is near.
+     *
+     * @param deadline specified deadline by {@code System.nanoTime}
+     * @return {@code false} if loop was stopped while waiting
+     */
+    private boolean waitUntil(final long deadline) {
+        long remaining = deadline - System.nanoTime();
+        while (remaining > SPIN_NANOS) {
+            LockSupport.parkNanos(remaining - SPIN_NANOS);
+            if (!running) {
+                return false;
+            }
+            remaining = deadline - System.nanoTime();
+        }
+        while (deadline - System.nanoTime() > 0) {
+            //spinning, park is too coarse for the rest of wait
+        }
+        return true;
+    }
+
+    /**
+     * Stops rendering thread and waits for it.
+     *
+     * @throws InterruptedException if interrupted while waiting
+     */
+    public void stop() throws InterruptedException {
+        running = false;
+        LockSupport.unpark(thread);
+        if (thread.getState() != Thread.State.NEW) {
+            thread.join();
+        }
+        final RuntimeException loopFailure = failure;
+        if (loopFailure != null) {
+            throw new IllegalStateException("Render loop failed!", loopFailure);
+        }
+    }
+
+    /**
+     * Stops rendering thread.
+     */
+    @Override
+    public void close() {
+        try {
+            stop();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Simple getter for period of frames.
+     *
+     * @return period in nanoseconds
+     */
+    public long getPeriodNanos() {
+        return periodNanos;
+    }
+
+    /**
+     * Simple getter for count of rendered frames.
+     *
+     * @return count of frames
+     */
+    public long getFrameCount() {
+        return frameCount;
+    }
+
+    /**
+     * Simple getter for count of frames skipped because previous frame finished after their deadline.
+     *
+     * @return count of skipped frames
+     */
+    public long getMissedFrames() {
+        return missedFrames;
+    }
+
+    /**
+     * Simple getter for histogram of frame times.
+     *
+     * @return histogram of time from frame start to return of listener
+     */
+    public LatencyHistogram getFrameTimes() {
+        return frameTimes;
+    }
+
+    /**
+     * Simple getter for histogram of jitter.
+     *
+     * @return histogram of lateness of frame start against its deadline
+     */
+    public LatencyHistogram getJitter() {
+        return jitter;
+    }
+
+    /**
+     * A {@code FrameListener} receives rendered frames on rendering thread.
+     */
+    @FunctionalInterface
+    public interface FrameListener {
+        /**
+         * Receives rendered frame.
+         *
+         * @param nanoOfDay time of frame as nanoseconds from start of day
+         * @param frame     rendered frame, reused by next frames and must not be kept by listener
+         */
+        void onFrame(long nanoOfDay, ClockFrame frame);
+    }
+}
@@ -0,0 +1,144 @@
+package com.trofiv.test4sidenis.binaryclock.format;
+
+import com.google.common.base.Preconditions;
+import com.trofiv.test4sidenis.binaryclock.BinaryClockPattern;
+import com.trofiv.test4sidenis.binaryclock.BinaryClockRowPattern;
+import com.trofiv.test4sidenis.binaryclock.BinaryClockRowRepresentation;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Function;
+
+/**
+ * A {@code GridClockFormatter} visualizes time of any {@code BinaryClockPattern} as table of cells,
+ * one row of pattern per line, in the same style as {@code ClockFormatter.BERLIN_CLOCK_FORMATTER}.
+ * "[ ]" means cell does not light, "[X]" means cell lights. Wide rows are wrapped to several lines,
+ * and any row can be rendered as single blink cell that lights when light cells count of row is odd.
+ * Glyphs of each row are cached once as strip of all lit cells followed by all unlit cells, so row
+ * with any light cells count is a window of the strip and is appended without per-cell work.
+ */
+public class GridClockFormatter implements Function<List<BinaryClockRowRepresentation>, String> {
+    private static final String LIGHT_CELL = "[X]";
+    private static final String DARK_CELL = "[ ]";
+    private static final int CELL_LENGTH = LIGHT_CELL.length();
+
+    private final int[] cellsInRow;
+    private final String[] rowStrips;
+    private final boolean[] blinkRows;
+    private final int maxCellsPerLine;
+    private final int expectedLength;
+
+    /**
+     * Instantiates {@code GridClockFormatter} object without wrapping and blink rows.
+     *
+     * @param clockPattern specified pattern of binary clock
+     */
+    public GridClockFormatter(final BinaryClockPattern clockPattern) {
+        this(clockPattern, Integer.MAX_VALUE, Collections.emptySet());
+    }
+
+    /**
+     * Instantiates {@code GridClockFormatter} object and validates all specified parameters.
+     *
+     * @param clockPattern    specified pattern of binary clock
+     * @param maxCellsPerLine specified maximal count of cells in a line, wider rows are wrapped
+     * @param blinkRows       specified indexes of rows rendered as single blink cell
+     */
+    public GridClockFormatter(
+            final BinaryClockPattern clockPattern,
+            final int maxCellsPerLine,
+            final Set<Integer> blinkRows) {
+        Preconditions.checkNotNull(clockPattern, "Clock pattern must be specified!");
+        Preconditions.checkArgument(maxCellsPerLine > 0, "Line must have at least one cell!");
+        Preconditions.checkNotNull(blinkRows, "Blink rows must be specified!");
+        final List<BinaryClockRowPattern> clockRows = clockPattern.getClockRows();
+        cellsInRow = new int[clockRows.size()];
+        rowStrips = new String[clockRows.size()];
+        this.blinkRows = new boolean[clockRows.size()];
+        for (Integer blinkRow : blinkRows) {
+            Preconditions.checkArgument(blinkRow != null && blinkRow >= 0 && blinkRow < clockRows.size(),
+                    "Blink row must be a row of clock pattern!");
+            this.blinkRows[blinkRow] = true;
+        }
+        long length = 0;
+        for (int rowNumber = 0; rowNumber < clockRows.size(); rowNumber++) {
+            cellsInRow[rowNumber] = this.blinkRows[rowNumber] ? 1 : clockRows.get(rowNumber).getCellsInRow();
+            rowStrips[rowNumber] = strip(cellsInRow[rowNumber]);
+            final int lines = (cellsInRow[rowNumber] + maxCellsPerLine - 1) / maxCellsPerLine;
+            length += (long) cellsInRow[rowNumber] * CELL_LENGTH + lines;
+        }
+        this.maxCellsPerLine = maxCellsPerLine;
+        //noinspection NumericCastThatLosesPrecision
+        expectedLength = (int) Math.min(length, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Builds glyph strip of row: all cells lit followed by all cells unlit.
+     *
+     * @param cells specified count of cells in a row
+     * @return strip with double count of cells
+     */
+    private static String strip(final int cells) {
+        final StringBuilder strip = new StringBuilder(2 * cells * CELL_LENGTH);
+        for (int cellNumber = 0; cellNumber < cells; cellNumber++) {
+            strip.append(LIGHT_CELL);
+        }
+        for (int cellNumber = 0; cellNumber < cells; cellNumber++) {
+            strip.append(DARK_CELL);
+        }
+        return strip.toString();
+    }
+
+    /**
+     * Writes grid for specified state of binary clock to specified destination.
+     *
+     * @param lightCells specified light cells count of each row
+     * @param target     specified destination of text
+     * @param <A>        specified type of destination
+     * @return specified destination
+     */
+    @SuppressWarnings("HardcodedLineSeparator")
+    public <A extends Appendable> A formatTo(final int[] lightCells, final A target) {
+        Preconditions.checkArgument(lightCells.length == cellsInRow.length,
+                "Light cells array must have one element per clock row!");
+        try {
+            for (int rowNumber = 0; rowNumber < cellsInRow.length; rowNumber++) {
+                final int cells = cellsInRow[rowNumber];
+                final int lightCellCount = blinkRows[rowNumber]
+                        ? lightCells[rowNumber] % 2
+                        : Math.min(lightCells[rowNumber], cells);
+                //window of strip that starts with required count of lit cells
+                final int windowStart = (cells - lightCellCount) * CELL_LENGTH;
+                for (int lineStart = 0; lineStart < cells; lineStart += maxCellsPerLine) {
+                    final int lineEnd = Math.min(cells, lineStart + maxCellsPerLine);
+                    target.append(rowStrips[rowNumber],
+                            windowStart + lineStart * CELL_LENGTH, windowStart + lineEnd * CELL_LENGTH);
+                    target.append('\n');
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return target;
+    }
+
+    /**
+     * Visualizes specified rows of timed binary clock as table of cells.
+     *
+     * @param result specified rows of timed binary clock
+     * @return text of grid
+     */
+    @Override
+    public String apply(final List<BinaryClockRowRepresentation> result) {
+        Preconditions.checkArgument(result.size() == cellsInRow.length, "Clock pattern is not suitable for formatter");
+        final int[] lightCells = new int[result.size()];
+        int rowNumber = 0;
+        for (BinaryClockRowRepresentation row : result) {
+            lightCells[rowNumber++] = row.getLightCellsCount();
+        }
+        return formatTo(lightCells, new StringBuilder(expectedLength)).toString();
+    }
+}
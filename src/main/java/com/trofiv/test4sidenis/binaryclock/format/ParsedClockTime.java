@@ -0,0 +1,50 @@
+package com.trofiv.test4sidenis.binaryclock.format;
+
+import java.time.LocalTime;
+
+/**
+ * A {@code ParsedClockTime} represents range of time encoded by parsed binary clock frame:
+ * exact lower bound and width of range, that is duration of most precision rendered cell.
+ */
+public class ParsedClockTime {
+    private final long lowerBoundNanos;
+    private final long uncertaintyNanos;
+
+    /**
+     * Instantiates {@code ParsedClockTime} object.
+     *
+     * @param lowerBoundNanos  specified lower bound of time as nanoseconds from start of day
+     * @param uncertaintyNanos specified width of time range in nanoseconds
+     */
+    ParsedClockTime(final long lowerBoundNanos, final long uncertaintyNanos) {
+        this.lowerBoundNanos = lowerBoundNanos;
+        this.uncertaintyNanos = uncertaintyNanos;
+    }
+
+    /**
+     * Simple getter for lower bound of time range.
+     *
+     * @return minimal time that is represented by parsed frame
+     */
+    public LocalTime getLowerBound() {
+        return LocalTime.ofNanoOfDay(lowerBoundNanos);
+    }
+
+    /**
+     * Simple getter for lower bound of time range in nanoseconds.
+     *
+     * @return minimal time that is represented by parsed frame, as nanoseconds from start of day
+     */
+    public long getLowerBoundNanos() {
+        return lowerBoundNanos;
+    }
+
+    /**
+     * Simple getter for width of time range.
+     *
+     * @return duration in nanoseconds, time represented by frame is less than lower bound plus this duration
+     */
+    public long getUncertaintyNanos() {
+        return uncertaintyNanos;
+    }
+}
@@ -0,0 +1,83 @@
+package com.trofiv.test4sidenis.binaryclock.metrics;
+
+import com.google.common.base.Preconditions;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A {@code CacheMetrics} counts hits and misses of single cache.
+ */
+public class CacheMetrics {
+    private final String name;
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    /**
+     * Instantiates {@code CacheMetrics} object and validates all specified parameters.
+     *
+     * @param name specified name of cache
+     */
+    public CacheMetrics(final String name) {
+        Preconditions.checkNotNull(name, "Cache name must be specified!");
+        this.name = name;
+    }
+
+    /**
+     * Counts single lookup.
+     *
+     * @param hit specified result of lookup, {@code true} if value was found in cache
+     */
+    public void record(final boolean hit) {
+        if (hit) {
+            hits.increment();
+        } else {
+            misses.increment();
+        }
+    }
+
+    /**
+     * Simple getter for count of hits.
+     *
+     * @return count of lookups that found value in cache
+     */
+    public long getHits() {
+        return hits.sum();
+    }
+
+    /**
+     * Simple getter for count of misses.
+     *
+     * @return count of lookups that did not find value in cache
+     */
+    public long getMisses() {
+        return misses.sum();
+    }
+
+    /**
+     * Calculates ratio of hits to all lookups.
+     *
+     * @return hit ratio from 0 to 1, or zero if there were no lookups
+     */
+    public double getHitRatio() {
+        final long hitCount = hits.sum();
+        final long total = hitCount + misses.sum();
+        return total == 0 ? 0.0 : hitCount / (double) total;
+    }
+
+    /**
+     * Clears counters.
+     */
+    public void reset() {
+        hits.reset();
+        misses.reset();
+    }
+
+    /**
+     * Simple getter for name of cache.
+     *
+     * @return name of cache
+     */
+    public String getName() {
+        return name;
+    }
+}
@@ -0,0 +1,226 @@
+package com.trofiv.test4sidenis.binaryclock.metrics;
+
+import com.google.common.base.Preconditions;
+
+import javax.management.InstanceAlreadyExistsException;
+import javax.management.JMException;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.ToDoubleFunction;
+import java.util.function.ToLongFunction;
+
+/**
+ * A {@code ClockMetrics} class collects optional metrics of binary clocks: latency histograms of clock
+ * evaluation (per clock pattern fingerprint, for limited count of patterns) and of formatting (per formatter
+ * class), and hit ratios of caches.
+ * Instrumentation is enabled by "binaryclock.metrics.enabled" system property at startup. Instrumented
+ * code checks {@link #ENABLED} constant, so when metrics are disabled JIT removes instrumentation entirely.
+ * When enabled, metrics are registered as MXBean "com.trofiv.test4sidenis:type=ClockMetrics".
+ */
+public final class ClockMetrics {
+    /**
+     * System property that enables metrics.
+     */
+    public static final String ENABLED_PROPERTY = "binaryclock.metrics.enabled";
+    /**
+     * Whether metrics are collected, constant for lifetime of JVM.
+     */
+    public static final boolean ENABLED = Boolean.getBoolean(ENABLED_PROPERTY);
+    /**
+     * Name of metrics MXBean.
+     */
+    public static final String OBJECT_NAME = "com.trofiv.test4sidenis:type=ClockMetrics";
+
+    private static final String EVALUATION_PREFIX = "evaluation:";
+    private static final int MAX_EVALUATION_HISTOGRAMS = 64;
+    private static final double P50 = 50.0;
+    private static final double P99 = 99.0;
+    private static final ConcurrentMap<String, LatencyHistogram> HISTOGRAMS = new ConcurrentSkipListMap<>();
+    private static final ConcurrentMap<String, CacheMetrics> CACHES = new ConcurrentSkipListMap<>();
+    private static final AtomicInteger EVALUATION_HISTOGRAM_COUNT = new AtomicInteger();
+    //class value gives allocation-free lookup of histogram by class of formatter
+    private static final ClassValue<LatencyHistogram> FORMATTING_HISTOGRAMS = new ClassValue<LatencyHistogram>() {
+        @Override
+        protected LatencyHistogram computeValue(final Class<?> type) {
+            return histogram("formatting:" + type.getName());
+        }
+    };
+
+    static {
+        if (ENABLED) {
+            registerMBean();
+        }
+    }
+
+    private ClockMetrics() {
+    }
+
+    /**
+     * Finds or creates histogram of evaluation of clocks with pattern of specified fingerprint. Clocks keep
+     * the histogram, so evaluation is recorded without lookup. Registry never forgets histograms, so patterns
+     * beyond limit share single "evaluation:other" histogram.
+     *
+     * @param patternFingerprint specified fingerprint of clock pattern
+     * @return shared histogram
+     */
+    public static LatencyHistogram evaluationHistogram(final long patternFingerprint) {
+        final String name = EVALUATION_PREFIX + String.format(Locale.ROOT, "%016x", patternFingerprint);
+        final LatencyHistogram existing = HISTOGRAMS.get(name);
+        if (existing != null) {
+            return existing;
+        }
+        //limit may be exceeded by concurrent registrations slightly, it only stops unbounded growth
+        if (EVALUATION_HISTOGRAM_COUNT.get() >= MAX_EVALUATION_HISTOGRAMS) {
+            return histogram(EVALUATION_PREFIX + "other");
+        }
+        return HISTOGRAMS.computeIfAbsent(name, key -> {
+            EVALUATION_HISTOGRAM_COUNT.incrementAndGet();
+            return new LatencyHistogram(key);
+        });
+    }
+
+    /**
+     * Records latency of formatting.
+     *
+     * @param formatterType specified class of formatter
+     * @param nanos         specified latency in nanoseconds
+     */
+    public static void recordFormatting(final Class<?> formatterType, final long nanos) {
+        FORMATTING_HISTOGRAMS.get(formatterType).record(nanos);
+    }
+
+    /**
+     * Finds or creates histogram with specified name.
+     *
+     * @param name specified name of measured operation
+     * @return shared histogram
+     */
+    public static LatencyHistogram histogram(final String name) {
+        Preconditions.checkNotNull(name, "Histogram name must be specified!");
+        return HISTOGRAMS.computeIfAbsent(name, LatencyHistogram::new);
+    }
+
+    /**
+     * Finds or creates counters of cache with specified name.
+     *
+     * @param name specified name of cache
+     * @return shared cache counters
+     */
+    public static CacheMetrics cache(final String name) {
+        Preconditions.checkNotNull(name, "Cache name must be specified!");
+        return CACHES.computeIfAbsent(name, CacheMetrics::new);
+    }
+
+    /**
+     * Formats text snapshot of all metrics, one line per histogram and cache.
+     *
+     * @return text table of metrics
+     */
+    public static String dump() {
+        final StringBuilder text = new StringBuilder();
+        text.append(String.format(Locale.ROOT, "%-60s %12s %10s %10s %10s %10s%n", "operation", "count",
+                "mean ns", "p50 ns", "p99 ns", "max ns"));
+        for (LatencyHistogram histogram : HISTOGRAMS.values()) {
+            text.append(String.format(Locale.ROOT, "%-60s %12d %10d %10d %10d %10d%n", histogram.getName(),
+                    histogram.getCount(), histogram.getMeanNanos(), histogram.getPercentileNanos(P50),
+                    histogram.getPercentileNanos(P99), histogram.getMaxNanos()));
+        }
+        text.append(String.format(Locale.ROOT, "%-60s %12s %10s %10s%n", "cache", "hits", "misses", "hit ratio"));
+        for (CacheMetrics cache : CACHES.values()) {
+            text.append(String.format(Locale.ROOT, "%-60s %12d %10d %10.4f%n", cache.getName(), cache.getHits(),
+                    cache.getMisses(), cache.getHitRatio()));
+        }
+        return text.toString();
+    }
+
+    /**
+     * Clears all metrics.
+     */
+    public static void reset() {
+        HISTOGRAMS.values().forEach(LatencyHistogram::reset);
+        CACHES.values().forEach(CacheMetrics::reset);
+    }
+
+    /**
+     * Registers metrics MXBean in platform MBean server, if it is not registered yet.
+     */
+    public static void registerMBean() {
+        try {
+            ManagementFactory.getPlatformMBeanServer().registerMBean(new MetricsBean(), new ObjectName(OBJECT_NAME));
+        } catch (InstanceAlreadyExistsException ignored) {
+            //already registered
+        } catch (JMException e) {
+            throw new IllegalStateException("Clock metrics can not be registered!", e);
+        }
+    }
+
+    /**
+     * Collects long metric of each histogram.
+     *
+     * @param metric specified metric of histogram
+     * @return values by histogram name
+     */
+    private static Map<String, Long> collectHistograms(final ToLongFunction<LatencyHistogram> metric) {
+        final Map<String, Long> values = new TreeMap<>();
+        HISTOGRAMS.forEach((name, histogram) -> values.put(name, metric.applyAsLong(histogram)));
+        return values;
+    }
+
+    /**
+     * Collects double metric of each cache.
+     *
+     * @param metric specified metric of cache
+     * @return values by cache name
+     */
+    private static Map<String, Double> collectCaches(final ToDoubleFunction<CacheMetrics> metric) {
+        final Map<String, Double> values = new TreeMap<>();
+        CACHES.forEach((name, cache) -> values.put(name, metric.applyAsDouble(cache)));
+        return values;
+    }
+
+    /**
+     * A {@code MetricsBean} is MXBean view of metrics.
+     */
+    private static final class MetricsBean implements ClockMetricsMXBean {
+        @Override
+        public boolean isEnabled() {
+            return ENABLED;
+        }
+
+        @Override
+        public Map<String, Long> getCallCounts() {
+            return collectHistograms(LatencyHistogram::getCount);
+        }
+
+        @Override
+        public Map<String, Long> getMeanLatencyNanos() {
+            return collectHistograms(LatencyHistogram::getMeanNanos);
+        }
+
+        @Override
+        public Map<String, Long> getP99LatencyNanos() {
+            return collectHistograms(histogram -> histogram.getPercentileNanos(P99));
+        }
+
+        @Override
+        public Map<String, Double> getCacheHitRatios() {
+            return collectCaches(CacheMetrics::getHitRatio);
+        }
+
+        @Override
+        public String dump() {
+            return ClockMetrics.dump();
+        }
+
+        @Override
+        public void reset() {
+            ClockMetrics.reset();
+        }
+    }
+}
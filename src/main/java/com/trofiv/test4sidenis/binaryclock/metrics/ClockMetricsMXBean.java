@@ -0,0 +1,56 @@
+package com.trofiv.test4sidenis.binaryclock.metrics;
+
+import java.util.Map;
+
+/**
+ * A {@code ClockMetricsMXBean} exposes {@code ClockMetrics} via JMX. Keys of maps are names
+ * of histograms and caches, like "evaluation:" followed by hexadecimal fingerprint of clock pattern.
+ */
+public interface ClockMetricsMXBean {
+    /**
+     * Checks whether instrumentation is enabled.
+     *
+     * @return {@code true} if metrics are collected
+     */
+    boolean isEnabled();
+
+    /**
+     * Collects count of calls of each measured operation.
+     *
+     * @return count of calls by histogram name
+     */
+    Map<String, Long> getCallCounts();
+
+    /**
+     * Collects mean latency of each measured operation.
+     *
+     * @return mean latency in nanoseconds by histogram name
+     */
+    Map<String, Long> getMeanLatencyNanos();
+
+    /**
+     * Collects 99th percentile of latency of each measured operation.
+     *
+     * @return 99th percentile of latency in nanoseconds by histogram name
+     */
+    Map<String, Long> getP99LatencyNanos();
+
+    /**
+     * Collects hit ratio of each cache.
+     *
+     * @return hit ratio from 0 to 1 by cache name
+     */
+    Map<String, Double> getCacheHitRatios();
+
+    /**
+     * Formats text snapshot of all metrics.
+     *
+     * @return text table of metrics
+     */
+    String dump();
+
+    /**
+     * Clears all metrics.
+     */
+    void reset();
+}
@@ -0,0 +1,165 @@
+package com.trofiv.test4sidenis.binaryclock.metrics;
+
+import com.google.common.base.Preconditions;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A {@code LatencyHistogram} counts latencies in nanoseconds in logarithmic buckets: each power of two
+ * is split to four sub-buckets, so relative error of percentiles is at most 25%. Recording is lock-free
+ * and allocates nothing (counters are {@code LongAdder}, that allocate cells only under contention).
+ */
+public class LatencyHistogram {
+    private static final int SUB_BUCKET_BITS = 2;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    private static final int BUCKET_COUNT = (Long.SIZE - SUB_BUCKET_BITS + 1) * SUB_BUCKETS;
+
+    private final String name;
+    private final LongAdder[] buckets = new LongAdder[BUCKET_COUNT];
+    private final LongAdder totalNanos = new LongAdder();
+    private final AtomicLong maxNanos = new AtomicLong();
+
+    /**
+     * Instantiates {@code LatencyHistogram} object and validates all specified parameters.
+     *
+     * @param name specified name of measured operation
+     */
+    public LatencyHistogram(final String name) {
+        Preconditions.checkNotNull(name, "Histogram name must be specified!");
+        this.name = name;
+        for (int bucket = 0; bucket < BUCKET_COUNT; bucket++) {
+            //noinspection ObjectAllocationInLoop
+            buckets[bucket] = new LongAdder();
+        }
+    }
+
+    /**
+     * Calculates index of bucket for specified latency.
+     *
+     * @param nanos specified latency, not negative
+     * @return index of bucket
+     */
+    static int bucketOf(final long nanos) {
+        if (nanos < SUB_BUCKETS) {
+            //noinspection NumericCastThatLosesPrecision
+            return (int) nanos;
+        }
+        final int exponent = Long.SIZE - 1 - Long.numberOfLeadingZeros(nanos);
+        //noinspection NumericCastThatLosesPrecision
+        final int subBucket = (int) (nanos >>> (exponent - SUB_BUCKET_BITS)) & (SUB_BUCKETS - 1);
+        return ((exponent - SUB_BUCKET_BITS + 1) << SUB_BUCKET_BITS) | subBucket;
+    }
+
+    /**
+     * Calculates the greatest latency counted by specified bucket.
+     *
+     * @param bucket specified index of bucket
+     * @return inclusive upper bound of bucket in nanoseconds
+     */
+    static long upperBoundOf(final int bucket) {
+        if (bucket < SUB_BUCKETS) {
+            return bucket;
+        }
+        final int exponent = (bucket >>> SUB_BUCKET_BITS) + SUB_BUCKET_BITS - 1;
+        final long subBucket = bucket & (SUB_BUCKETS - 1);
+        final long upperBound = ((SUB_BUCKETS + subBucket + 1) << (exponent - SUB_BUCKET_BITS)) - 1;
+        return upperBound < 0 ? Long.MAX_VALUE : upperBound;
+    }
+
+    /**
+     * Records single latency. Negative latency (possible for non-monotonic time source) is counted as zero.
+     *
+     * @param nanos specified latency in nanoseconds
+     */
+    public void record(final long nanos) {
+        final long latency = Math.max(0L, nanos);
+        buckets[bucketOf(latency)].increment();
+        totalNanos.add(latency);
+        //maximum changes rarely, so shared counter is written only when it grows
+        long max = maxNanos.get();
+        while (latency > max && !maxNanos.compareAndSet(max, latency)) {
+            max = maxNanos.get();
+        }
+    }
+
+    /**
+     * Calculates count of recorded latencies.
+     *
+     * @return count of recorded latencies
+     */
+    public long getCount() {
+        long count = 0;
+        for (LongAdder bucket : buckets) {
+            count += bucket.sum();
+        }
+        return count;
+    }
+
+    /**
+     * Calculates mean of recorded latencies.
+     *
+     * @return mean latency in nanoseconds, or zero if nothing was recorded
+     */
+    public long getMeanNanos() {
+        final long count = getCount();
+        return count == 0 ? 0L : totalNanos.sum() / count;
+    }
+
+    /**
+     * Estimates specified percentile of recorded latencies as upper bound of bucket containing it.
+     *
+     * @param percentile specified percentile, from 0 to 100
+     * @return estimated latency in nanoseconds, or zero if nothing was recorded
+     */
+    public long getPercentileNanos(final double percentile) {
+        Preconditions.checkArgument(percentile >= 0.0 && percentile <= 100.0, "Percentile must be within 0..100!");
+        final long[] counts = new long[BUCKET_COUNT];
+        long count = 0;
+        for (int bucket = 0; bucket < BUCKET_COUNT; bucket++) {
+            counts[bucket] = buckets[bucket].sum();
+            count += counts[bucket];
+        }
+        if (count == 0) {
+            return 0L;
+        }
+        final long rank = Math.max(1L, (long) Math.ceil(percentile / 100.0 * count));
+        long cumulative = 0;
+        for (int bucket = 0; bucket < BUCKET_COUNT; bucket++) {
+            cumulative += counts[bucket];
+            if (cumulative >= rank) {
+                return Math.min(upperBoundOf(bucket), getMaxNanos());
+            }
+        }
+        return getMaxNanos();
+    }
+
+    /**
+     * Simple getter for the greatest recorded latency.
+     *
+     * @return the greatest latency in nanoseconds
+     */
+    public long getMaxNanos() {
+        return maxNanos.get();
+    }
+
+    /**
+     * Clears all recorded latencies. Latencies recorded concurrently with reset may be partially lost.
+     */
+    public void reset() {
+        for (LongAdder bucket : buckets) {
+            bucket.reset();
+        }
+        totalNanos.reset();
+        maxNanos.set(0L);
+    }
+
+    /**
+     * Simple getter for name of measured operation.
+     *
+     * @return name of histogram
+     */
+    public String getName() {
+        return name;
+    }
+}
@@ -0,0 +1,518 @@
+package com.trofiv.test4sidenis.pipeline;
+
+import com.google.common.base.Preconditions;
+import com.google.common.util.concurrent.Uninterruptibles;
+import com.trofiv.test4sidenis.binaryclock.BerlinBinaryClock;
+import com.trofiv.test4sidenis.binaryclock.GenericBinaryClock;
+import com.trofiv.test4sidenis.binaryclock.ZoneOffsetCache;
+import com.trofiv.test4sidenis.binaryclock.format.ClockFrame;
+import com.trofiv.test4sidenis.binaryclock.format.ClockFrameTemplate;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedByInterruptException;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.time.DateTimeException;
+import java.time.Instant;
+import java.time.LocalTime;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.time.temporal.ChronoField;
+import java.time.temporal.TemporalAccessor;
+import java.util.Arrays;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * A {@code TimestampConversionPipeline} converts text stream of timestamps, one per line, to binary clock
+ * representations. Work is split to three stages connected with bounded queues, so reading, conversion
+ * and writing overlap: reader thread scans input bytes and parses timestamps in chunks, converter thread
+ * converts chunks and renders them to byte buffers, and calling thread writes buffers to output. Failure of
+ * stage is passed downstream as marker chunk, so calling thread is never interrupted by pipeline and its
+ * output channel stays open.
+ * Timestamp may be local time ("HH:mm", "HH:mm:ss", "HH:mm:ss.fffffffff"), ISO date-time with or without
+ * offset ("2016-07-14T12:34:56Z"), or epoch seconds with optional fraction ("1468499696.5").
+ * Instants are converted to local time of specified zone. Empty lines are skipped.
+ */
+public class TimestampConversionPipeline {
+    private static final int READ_BUFFER_SIZE = 1 << 20;
+    private static final int CHUNK_SIZE = 8192;
+    private static final int QUEUE_CAPACITY = 8;
+    private static final long[] END_OF_INPUT = new long[0];
+    private static final long[] FAILED_INPUT = new long[0];
+    private static final ByteBuffer END_OF_OUTPUT = ByteBuffer.allocate(0);
+    private static final ByteBuffer FAILED_OUTPUT = ByteBuffer.allocate(0);
+    private static final int MAX_COUNT_DIGITS = 10;
+    private static final long NANOS_IN_SECOND = TimeUnit.SECONDS.toNanos(1);
+    private static final int MAX_FRACTION_DIGITS = 9;
+
+    private final GenericBinaryClock clock;
+    private final ZoneId zone;
+    private final OutputFormat outputFormat;
+    private final ZoneOffsetCache offsetCache = new ZoneOffsetCache();
+    private final BlockingQueue<long[]> parsedChunks = new ArrayBlockingQueue<>(QUEUE_CAPACITY);
+    private final BlockingQueue<ByteBuffer> renderedChunks = new ArrayBlockingQueue<>(QUEUE_CAPACITY);
+    private final AtomicReference<Throwable> failure = new AtomicReference<>();
+    private long lineCount;
+    private long elapsedNanos;
+
+    /**
+     * Instantiates {@code TimestampConversionPipeline} object and validates all specified parameters.
+     *
+     * @param clock        specified binary clock
+     * @param zone         specified time zone for conversion of instants to local time
+     * @param outputFormat specified format of output
+     */
+    public TimestampConversionPipeline(final GenericBinaryClock clock, final ZoneId zone,
+                                       final OutputFormat outputFormat) {
+        Preconditions.checkNotNull(clock, "Clock must be specified!");
+        Preconditions.checkNotNull(zone, "Time zone must be specified!");
+        Preconditions.checkNotNull(outputFormat, "Output format must be specified!");
+        Preconditions.checkArgument(outputFormat != OutputFormat.BERLIN_GRID
+                        || BerlinBinaryClock.BERLIN_CLOCK_PATTERN.equals(clock.getClockPattern()),
+                "Clock pattern is not suitable for Berlin clock");
+        this.clock = clock;
+        this.zone = zone;
+        this.outputFormat = outputFormat;
+    }
+
+    /**
+     * Converts all timestamps of specified input and writes representations to specified output.
+     * Pipeline can be run only once.
+     *
+     * @param input  specified channel of timestamps
+     * @param output specified channel for representations
+     * @return count of converted timestamps
+     * @throws IOException          if input can not be read or output can not be written
+     * @throws InterruptedException if calling thread is interrupted
+     */
+    public long run(final ReadableByteChannel input, final WritableByteChannel output)
+            throws IOException, InterruptedException {
+        Preconditions.checkNotNull(input, "Input must be specified!");
+        Preconditions.checkNotNull(output, "Output must be specified!");
+        Preconditions.checkState(elapsedNanos == 0, "Pipeline was already run!");
+        final long start = System.nanoTime();
+        final Thread reader = new Thread(() -> runStage(() -> read(input), parsedChunks, FAILED_INPUT),
+                "timestamp-reader");
+        final Thread converter = new Thread(() -> runStage(this::convert, renderedChunks, FAILED_OUTPUT),
+                "timestamp-converter");
+        reader.start();
+        converter.start();
+        try {
+            write(output);
+        } catch (IOException | InterruptedException | RuntimeException | Error e) {
+            //stages may be blocked on full queues, so they are interrupted to stop
+            reader.interrupt();
+            converter.interrupt();
+            rethrowFailure();
+            throw e;
+        } finally {
+            //stages stop soon after failure or interruption, and waiting for them must not replace the failure
+            Uninterruptibles.joinUninterruptibly(reader);
+            Uninterruptibles.joinUninterruptibly(converter);
+            elapsedNanos = Math.max(1L, System.nanoTime() - start);
+        }
+        return lineCount;
+    }
+
+    /**
+     * Runs stage of pipeline and records its failure. Failure marker is put to downstream queue, because
+     * next stage may wait for next chunk forever.
+     *
+     * @param stage      specified stage
+     * @param downstream specified queue of chunks produced by stage
+     * @param failed     specified marker of failed stage
+     * @param <T>        specified type of chunk
+     */
+    private <T> void runStage(final Stage stage, final BlockingQueue<T> downstream, final T failed) {
+        try {
+            stage.run();
+        } catch (InterruptedException | ClosedByInterruptException ignored) {
+            //pipeline is stopped by failure of another stage
+        } catch (Throwable e) {
+            //errors are recorded as well, otherwise calling thread waits for output that never comes
+            failure.compareAndSet(null, e);
+            try {
+                downstream.put(failed);
+            } catch (InterruptedException ignored) {
+                //pipeline is stopped by calling thread
+            }
+        }
+    }
+
+    /**
+     * Rethrows recorded failure of stage, if any.
+     *
+     * @throws IOException if stage failed to read input
+     */
+    private void rethrowFailure() throws IOException {
+        final Throwable cause = failure.get();
+        if (cause instanceof Error) {
+            throw (Error) cause;
+        }
+        if (cause instanceof IOException) {
+            throw (IOException) cause;
+        }
+        if (cause instanceof RuntimeException) {
+            throw (RuntimeException) cause;
+        }
+        if (cause != null) {
+            throw new IOException("Pipeline stage failed!", cause);
+        }
+    }
+
+    /**
+     * Reads input and parses timestamps to chunks of local times. Lines are scanned directly in byte buffer.
+     *
+     * @param input specified channel of timestamps
+     * @throws IOException          if input can not be read
+     * @throws InterruptedException if pipeline is stopped
+     */
+    private void read(final ReadableByteChannel input) throws IOException, InterruptedException {
+        final ByteBuffer buffer = ByteBuffer.allocateDirect(READ_BUFFER_SIZE);
+        long[] chunk = new long[CHUNK_SIZE];
+        int chunkSize = 0;
+        long lineNumber = 0;
+        boolean endOfInput = false;
+        while (!endOfInput) {
+            endOfInput = input.read(buffer) < 0;
+            buffer.flip();
+            int lineStart = buffer.position();
+            for (int position = lineStart; position < buffer.limit(); position++) {
+                if (buffer.get(position) != '\n') {
+                    continue;
+                }
+                lineNumber++;
+                if (parseLine(buffer, lineStart, position, chunk, chunkSize, lineNumber)) {
+                    if (++chunkSize == CHUNK_SIZE) {
+                        parsedChunks.put(chunk);
+                        chunk = new long[CHUNK_SIZE];
+                        chunkSize = 0;
+                    }
+                }
+                lineStart = position + 1;
+            }
+            if (endOfInput && lineStart < buffer.limit()) {
+                //the last line may have no line end
+                lineNumber++;
+                if (parseLine(buffer, lineStart, buffer.limit(), chunk, chunkSize, lineNumber)) {
+                    chunkSize++;
+                }
+                lineStart = buffer.limit();
+            }
+            buffer.position(lineStart);
+            Preconditions.checkArgument(endOfInput || buffer.position() > 0 || buffer.limit() < buffer.capacity(),
+                    "Line " + (lineNumber + 1) + " is too long!");
+            buffer.compact();
+        }
+        if (chunkSize > 0) {
+            parsedChunks.put(Arrays.copyOf(chunk, chunkSize));
+        }
+        parsedChunks.put(END_OF_INPUT);
+    }
+
+    /**
+     * Parses single line and stores parsed local time to specified chunk.
+     *
+     * @param buffer     specified buffer with line
+     * @param start      specified position of line start
+     * @param end        specified position of line end, exclusive
+     * @param chunk      specified chunk of parsed times
+     * @param chunkSize  specified count of times in chunk
+     * @param lineNumber specified number of line for error reporting
+     * @return {@code false} if line is empty and was skipped
+     */
+    private boolean parseLine(final ByteBuffer buffer, final int start, final int end, final long[] chunk,
+                              final int chunkSize, final long lineNumber) {
+        int lineStart = start;
+        int lineEnd = end;
+        while (lineStart < lineEnd && buffer.get(lineStart) <= ' ') {
+            lineStart++;
+        }
+        while (lineEnd > lineStart && buffer.get(lineEnd - 1) <= ' ') {
+            lineEnd--;
+        }
+        if (lineStart == lineEnd) {
+            return false;
+        }
+        try {
+            chunk[chunkSize] = parseTimestamp(buffer, lineStart, lineEnd);
+        } catch (DateTimeException | IllegalArgumentException | ArithmeticException e) {
+            throw new IllegalArgumentException("Invalid timestamp at line " + lineNumber + '!', e);
+        }
+        return true;
+    }
+
+    /**
+     * Parses timestamp to local time of day.
+     *
+     * @param buffer specified buffer with timestamp
+     * @param start  specified position of timestamp start
+     * @param end    specified position of timestamp end, exclusive
+     * @return local time as nanoseconds from start of day
+     */
+    private long parseTimestamp(final ByteBuffer buffer, final int start, final int end) {
+        boolean hasColon = false;
+        for (int position = start; position < end; position++) {
+            final byte symbol = buffer.get(position);
+            if (symbol == 'T' || symbol == 't') {
+                return parseDateTime(buffer, start, end);
+            }
+            hasColon |= symbol == ':';
+        }
+        return hasColon ? parseLocalTime(buffer, start, end) : parseEpochSeconds(buffer, start, end);
+    }
+
+    /**
+     * Parses local time in "HH:mm[:ss[.fffffffff]]" format.
+     *
+     * @param buffer specified buffer with timestamp
+     * @param start  specified position of timestamp start
+     * @param end    specified position of timestamp end, exclusive
+     * @return local time as nanoseconds from start of day
+     */
+    private static long parseLocalTime(final ByteBuffer buffer, final int start, final int end) {
+        Preconditions.checkArgument(end - start >= 5 && buffer.get(start + 2) == ':', "Invalid local time!");
+        final int hour = twoDigits(buffer, start);
+        final int minute = twoDigits(buffer, start + 3);
+        int second = 0;
+        long nano = 0;
+        if (end - start > 5) {
+            Preconditions.checkArgument(end - start >= 8 && buffer.get(start + 5) == ':', "Invalid local time!");
+            second = twoDigits(buffer, start + 6);
+            if (end - start > 8) {
+                Preconditions.checkArgument(buffer.get(start + 8) == '.', "Invalid local time!");
+                nano = fraction(buffer, start + 9, end);
+            }
+        }
+        return LocalTime.of(hour, minute, second).toNanoOfDay() + nano;
+    }
+
+    /**
+     * Parses epoch seconds with optional sign and fraction, and converts it to local time of zone.
+     *
+     * @param buffer specified buffer with timestamp
+     * @param start  specified position of timestamp start
+     * @param end    specified position of timestamp end, exclusive
+     * @return local time as nanoseconds from start of day
+     */
+    private long parseEpochSeconds(final ByteBuffer buffer, final int start, final int end) {
+        final boolean negative = buffer.get(start) == '-';
+        int position = negative ? start + 1 : start;
+        Preconditions.checkArgument(position < end, "Invalid epoch seconds!");
+        long seconds = 0;
+        while (position < end && buffer.get(position) != '.') {
+            seconds = Math.addExact(Math.multiplyExact(seconds, 10L), digit(buffer, position));
+            position++;
+        }
+        long nano = position < end ? fraction(buffer, position + 1, end) : 0L;
+        if (negative) {
+            seconds = -seconds;
+            if (nano > 0) {
+                seconds--;
+                nano = NANOS_IN_SECOND - nano;
+            }
+        }
+        //noinspection NumericCastThatLosesPrecision
+        return offsetCache.toNanoOfDay(zone, seconds, (int) nano);
+    }
+
+    /**
+     * Parses ISO date-time. Date-time with offset or zone is converted to local time of pipeline zone,
+     * date-time without offset is taken as local time as is.
+     *
+     * @param buffer specified buffer with timestamp
+     * @param start  specified position of timestamp start
+     * @param end    specified position of timestamp end, exclusive
+     * @return local time as nanoseconds from start of day
+     */
+    private long parseDateTime(final ByteBuffer buffer, final int start, final int end) {
+        final byte[] text = new byte[end - start];
+        for (int position = start; position < end; position++) {
+            text[position - start] = buffer.get(position);
+        }
+        final TemporalAccessor parsed = DateTimeFormatter.ISO_DATE_TIME.parse(
+                new String(text, StandardCharsets.US_ASCII));
+        if (parsed.isSupported(ChronoField.INSTANT_SECONDS)) {
+            final Instant instant = Instant.from(parsed);
+            return offsetCache.toNanoOfDay(zone, instant.getEpochSecond(), instant.getNano());
+        }
+        return LocalTime.from(parsed).toNanoOfDay();
+    }
+
+    /**
+     * Parses two decimal digits.
+     *
+     * @param buffer   specified buffer
+     * @param position specified position of the first digit
+     * @return parsed value
+     */
+    private static int twoDigits(final ByteBuffer buffer, final int position) {
+        return digit(buffer, position) * 10 + digit(buffer, position + 1);
+    }
+
+    /**
+     * Parses fraction of second with up to nine digits.
+     *
+     * @param buffer specified buffer
+     * @param start  specified position of the first digit
+     * @param end    specified position of fraction end, exclusive
+     * @return fraction in nanoseconds
+     */
+    private static long fraction(final ByteBuffer buffer, final int start, final int end) {
+        Preconditions.checkArgument(end > start && end - start <= MAX_FRACTION_DIGITS, "Invalid fraction of second!");
+        long nano = 0;
+        for (int position = start; position < start + MAX_FRACTION_DIGITS; position++) {
+            nano = nano * 10 + (position < end ? digit(buffer, position) : 0);
+        }
+        return nano;
+    }
+
+    /**
+     * Parses single decimal digit.
+     *
+     * @param buffer   specified buffer
+     * @param position specified position of digit
+     * @return parsed value
+     */
+    private static int digit(final ByteBuffer buffer, final int position) {
+        final int value = buffer.get(position) - '0';
+        Preconditions.checkArgument(value >= 0 && value <= 9, "Digit expected!");
+        return value;
+    }
+
+    /**
+     * Converts chunks of local times and renders them to byte buffers.
+     *
+     * @throws InterruptedException if pipeline is stopped
+     */
+    private void convert() throws InterruptedException {
+        final int[] lightCells = new int[clock.getCompiledPattern().getRowCount()];
+        final ClockFrameTemplate template = ClockFrameTemplate.berlinClock();
+        final ClockFrame frame = template.newFrame();
+        final int recordBytes = outputFormat == OutputFormat.BERLIN_GRID
+                ? template.getFrameLength() + 1
+                : lightCells.length * (MAX_COUNT_DIGITS + 1);
+        while (true) {
+            final long[] chunk = parsedChunks.take();
+            if (chunk == END_OF_INPUT || chunk == FAILED_INPUT) {
+                renderedChunks.put(chunk == END_OF_INPUT ? END_OF_OUTPUT : FAILED_OUTPUT);
+                return;
+            }
+            final ByteBuffer rendered = ByteBuffer.allocate(chunk.length * recordBytes);
+            for (long nanoOfDay : chunk) {
+                clock.calculateLightCells(nanoOfDay, lightCells);
+                if (outputFormat == OutputFormat.BERLIN_GRID) {
+                    template.render(lightCells, frame).writeTo(rendered).put((byte) '\n');
+                } else {
+                    writeCounts(lightCells, rendered);
+                }
+            }
+            rendered.flip();
+            renderedChunks.put(rendered);
+            //count is read by calling thread only after join of this thread
+            lineCount += chunk.length;
+        }
+    }
+
+    /**
+     * Writes light cells counts separated by spaces as single line.
+     *
+     * @param lightCells specified light cells count of each row
+     * @param target     specified buffer with enough remaining space
+     */
+    private static void writeCounts(final int[] lightCells, final ByteBuffer target) {
+        for (int rowNumber = 0; rowNumber < lightCells.length; rowNumber++) {
+            if (rowNumber > 0) {
+                target.put((byte) ' ');
+            }
+            int count = lightCells[rowNumber];
+            int divisor = 1;
+            while (count / divisor >= 10) {
+                divisor *= 10;
+            }
+            for (; divisor > 0; divisor /= 10) {
+                //noinspection NumericCastThatLosesPrecision
+                target.put((byte) ('0' + count / divisor));
+                count %= divisor;
+            }
+        }
+        target.put((byte) '\n');
+    }
+
+    /**
+     * Writes rendered chunks to output until the end of input.
+     *
+     * @param output specified channel for representations
+     * @throws IOException          if output can not be written
+     * @throws InterruptedException if pipeline is stopped
+     */
+    private void write(final WritableByteChannel output) throws IOException, InterruptedException {
+        while (true) {
+            final ByteBuffer rendered = renderedChunks.take();
+            if (rendered == END_OF_OUTPUT) {
+                return;
+            }
+            if (rendered == FAILED_OUTPUT) {
+                rethrowFailure();
+            }
+            while (rendered.hasRemaining()) {
+                output.write(rendered);
+            }
+        }
+    }
+
+    /**
+     * Simple getter for count of converted timestamps.
+     *
+     * @return count of converted timestamps
+     */
+    public long getLineCount() {
+        return lineCount;
+    }
+
+    /**
+     * Simple getter for duration of the last run.
+     *
+     * @return duration of run in nanoseconds
+     */
+    public long getElapsedNanos() {
+        return elapsedNanos;
+    }
+
+    /**
+     * Calculates throughput of the last run.
+     *
+     * @return count of converted timestamps per second
+     */
+    public double getLinesPerSecond() {
+        return elapsedNanos == 0 ? 0.0 : lineCount * (double) NANOS_IN_SECOND / elapsedNanos;
+    }
+
+    /**
+     * An {@code OutputFormat} enumerates formats of pipeline output.
+     */
+    public enum OutputFormat {
+        /**
+         * Light cells count of each row, separated by spaces, one line per timestamp. Suitable for any pattern.
+         */
+        COUNTS,
+        /**
+         * Berlin clock frames as produced by {@code ClockFormatter.BERLIN_CLOCK_FORMATTER}, separated by
+         * empty lines, so output can be read back by {@code BerlinClockParser.parseAll}.
+         */
+        BERLIN_GRID
+    }
+
+    /**
+     * A {@code Stage} is body of pipeline thread.
+     */
+    @FunctionalInterface
+    private interface Stage {
+        void run() throws IOException, InterruptedException;
+    }
+}
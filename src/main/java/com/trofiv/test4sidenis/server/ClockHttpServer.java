@@ -0,0 +1,271 @@
+package com.trofiv.test4sidenis.server;
+
+import com.google.common.base.Preconditions;
+import com.sun.net.httpserver.Headers;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UnsupportedEncodingException;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.time.Clock;
+import java.time.LocalTime;
+import java.time.format.DateTimeParseException;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A {@code ClockHttpServer} serves Berlin clock frames over HTTP using JDK built-in server.
+ * Endpoints:
+ * "/berlin?time=HH:mm:ss&format=grid|readable" renders specified time,
+ * "/berlin/now?format=grid|readable" renders current time.
+ * Format is grid by default. Responses are served from {@code ClockResponseCache} with entity tags,
+ * so repeated requests with "If-None-Match" header are answered with "304 Not Modified".
+ * Requests are handled by fixed worker pool with bounded queue. Exchange rejected by full queue is answered
+ * by dispatcher thread of server with "503 Service Unavailable" without rendering, so pending exchanges never
+ * exceed queue capacity and accepting of connections is stalled only for writing of short response.
+ */
+public class ClockHttpServer {
+    private static final String BERLIN_PATH = "/berlin";
+    private static final String NOW_PATH = "/berlin/now";
+    private static final String TIME_PARAMETER = "time";
+    private static final String FORMAT_PARAMETER = "format";
+    private static final String CONTENT_TYPE = "text/plain; charset=utf-8";
+    private static final int STATUS_OK = 200;
+    private static final int STATUS_NOT_MODIFIED = 304;
+    private static final int STATUS_BAD_REQUEST = 400;
+    private static final int STATUS_NOT_FOUND = 404;
+    private static final int STATUS_METHOD_NOT_ALLOWED = 405;
+    private static final int STATUS_SERVICE_UNAVAILABLE = 503;
+    private static final int NO_BODY = -1;
+    private static final int QUEUE_CAPACITY_PER_WORKER = 64;
+    private static final int STOP_DELAY_SECONDS = 1;
+    private static final String RETRY_AFTER_SECONDS = "1";
+    private static final String ANY_ENTITY_TAG = "*";
+    private static final String WEAK_PREFIX = "W/";
+
+    //set on dispatcher thread while it runs exchange rejected by worker pool
+    private static final ThreadLocal<Boolean> REJECTED = new ThreadLocal<>();
+
+    private final HttpServer server;
+    private final ThreadPoolExecutor workers;
+    private final ClockResponseCache cache = new ClockResponseCache();
+    private final Clock wallClock;
+
+    /**
+     * Instantiates {@code ClockHttpServer} object bound to specified port and validates all specified parameters.
+     *
+     * @param port        specified port to listen, zero means any free port
+     * @param workerCount specified count of worker threads
+     * @param wallClock   specified clock for "now" endpoint
+     * @throws IOException if server can not be bound to port
+     */
+    public ClockHttpServer(final int port, final int workerCount, final Clock wallClock) throws IOException {
+        Preconditions.checkArgument(port >= 0, "Port must not be negative!");
+        Preconditions.checkArgument(workerCount > 0, "At least one worker must be specified!");
+        Preconditions.checkNotNull(wallClock, "Wall clock must be specified!");
+        this.wallClock = wallClock;
+        //rejection handler gets only runnable of exchange, so exchange is run in place and marked as rejected
+        workers = new ThreadPoolExecutor(workerCount, workerCount, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(workerCount * QUEUE_CAPACITY_PER_WORKER), (task, executor) -> {
+            REJECTED.set(Boolean.TRUE);
+            try {
+                task.run();
+            } finally {
+                REJECTED.remove();
+            }
+        });
+        server = HttpServer.create(new InetSocketAddress(port), 0);
+        server.setExecutor(workers);
+        server.createContext(BERLIN_PATH, this::handle);
+    }
+
+    /**
+     * Starts accepting requests.
+     */
+    public void start() {
+        server.start();
+    }
+
+    /**
+     * Stops accepting requests, waits for active exchanges and stops workers.
+     */
+    public void stop() {
+        server.stop(STOP_DELAY_SECONDS);
+        workers.shutdown();
+    }
+
+    /**
+     * Simple getter for port server is bound to.
+     *
+     * @return listening port
+     */
+    public int getPort() {
+        return server.getAddress().getPort();
+    }
+
+    /**
+     * Handles single exchange.
+     *
+     * @param exchange specified HTTP exchange
+     * @throws IOException if response can not be written
+     */
+    private void handle(final HttpExchange exchange) throws IOException {
+        try {
+            if (REJECTED.get() != null) {
+                exchange.getResponseHeaders().set("Retry-After", RETRY_AFTER_SECONDS);
+                sendError(exchange, STATUS_SERVICE_UNAVAILABLE, "Server is overloaded");
+                return;
+            }
+            if (!"GET".equals(exchange.getRequestMethod()) && !"HEAD".equals(exchange.getRequestMethod())) {
+                sendError(exchange, STATUS_METHOD_NOT_ALLOWED, "Only GET and HEAD are supported");
+                return;
+            }
+            final String path = exchange.getRequestURI().getPath();
+            final String query = exchange.getRequestURI().getRawQuery();
+            final LocalTime time;
+            if (NOW_PATH.equals(path)) {
+                time = LocalTime.now(wallClock);
+            } else if (BERLIN_PATH.equals(path)) {
+                final String timeValue = parameter(query, TIME_PARAMETER);
+                if (timeValue == null) {
+                    sendError(exchange, STATUS_BAD_REQUEST, "Parameter time is required");
+                    return;
+                }
+                time = LocalTime.parse(timeValue);
+            } else {
+                sendError(exchange, STATUS_NOT_FOUND, "Unknown path");
+                return;
+            }
+            final String formatValue = parameter(query, FORMAT_PARAMETER);
+            final ClockResponseFormat format = formatValue == null
+                    ? ClockResponseFormat.GRID
+                    : ClockResponseFormat.valueOf(formatValue.toUpperCase(Locale.ROOT));
+            sendResponse(exchange, cache.get(time.truncatedTo(ChronoUnit.SECONDS), format));
+        } catch (DateTimeParseException | IllegalArgumentException e) {
+            sendError(exchange, STATUS_BAD_REQUEST, "Invalid parameter: " + e.getMessage());
+        } finally {
+            exchange.close();
+        }
+    }
+
+    /**
+     * Sends cached response or "304 Not Modified" if client already has it.
+     *
+     * @param exchange specified HTTP exchange
+     * @param response specified cached response
+     * @throws IOException if response can not be written
+     */
+    private static void sendResponse(final HttpExchange exchange, final ClockResponseCache.CachedResponse response)
+            throws IOException {
+        final Headers headers = exchange.getResponseHeaders();
+        headers.set("ETag", response.getEntityTag());
+        if (matches(exchange.getRequestHeaders().get("If-None-Match"), response.getEntityTag())) {
+            exchange.sendResponseHeaders(STATUS_NOT_MODIFIED, NO_BODY);
+            return;
+        }
+        headers.set("Content-Type", CONTENT_TYPE);
+        if ("HEAD".equals(exchange.getRequestMethod())) {
+            exchange.sendResponseHeaders(STATUS_OK, NO_BODY);
+            return;
+        }
+        exchange.sendResponseHeaders(STATUS_OK, response.getBody().length);
+        try (OutputStream body = exchange.getResponseBody()) {
+            body.write(response.getBody());
+        }
+    }
+
+    /**
+     * Checks whether "If-None-Match" header values list specified entity tag. Values are comma-separated
+     * lists of quoted tags, "*" matches any tag, weak tags ("W/" prefix) are compared by their opaque part.
+     *
+     * @param values    specified values of header, may be {@code null}
+     * @param entityTag specified quoted entity tag of response
+     * @return {@code true} if client already has response with specified tag
+     */
+    private static boolean matches(final List<String> values, final String entityTag) {
+        if (values == null) {
+            return false;
+        }
+        for (String value : values) {
+            int position = 0;
+            while (position < value.length()) {
+                final char current = value.charAt(position);
+                if (current == ',' || Character.isWhitespace(current)) {
+                    position++;
+                } else if (value.startsWith(ANY_ENTITY_TAG, position)) {
+                    return true;
+                } else {
+                    if (value.startsWith(WEAK_PREFIX, position)) {
+                        position += WEAK_PREFIX.length();
+                    }
+                    //quoted tag may contain commas, so it ends at closing quote
+                    int end = value.indexOf(',', position);
+                    if (position < value.length() && value.charAt(position) == '"') {
+                        final int closingQuote = value.indexOf('"', position + 1);
+                        end = closingQuote < 0 ? -1 : closingQuote + 1;
+                    }
+                    if (end < 0) {
+                        end = value.length();
+                    }
+                    if (value.substring(position, end).trim().equals(entityTag)) {
+                        return true;
+                    }
+                    position = end;
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Sends plain text error response.
+     *
+     * @param exchange specified HTTP exchange
+     * @param status   specified HTTP status
+     * @param message  specified error message
+     * @throws IOException if response can not be written
+     */
+    private static void sendError(final HttpExchange exchange, final int status, final String message)
+            throws IOException {
+        final byte[] body = message.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", CONTENT_TYPE);
+        exchange.sendResponseHeaders(status, body.length);
+        try (OutputStream output = exchange.getResponseBody()) {
+            output.write(body);
+        }
+    }
+
+    /**
+     * Finds value of query parameter.
+     *
+     * @param query specified raw query string, may be {@code null}
+     * @param name  specified name of parameter
+     * @return decoded value of parameter or {@code null} if there is no such parameter
+     * @throws UnsupportedEncodingException never, UTF-8 is always supported
+     */
+    private static String parameter(final String query, final String name) throws UnsupportedEncodingException {
+        if (query == null) {
+            return null;
+        }
+        int start = 0;
+        while (start < query.length()) {
+            int end = query.indexOf('&', start);
+            if (end < 0) {
+                end = query.length();
+            }
+            if (query.startsWith(name, start) && start + name.length() < end && query.charAt(start + name.length()) == '=') {
+                return URLDecoder.decode(query.substring(start + name.length() + 1, end), StandardCharsets.UTF_8.name());
+            }
+            start = end + 1;
+        }
+        return null;
+    }
+}
@@ -0,0 +1,117 @@
+package com.trofiv.test4sidenis.server;
+
+import com.google.common.base.Preconditions;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A {@code ClockLoadGenerator} is simple closed-loop HTTP load generator for {@code ClockHttpServer}.
+ * Each thread sends GET requests one after another over keep-alive connection until duration elapses,
+ * and then total count of requests per second is reported.
+ */
+public class ClockLoadGenerator {
+    private static final int READ_BUFFER_SIZE = 4096;
+
+    private final URL url;
+    private final int threadCount;
+    private final long durationNanos;
+    private final LongAdder succeeded = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+
+    /**
+     * Instantiates {@code ClockLoadGenerator} object and validates all specified parameters.
+     *
+     * @param url         specified URL to request
+     * @param threadCount specified count of concurrent clients
+     * @param duration    specified duration of load
+     * @param unit        specified time unit of duration
+     */
+    public ClockLoadGenerator(final URL url, final int threadCount, final long duration, final TimeUnit unit) {
+        Preconditions.checkNotNull(url, "URL must be specified!");
+        Preconditions.checkArgument(threadCount > 0, "At least one thread must be specified!");
+        Preconditions.checkArgument(duration > 0, "Duration must be a positive value!");
+        this.url = url;
+        this.threadCount = threadCount;
+        durationNanos = unit.toNanos(duration);
+    }
+
+    /**
+     * Runs load and waits until it is finished.
+     *
+     * @return achieved count of successful requests per second
+     * @throws InterruptedException if waiting thread is interrupted
+     */
+    public double run() throws InterruptedException {
+        final long start = System.nanoTime();
+        final long deadline = start + durationNanos;
+        final List<Thread> threads = new ArrayList<>(threadCount);
+        for (int threadNumber = 0; threadNumber < threadCount; threadNumber++) {
+            //noinspection ObjectAllocationInLoop
+            final Thread thread = new Thread(() -> load(deadline), "clock-load-" + threadNumber);
+            thread.start();
+            threads.add(thread);
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        final double seconds = (System.nanoTime() - start) / (double) TimeUnit.SECONDS.toNanos(1);
+        return succeeded.sum() / seconds;
+    }
+
+    /**
+     * Sends requests until specified deadline.
+     *
+     * @param deadline specified deadline in {@code System.nanoTime} scale
+     */
+    private void load(final long deadline) {
+        final byte[] buffer = new byte[READ_BUFFER_SIZE];
+        while (System.nanoTime() < deadline) {
+            try {
+                final HttpURLConnection connection = (HttpURLConnection) url.openConnection();
+                final int status = connection.getResponseCode();
+                //body must be read completely to reuse keep-alive connection
+                try (InputStream body = status < HttpURLConnection.HTTP_BAD_REQUEST
+                        ? connection.getInputStream()
+                        : connection.getErrorStream()) {
+                    if (body != null) {
+                        //noinspection StatementWithEmptyBody
+                        while (body.read(buffer) >= 0) {
+                        }
+                    }
+                }
+                if (status < HttpURLConnection.HTTP_BAD_REQUEST) {
+                    succeeded.increment();
+                } else {
+                    failed.increment();
+                }
+            } catch (IOException e) {
+                failed.increment();
+            }
+        }
+    }
+
+    /**
+     * Simple getter for count of successful requests.
+     *
+     * @return count of requests answered with non-error status
+     */
+    public long getSucceeded() {
+        return succeeded.sum();
+    }
+
+    /**
+     * Simple getter for count of failed requests.
+     *
+     * @return count of requests failed with error status or I/O error
+     */
+    public long getFailed() {
+        return failed.sum();
+    }
+}
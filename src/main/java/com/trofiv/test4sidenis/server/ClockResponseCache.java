@@ -0,0 +1,94 @@
+package com.trofiv.test4sidenis.server;
+
+import com.google.common.base.Preconditions;
+import com.trofiv.test4sidenis.binaryclock.BerlinBinaryClock;
+import com.trofiv.test4sidenis.binaryclock.PrecomputedBinaryClock;
+import com.trofiv.test4sidenis.binaryclock.metrics.CacheMetrics;
+import com.trofiv.test4sidenis.binaryclock.metrics.ClockMetrics;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalTime;
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * A {@code ClockResponseCache} keeps pre-encoded UTF-8 bodies of Berlin clock responses, keyed by
+ * second of day and format. Bodies are rendered lazily on first request of each second and format.
+ */
+public class ClockResponseCache {
+    private static final int SECONDS_IN_DAY = 86400;
+    private static final CacheMetrics CACHE_METRICS = ClockMetrics.cache("ClockResponseCache");
+
+    private final PrecomputedBinaryClock clock = BerlinBinaryClock.precomputed();
+    private final Map<ClockResponseFormat, AtomicReferenceArray<CachedResponse>> responses =
+            new EnumMap<>(ClockResponseFormat.class);
+
+    /**
+     * Instantiates {@code ClockResponseCache} object with empty cache for each format.
+     */
+    public ClockResponseCache() {
+        for (ClockResponseFormat format : ClockResponseFormat.values()) {
+            responses.put(format, new AtomicReferenceArray<>(SECONDS_IN_DAY));
+        }
+    }
+
+    /**
+     * Returns response for specified time and format, rendering it if it is not cached yet.
+     *
+     * @param time   specified time, truncated to seconds
+     * @param format specified format of response
+     * @return cached response
+     */
+    public CachedResponse get(final LocalTime time, final ClockResponseFormat format) {
+        Preconditions.checkNotNull(time, "Time must be specified!");
+        Preconditions.checkNotNull(format, "Format must be specified!");
+        final int secondOfDay = time.toSecondOfDay();
+        final AtomicReferenceArray<CachedResponse> formatResponses = responses.get(format);
+        final CachedResponse cached = formatResponses.get(secondOfDay);
+        if (ClockMetrics.ENABLED) {
+            CACHE_METRICS.record(cached != null);
+        }
+        if (cached != null) {
+            return cached;
+        }
+        //concurrent requests may render the same response twice, but result is the same
+        final byte[] body = clock.of(time, format.getFormatter()).getBytes(StandardCharsets.UTF_8);
+        final CachedResponse response = new CachedResponse(body,
+                '"' + format.name().toLowerCase(Locale.ROOT) + '-' + secondOfDay + '"');
+        formatResponses.lazySet(secondOfDay, response);
+        return response;
+    }
+
+    /**
+     * A {@code CachedResponse} represents pre-encoded response body with its entity tag.
+     */
+    public static final class CachedResponse {
+        private final byte[] body;
+        private final String entityTag;
+
+        private CachedResponse(final byte[] body, final String entityTag) {
+            this.body = body;
+            this.entityTag = entityTag;
+        }
+
+        /**
+         * Simple getter for encoded body. Returned array is shared, so it must not be modified.
+         *
+         * @return UTF-8 bytes of body
+         */
+        public byte[] getBody() {
+            return body;
+        }
+
+        /**
+         * Simple getter for entity tag of body.
+         *
+         * @return quoted entity tag
+         */
+        public String getEntityTag() {
+            return entityTag;
+        }
+    }
+}
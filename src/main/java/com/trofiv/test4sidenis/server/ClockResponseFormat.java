@@ -0,0 +1,36 @@
+package com.trofiv.test4sidenis.server;
+
+import com.trofiv.test4sidenis.binaryclock.BinaryClockRowRepresentation;
+import com.trofiv.test4sidenis.binaryclock.format.ClockFormatter;
+
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * A {@code ClockResponseFormat} represents format of Berlin clock served by {@code ClockHttpServer}.
+ */
+public enum ClockResponseFormat {
+    /**
+     * Table of cells, see {@code ClockFormatter.BERLIN_CLOCK_FORMATTER}.
+     */
+    GRID(ClockFormatter.BERLIN_CLOCK_FORMATTER),
+    /**
+     * Text description of rows, see {@code ClockFormatter.READABLE_FORMATTER}.
+     */
+    READABLE(ClockFormatter.READABLE_FORMATTER);
+
+    private final Function<List<BinaryClockRowRepresentation>, String> formatter;
+
+    ClockResponseFormat(final Function<List<BinaryClockRowRepresentation>, String> formatter) {
+        this.formatter = formatter;
+    }
+
+    /**
+     * Simple getter for formatter of format.
+     *
+     * @return closure function for string representation
+     */
+    public Function<List<BinaryClockRowRepresentation>, String> getFormatter() {
+        return formatter;
+    }
+}
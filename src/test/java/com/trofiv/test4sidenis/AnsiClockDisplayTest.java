@@ -0,0 +1,130 @@
+package com.trofiv.test4sidenis;
+
+import com.trofiv.test4sidenis.binaryclock.BerlinBinaryClock;
+import com.trofiv.test4sidenis.binaryclock.BinaryClockPattern;
+import com.trofiv.test4sidenis.binaryclock.BinaryClockRowPattern;
+import com.trofiv.test4sidenis.binaryclock.CompiledBinaryClockPattern;
+import com.trofiv.test4sidenis.binaryclock.format.AnsiClockDisplay;
+import com.trofiv.test4sidenis.binaryclock.format.GridClockFormatter;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+
+@SuppressWarnings("MagicNumber")
+public class AnsiClockDisplayTest {
+    private static final String INVALID_SCREEN = "Screen differs from grid of clock state!";
+    private static final Pattern ESCAPE_SEQUENCE = Pattern.compile("\u001B\\[(?:(\\d+);(\\d+)H|[^A-Za-z]*[A-Za-z])");
+
+    /**
+     * Replays every second of Berlin clock day on emulated terminal and compares screen with grid
+     */
+    @Test
+    public void testBerlinClockDay() {
+        final Set<Integer> blinkRows = Collections.singleton(4);
+        final AnsiClockDisplay display = new AnsiClockDisplay(BerlinBinaryClock.BERLIN_CLOCK_PATTERN,
+                Integer.MAX_VALUE, blinkRows);
+        final GridClockFormatter formatter = new GridClockFormatter(BerlinBinaryClock.BERLIN_CLOCK_PATTERN,
+                Integer.MAX_VALUE, blinkRows);
+        final CompiledBinaryClockPattern compiled = BerlinBinaryClock.BERLIN_CLOCK_PATTERN.compile();
+        final Screen screen = new Screen();
+        final int[] lightCells = new int[5];
+        screen.apply(display.drawFrame(compiled.evaluate(0L, lightCells), new StringBuilder()));
+        assertThat(INVALID_SCREEN, screen.toString(), is(formatter.formatTo(lightCells, new StringBuilder())
+                .toString()));
+        final long frameBytes = display.getWrittenBytes();
+        for (int second = 1; second < 86400; second++) {
+            compiled.evaluate(TimeUnit.SECONDS.toNanos(second), lightCells);
+            final String update = display.update(lightCells, new StringBuilder()).toString();
+            screen.apply(update);
+            assertThat(INVALID_SCREEN, screen.toString(), is(formatter.formatTo(lightCells, new StringBuilder())
+                    .toString()));
+            if (second % 60 != 0) {
+                //only blink cell flips: cursor move and single glyph
+                assertThat("Update must write only flipped cells!", update.length(), is("\u001B[5;2H".length() + 1));
+            }
+        }
+        assertThat("Updates must be counted!", display.getUpdateCount(), is(86399L));
+        assertThat("Full frame size must be reported!", display.getFullFrameBytes(), is(frameBytes));
+        assertThat("Diffed updates must be much smaller than full frames!",
+                display.getWrittenBytes() * 8 < frameBytes * 86400, is(true));
+    }
+
+    /**
+     * Wide row is wrapped by 7 cells per line, random states must leave the same screen as grid
+     */
+    @Test
+    public void testWrappedRows() {
+        final BinaryClockPattern pattern = new BinaryClockPattern(Arrays.asList(
+                new BinaryClockRowPattern(1, TimeUnit.HOURS, 23),
+                new BinaryClockRowPattern(1, TimeUnit.SECONDS, 3599)));
+        final AnsiClockDisplay display = new AnsiClockDisplay(pattern, 7, Collections.emptySet());
+        final GridClockFormatter formatter = new GridClockFormatter(pattern, 7, Collections.emptySet());
+        assertThat("Count of lines is invalid!", display.getLineCount(), is(4 + 515));
+        final CompiledBinaryClockPattern compiled = pattern.compile();
+        final Random random = new Random(42L);
+        final Screen screen = new Screen();
+        final int[] lightCells = new int[2];
+        for (int update = 0; update < 50; update++) {
+            compiled.evaluate((random.nextLong() & Long.MAX_VALUE) % TimeUnit.DAYS.toNanos(1), lightCells);
+            screen.apply(display.update(lightCells, new StringBuilder()));
+            assertThat(INVALID_SCREEN, screen.toString(), is(formatter.formatTo(lightCells, new StringBuilder())
+                    .toString()));
+            assertThat(INVALID_SCREEN, display.getDisplayedLightCells(), is(lightCells));
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testInvalidLightCells() {
+        new AnsiClockDisplay(BerlinBinaryClock.BERLIN_CLOCK_PATTERN).update(new int[4], new StringBuilder());
+    }
+
+    /**
+     * Emulated terminal that supports only cursor positioning, other escape sequences are ignored
+     */
+    private static final class Screen {
+        private final StringBuilder[] lines = new StringBuilder[1000];
+        private int line;
+        private int column;
+
+        private void apply(final CharSequence output) {
+            final Matcher matcher = ESCAPE_SEQUENCE.matcher(output);
+            int position = 0;
+            while (position < output.length()) {
+                if (matcher.find(position) && matcher.start() == position) {
+                    if (matcher.group(1) != null) {
+                        line = Integer.parseInt(matcher.group(1)) - 1;
+                        column = Integer.parseInt(matcher.group(2)) - 1;
+                    }
+                    position = matcher.end();
+                } else {
+                    if (lines[line] == null) {
+                        lines[line] = new StringBuilder();
+                    }
+                    while (lines[line].length() <= column) {
+                        lines[line].append(' ');
+                    }
+                    lines[line].setCharAt(column++, output.charAt(position++));
+                }
+            }
+        }
+
+        @Override
+        @SuppressWarnings("HardcodedLineSeparator")
+        public String toString() {
+            final StringBuilder text = new StringBuilder();
+            for (int index = 0; index < lines.length && lines[index] != null; index++) {
+                text.append(lines[index]).append('\n');
+            }
+            return text.toString();
+        }
+    }
+}
@@ -0,0 +1,87 @@
+package com.trofiv.test4sidenis;
+
+import com.trofiv.test4sidenis.binaryclock.BerlinBinaryClock;
+import com.trofiv.test4sidenis.binaryclock.format.BerlinClockParser;
+import com.trofiv.test4sidenis.binaryclock.format.ClockFormatter;
+import com.trofiv.test4sidenis.binaryclock.format.ParsedClockTime;
+import org.junit.Test;
+
+import java.time.LocalTime;
+import java.util.concurrent.TimeUnit;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
+
+@SuppressWarnings({"MagicNumber", "HardcodedLineSeparator"})
+public class BerlinClockParserTest {
+    private static final long ONE_SECOND = TimeUnit.SECONDS.toNanos(1);
+    private static final long ONE_MINUTE = TimeUnit.MINUTES.toNanos(1);
+    private static final String TIME_OUT_OF_RANGE = "Time is out of parsed range!";
+
+    @Test
+    public void testParseWholeDay() {
+        final BerlinBinaryClock clock = new BerlinBinaryClock();
+        final BerlinClockParser parser = new BerlinClockParser();
+        for (int second = 0; second < 86400; second++) {
+            final LocalTime time = LocalTime.ofSecondOfDay(second);
+            final ParsedClockTime parsed = parser.parse(clock.of(time, ClockFormatter.BERLIN_CLOCK_FORMATTER));
+            final long lowerBound = parsed.getLowerBoundNanos();
+            assertTrue(TIME_OUT_OF_RANGE, lowerBound <= time.toNanoOfDay());
+            assertTrue(TIME_OUT_OF_RANGE, time.toNanoOfDay() < lowerBound + parsed.getUncertaintyNanos());
+            assertThat(lowerBound + parsed.getUncertaintyNanos(), is(time.withSecond(0).toNanoOfDay() + ONE_MINUTE));
+            assertThat(parsed.getLowerBound(), is(time.withSecond(second % 2)));
+        }
+    }
+
+    @Test
+    public void testParseAll() {
+        final BerlinBinaryClock clock = new BerlinBinaryClock();
+        final StringBuilder frames = new StringBuilder();
+        for (int minute = 0; minute < 1440; minute += 7) {
+            frames.append(clock.of(LocalTime.ofSecondOfDay(minute * 60L), ClockFormatter.BERLIN_CLOCK_FORMATTER)).append('\n');
+        }
+        final long[] expectedMinute = {0};
+        final int count = new BerlinClockParser().parseAll(frames, (lowerBound, uncertainty) -> {
+            assertThat(lowerBound, is(expectedMinute[0] * ONE_MINUTE));
+            assertThat(uncertainty, is(ONE_MINUTE));
+            expectedMinute[0] += 7;
+        });
+        assertThat(count, is((1440 + 6) / 7));
+    }
+
+    @Test
+    public void testParseWithoutLastLineEnd() {
+        final ParsedClockTime parsed = new BerlinClockParser().parse("[X]\n"
+                + "[X][X][ ][ ]\n"
+                + "[X][X][X][ ]\n"
+                + "[X][X][X][ ][ ][ ][ ][ ][ ][ ][ ]\n"
+                + "[X][X][ ][ ]");
+        assertThat(parsed.getLowerBound(), is(LocalTime.of(13, 17, 1)));
+        assertThat(parsed.getUncertaintyNanos(), is(ONE_MINUTE - ONE_SECOND));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testUnorderedCells() {
+        new BerlinClockParser().parse("[ ]\n[X][ ][X][ ]\n[ ][ ][ ][ ]\n[ ][ ][ ][ ][ ][ ][ ][ ][ ][ ][ ]\n[ ][ ][ ][ ]\n");
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testInvalidShape() {
+        new BerlinClockParser().parse("[ ]\n[ ][ ][ ]\n[ ][ ][ ][ ]\n[ ][ ][ ][ ][ ][ ][ ][ ][ ][ ][ ]\n[ ][ ][ ][ ]\n");
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testTimeOutOfDay() {
+        new BerlinClockParser().parse("[ ]\n"
+                + "[X][X][X][X]\n"
+                + "[X][X][X][X]\n"
+                + "[ ][ ][ ][ ][ ][ ][ ][ ][ ][ ][ ]\n"
+                + "[ ][ ][ ][ ]\n");
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testTruncatedFrame() {
+        new BerlinClockParser().parse("[ ]\n[ ][ ][ ][ ]\n");
+    }
+}
@@ -0,0 +1,64 @@
+package com.trofiv.test4sidenis;
+
+import com.trofiv.test4sidenis.binaryclock.BerlinBinaryClock;
+import com.trofiv.test4sidenis.binaryclock.BinaryClockBatch;
+import com.trofiv.test4sidenis.binaryclock.BinaryClockBatchConverter;
+import com.trofiv.test4sidenis.binaryclock.GenericBinaryClock;
+import org.junit.Test;
+
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.LongStream;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+
+@SuppressWarnings("MagicNumber")
+public class BinaryClockBatchConverterTest {
+    private static final long NANOS_IN_DAY = TimeUnit.DAYS.toNanos(1);
+    private static final int BATCH_SIZE = 1_000_003;
+    private static final String INVALID_BATCH_CONVERSION = "Batch conversion differs from single conversion!";
+
+    private static void assertSameAsSingle(final long[] nanosOfDay, final BinaryClockBatch batch) {
+        final GenericBinaryClock clock = new BerlinBinaryClock();
+        final int[] lightCells = new int[batch.getRowCount()];
+        assertThat(batch.size(), is(nanosOfDay.length));
+        for (int index = 0; index < nanosOfDay.length; index++) {
+            clock.calculateLightCells(nanosOfDay[index], lightCells);
+            for (int rowNumber = 0; rowNumber < lightCells.length; rowNumber++) {
+                assertThat(INVALID_BATCH_CONVERSION, batch.getLightCellsCount(rowNumber, index), is(lightCells[rowNumber]));
+            }
+        }
+    }
+
+    @Test
+    public void testParallelConversion() {
+        final Random random = new Random(42);
+        final long[] nanosOfDay = new long[BATCH_SIZE];
+        for (int index = 0; index < nanosOfDay.length; index++) {
+            nanosOfDay[index] = (random.nextLong() >>> 1) % NANOS_IN_DAY;
+        }
+        final BinaryClockBatchConverter converter = new BinaryClockBatchConverter(
+                BerlinBinaryClock.BERLIN_CLOCK_PATTERN, new ForkJoinPool(4), 1000);
+        assertSameAsSingle(nanosOfDay, converter.convert(nanosOfDay));
+    }
+
+    @Test
+    public void testStreamConversion() {
+        final long[] nanosOfDay = LongStream.range(0, 86400).map(TimeUnit.SECONDS::toNanos).toArray();
+        final BinaryClockBatch batch = new BinaryClockBatchConverter(BerlinBinaryClock.BERLIN_CLOCK_PATTERN)
+                .convert(LongStream.of(nanosOfDay));
+        assertSameAsSingle(nanosOfDay, batch);
+    }
+
+    @Test
+    public void testEmptyBatch() {
+        assertThat(new BerlinBinaryClock().calculateLightCells(new long[0]).size(), is(0));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testTimeOutOfDay() {
+        new BerlinBinaryClock().calculateLightCells(new long[]{0, NANOS_IN_DAY});
+    }
+}
@@ -4,6 +4,7 @@ import com.trofiv.test4sidenis.binaryclock.BinaryClockPattern;
 import com.trofiv.test4sidenis.binaryclock.BinaryClockRowPattern;
 import org.junit.Test;
 
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.LinkedList;
 import java.util.List;
@@ -25,6 +26,7 @@ public class BinaryClockPatternTest {
     private static final BinaryClockRowPattern ONE_MINUTE_FOUR_CELLS = new BinaryClockRowPattern(ONE_MINUTE, TimeUnit.MINUTES, FOUR_CELLS);
     private static final String ROW_LIST_CHANGED_WITHOUT_EXCEPTION = "Validation returns another clock row list without exception!";
     private static final String INVALID_MOST_PRECISION_ROW_SELECTED = "Invalid most precision row selected!";
+    private static final String INVALID_EQUALITY = "Equality of patterns is invalid!";
 
     @Test
     public void testValidClock() {
@@ -86,4 +88,26 @@ public class BinaryClockPatternTest {
         final List<BinaryClockRowPattern> clockRows = new LinkedList<>();
         final BinaryClockPattern pattern = new BinaryClockPattern(clockRows);
     }
-}
\ No newline at end of file
+
+    @Test
+    public void testValueEquality() {
+        final List<BinaryClockRowPattern> clockRows = new ArrayList<>(Arrays.asList(
+                FIVE_HOURS_FOUR_CELLS,
+                ONE_HOUR_FOUR_CELLS,
+                FIVE_MINUTES_ELEVEN_CELLS,
+                ONE_MINUTE_FOUR_CELLS
+        ));
+        final BinaryClockPattern pattern = new BinaryClockPattern(clockRows);
+        final BinaryClockPattern samePattern = new BinaryClockPattern(Arrays.asList(
+                new BinaryClockRowPattern(FIVE_HOURS, TimeUnit.HOURS, FOUR_CELLS),
+                new BinaryClockRowPattern(ONE_HOUR, TimeUnit.HOURS, FOUR_CELLS),
+                new BinaryClockRowPattern(FIVE_MINUTES, TimeUnit.MINUTES, ELEVEN_CELLS),
+                new BinaryClockRowPattern(ONE_MINUTE, TimeUnit.MINUTES, FOUR_CELLS)
+        ));
+        assertThat(INVALID_EQUALITY, pattern, is(samePattern));
+        assertThat(INVALID_EQUALITY, pattern.hashCode(), is(samePattern.hashCode()));
+        clockRows.add(ONE_MINUTE_FOUR_CELLS);
+        assertThat(INVALID_EQUALITY, pattern, is(samePattern));
+        assertThat(INVALID_EQUALITY, pattern.equals(new BinaryClockPattern(clockRows)), is(false));
+    }
+}
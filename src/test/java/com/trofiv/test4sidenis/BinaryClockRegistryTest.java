@@ -0,0 +1,48 @@
+package com.trofiv.test4sidenis;
+
+import com.trofiv.test4sidenis.binaryclock.BerlinBinaryClock;
+import com.trofiv.test4sidenis.binaryclock.BinaryClockPattern;
+import com.trofiv.test4sidenis.binaryclock.BinaryClockRegistry;
+import com.trofiv.test4sidenis.binaryclock.BinaryClockRowPattern;
+import com.trofiv.test4sidenis.binaryclock.GenericBinaryClock;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.sameInstance;
+import static org.junit.Assert.assertThat;
+
+public class BinaryClockRegistryTest {
+    private static final String CLOCK_NOT_SHARED = "Clock of equal pattern was not shared!";
+
+    @Test
+    public void testBerlinClockShared() {
+        assertThat(CLOCK_NOT_SHARED, BinaryClockRegistry.clockOf(
+                new ArrayList<>(BerlinBinaryClock.BERLIN_CLOCK_PATTERN.getClockRows())),
+                sameInstance((GenericBinaryClock) BerlinBinaryClock.shared()));
+    }
+
+    @SuppressWarnings("MagicNumber")
+    @Test
+    public void testEqualPatternsShareClock() {
+        final List<BinaryClockRowPattern> clockRows = Arrays.asList(
+                new BinaryClockRowPattern(3, TimeUnit.HOURS, 8),
+                new BinaryClockRowPattern(1, TimeUnit.MINUTES, 179),
+                new BinaryClockRowPattern(1, TimeUnit.SECONDS, 59));
+        final GenericBinaryClock clock = BinaryClockRegistry.clockOf(clockRows);
+        final BinaryClockPattern equalPattern = new BinaryClockPattern(Arrays.asList(
+                new BinaryClockRowPattern(3, TimeUnit.HOURS, 8),
+                new BinaryClockRowPattern(1, TimeUnit.MINUTES, 179),
+                new BinaryClockRowPattern(1, TimeUnit.SECONDS, 59)));
+        assertThat(CLOCK_NOT_SHARED, BinaryClockRegistry.clockOf(equalPattern), sameInstance(clock));
+        assertThat(CLOCK_NOT_SHARED, BinaryClockRegistry.clockOf(new ArrayList<>(clockRows)), sameInstance(clock));
+        assertThat(CLOCK_NOT_SHARED, BinaryClockRegistry.intern(equalPattern), sameInstance(clock.getClockPattern()));
+        assertThat(CLOCK_NOT_SHARED, BinaryClockRegistry.intern(equalPattern).compile(),
+                sameInstance(clock.getClockPattern().compile()));
+        assertThat(CLOCK_NOT_SHARED, clock.getClockPattern(), is(equalPattern));
+    }
+}
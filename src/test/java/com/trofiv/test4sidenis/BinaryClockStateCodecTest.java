@@ -0,0 +1,85 @@
+package com.trofiv.test4sidenis;
+
+import com.trofiv.test4sidenis.binaryclock.BerlinBinaryClock;
+import com.trofiv.test4sidenis.binaryclock.BinaryClockBatch;
+import com.trofiv.test4sidenis.binaryclock.BinaryClockPattern;
+import com.trofiv.test4sidenis.binaryclock.BinaryClockRowPattern;
+import com.trofiv.test4sidenis.binaryclock.BinaryClockStateCodec;
+import com.trofiv.test4sidenis.binaryclock.GenericBinaryClock;
+import org.junit.Test;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.LongStream;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertThat;
+
+@SuppressWarnings("MagicNumber")
+public class BinaryClockStateCodecTest {
+    private static final int BERLIN_STATE_BITS = 19;
+    private static final int SECONDS_IN_DAY = 86400;
+    private static final String INVALID_DECODED_STATE = "Decoded state differs from encoded!";
+
+    @Test
+    public void testBerlinStateFitsLong() {
+        final BinaryClockStateCodec codec = new BinaryClockStateCodec(BerlinBinaryClock.BERLIN_CLOCK_PATTERN);
+        assertThat(codec.getTotalBits(), is(BERLIN_STATE_BITS));
+        assertThat(codec.getWordsPerState(), is(1));
+        final GenericBinaryClock clock = new BerlinBinaryClock();
+        final int[] lightCells = new int[5];
+        final int[] decoded = new int[5];
+        for (int second = 0; second < SECONDS_IN_DAY; second++) {
+            clock.calculateLightCells(TimeUnit.SECONDS.toNanos(second), lightCells);
+            assertArrayEquals(INVALID_DECODED_STATE, lightCells, codec.decode(codec.encode(lightCells), decoded));
+        }
+    }
+
+    @Test
+    public void testWideStateSpansWords() {
+        final List<BinaryClockRowPattern> clockRows = new ArrayList<>();
+        clockRows.add(new BinaryClockRowPattern(1, TimeUnit.HOURS, 24));
+        for (int rowNumber = 0; rowNumber < 10; rowNumber++) {
+            clockRows.add(new BinaryClockRowPattern(1, TimeUnit.MICROSECONDS, (1 << 20) + rowNumber));
+        }
+        final BinaryClockStateCodec codec = new BinaryClockStateCodec(new BinaryClockPattern(clockRows));
+        assertThat(codec.getTotalBits(), is(5 + 10 * 21));
+        assertThat(codec.getWordsPerState(), is(4));
+        final Random random = new Random(42);
+        final long[] words = new long[codec.getWordsPerState() + 1];
+        final int[] lightCells = new int[clockRows.size()];
+        final int[] decoded = new int[clockRows.size()];
+        for (int sample = 0; sample < 1000; sample++) {
+            for (int rowNumber = 0; rowNumber < lightCells.length; rowNumber++) {
+                lightCells[rowNumber] = random.nextInt(clockRows.get(rowNumber).getCellsInRow() + 1);
+            }
+            codec.encode(lightCells, words, 1);
+            assertArrayEquals(INVALID_DECODED_STATE, lightCells, codec.decode(words, 1, decoded));
+        }
+    }
+
+    @Test
+    public void testTimelineRoundTrip() {
+        final BinaryClockStateCodec codec = new BinaryClockStateCodec(BerlinBinaryClock.BERLIN_CLOCK_PATTERN);
+        final BinaryClockBatch batch = new BerlinBinaryClock().calculateLightCells(
+                LongStream.range(0, SECONDS_IN_DAY).map(TimeUnit.SECONDS::toNanos).toArray());
+        final long[] states = codec.encode(batch);
+        final ByteBuffer buffer = ByteBuffer.allocateDirect(codec.timelineBytes(states.length));
+        codec.writeTimeline(buffer, states);
+        assertThat(buffer.remaining(), is(0));
+        buffer.flip();
+        final BinaryClockBatch decoded = codec.decode(codec.readTimeline(buffer));
+        for (int rowNumber = 0; rowNumber < batch.getRowCount(); rowNumber++) {
+            assertArrayEquals(INVALID_DECODED_STATE, batch.getRowColumn(rowNumber), decoded.getRowColumn(rowNumber));
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testInvalidLightCellsCount() {
+        new BinaryClockStateCodec(BerlinBinaryClock.BERLIN_CLOCK_PATTERN).encode(new int[]{5, 0, 0, 0, 0});
+    }
+}
@@ -0,0 +1,156 @@
+package com.trofiv.test4sidenis;
+
+import com.trofiv.test4sidenis.binaryclock.BerlinBinaryClock;
+import com.trofiv.test4sidenis.binaryclock.BinaryClockPattern;
+import com.trofiv.test4sidenis.binaryclock.BinaryClockRowPattern;
+import com.trofiv.test4sidenis.binaryclock.BinaryClockRowRepresentation;
+import com.trofiv.test4sidenis.binaryclock.CellUsage;
+import com.trofiv.test4sidenis.binaryclock.CellUsageAggregator;
+import com.trofiv.test4sidenis.binaryclock.CompiledBinaryClockPattern;
+import org.junit.Test;
+
+import java.time.LocalTime;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.LongStream;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+
+@SuppressWarnings("MagicNumber")
+public class CellUsageAggregatorTest {
+    private static final String INVALID_USAGE = "Aggregated usage differs from expected!";
+    private static final long SECOND_NANOS = TimeUnit.SECONDS.toNanos(1);
+
+    /**
+     * Every second of day: first cell of five-hours row is lit from 05:00, i.e. 19 hours of 24,
+     * and each light count of minutes row is used equally
+     */
+    @Test
+    public void testWholeDay() {
+        final long[] seconds = LongStream.range(0, 86400).map(second -> second * SECOND_NANOS).toArray();
+        final CellUsage usage = new CellUsageAggregator(BerlinBinaryClock.BERLIN_CLOCK_PATTERN,
+                ForkJoinPool.commonPool(), 1000).aggregate(seconds);
+        assertThat(INVALID_USAGE, usage.getTotal(), is(86400L));
+        assertThat(INVALID_USAGE, usage.getCellLitCounts(0), is(new long[]{19 * 3600, 14 * 3600, 9 * 3600, 4 * 3600}));
+        assertThat(INVALID_USAGE, usage.getCellLitFrequencies(0)[0], is(19.0 / 24));
+        assertThat(INVALID_USAGE, usage.getLightCountHistogram(3), is(new long[]{17280, 17280, 17280, 17280, 17280}));
+        assertThat(INVALID_USAGE, usage.getCellLitCounts(4)[58], is(1440L));
+    }
+
+    /**
+     * Compares parallel aggregation of random times with counting of representations of each time
+     */
+    @Test
+    public void testSameAsRepresentations() {
+        final Random random = new Random(42L);
+        final long[] nanosOfDay = new long[20_000];
+        final long[][] expected = new long[5][];
+        for (int rowNumber = 0; rowNumber < 5; rowNumber++) {
+            expected[rowNumber] = new long[BerlinBinaryClock.BERLIN_CLOCK_PATTERN.getClockRows().get(rowNumber)
+                    .getCellsInRow()];
+        }
+        final BerlinBinaryClock clock = BerlinBinaryClock.shared();
+        for (int index = 0; index < nanosOfDay.length; index++) {
+            nanosOfDay[index] = (random.nextLong() & Long.MAX_VALUE) % TimeUnit.DAYS.toNanos(1);
+            final List<BinaryClockRowRepresentation> rows = clock.of(LocalTime.ofNanoOfDay(nanosOfDay[index]),
+                    representation -> representation);
+            for (int rowNumber = 0; rowNumber < 5; rowNumber++) {
+                for (int cellNumber = 0; cellNumber < rows.get(rowNumber).getLightCellsCount(); cellNumber++) {
+                    expected[rowNumber][cellNumber]++;
+                }
+            }
+        }
+        final CellUsageAggregator aggregator = new CellUsageAggregator(BerlinBinaryClock.BERLIN_CLOCK_PATTERN,
+                ForkJoinPool.commonPool(), 512);
+        final CellUsage fromArray = aggregator.aggregate(nanosOfDay);
+        final CellUsage fromStream = aggregator.aggregate(LongStream.of(nanosOfDay).parallel());
+        for (int rowNumber = 0; rowNumber < 5; rowNumber++) {
+            assertThat(INVALID_USAGE, fromArray.getCellLitCounts(rowNumber), is(expected[rowNumber]));
+            assertThat(INVALID_USAGE, fromStream.getCellLitCounts(rowNumber), is(expected[rowNumber]));
+            assertThat(INVALID_USAGE, fromStream.getLightCountHistogram(rowNumber),
+                    is(fromArray.getLightCountHistogram(rowNumber)));
+        }
+        assertThat(INVALID_USAGE, fromStream.getTotal(), is((long) nanosOfDay.length));
+    }
+
+    /**
+     * Pattern with nanosecond row has too many units of time in day, so each time is evaluated
+     */
+    @Test
+    public void testFineGrainedPattern() {
+        final BinaryClockPattern pattern = new BinaryClockPattern(Arrays.asList(
+                new BinaryClockRowPattern(1, TimeUnit.HOURS, 23),
+                new BinaryClockRowPattern(1, TimeUnit.MILLISECONDS, 3_599_999),
+                new BinaryClockRowPattern(1, TimeUnit.NANOSECONDS, 999_999)));
+        final CompiledBinaryClockPattern compiled = pattern.compile();
+        final Random random = new Random(7L);
+        final long[] nanosOfDay = new long[5_000];
+        final long[][] expected = new long[3][];
+        for (int rowNumber = 0; rowNumber < 3; rowNumber++) {
+            expected[rowNumber] = new long[compiled.getCellsInRow(rowNumber) + 1];
+        }
+        final int[] lightCells = new int[3];
+        for (int index = 0; index < nanosOfDay.length; index++) {
+            nanosOfDay[index] = (random.nextLong() & Long.MAX_VALUE) % TimeUnit.DAYS.toNanos(1);
+            compiled.evaluate(nanosOfDay[index], lightCells);
+            for (int rowNumber = 0; rowNumber < 3; rowNumber++) {
+                expected[rowNumber][lightCells[rowNumber]]++;
+            }
+        }
+        final CellUsageAggregator aggregator = new CellUsageAggregator(pattern, ForkJoinPool.commonPool(), 512);
+        final CellUsage fromArray = aggregator.aggregate(nanosOfDay);
+        final CellUsage fromStream = aggregator.aggregate(LongStream.of(nanosOfDay));
+        for (int rowNumber = 0; rowNumber < 3; rowNumber++) {
+            assertThat(INVALID_USAGE, fromArray.getLightCountHistogram(rowNumber), is(expected[rowNumber]));
+            assertThat(INVALID_USAGE, fromStream.getLightCountHistogram(rowNumber), is(expected[rowNumber]));
+        }
+    }
+
+    /**
+     * Chunks and streams larger than count of seconds in day are counted by units of time, result must be the
+     * same as evaluation of each time
+     */
+    @Test
+    public void testUnitCounting() {
+        final CompiledBinaryClockPattern compiled = BerlinBinaryClock.BERLIN_CLOCK_PATTERN.compile();
+        final Random random = new Random(11L);
+        final long[] nanosOfDay = new long[250_000];
+        final long[][] expected = new long[5][];
+        for (int rowNumber = 0; rowNumber < 5; rowNumber++) {
+            expected[rowNumber] = new long[compiled.getCellsInRow(rowNumber) + 1];
+        }
+        final int[] lightCells = new int[5];
+        for (int index = 0; index < nanosOfDay.length; index++) {
+            nanosOfDay[index] = (random.nextLong() & Long.MAX_VALUE) % TimeUnit.DAYS.toNanos(1);
+            compiled.evaluate(nanosOfDay[index], lightCells);
+            for (int rowNumber = 0; rowNumber < 5; rowNumber++) {
+                expected[rowNumber][lightCells[rowNumber]]++;
+            }
+        }
+        final CellUsageAggregator aggregator = new CellUsageAggregator(BerlinBinaryClock.BERLIN_CLOCK_PATTERN,
+                new ForkJoinPool(2), 100_000);
+        final CellUsage fromArray = aggregator.aggregate(nanosOfDay);
+        final CellUsage fromStream = aggregator.aggregate(LongStream.of(nanosOfDay));
+        for (int rowNumber = 0; rowNumber < 5; rowNumber++) {
+            assertThat(INVALID_USAGE, fromArray.getLightCountHistogram(rowNumber), is(expected[rowNumber]));
+            assertThat(INVALID_USAGE, fromStream.getLightCountHistogram(rowNumber), is(expected[rowNumber]));
+        }
+        assertThat(INVALID_USAGE, fromStream.getTotal(), is((long) nanosOfDay.length));
+    }
+
+    @Test
+    public void testEmpty() {
+        final CellUsage usage = new CellUsageAggregator(BerlinBinaryClock.BERLIN_CLOCK_PATTERN)
+                .aggregate(new long[0]);
+        assertThat(INVALID_USAGE, usage.getCellLitFrequencies(2), is(new double[11]));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testInvalidTime() {
+        new CellUsageAggregator(BerlinBinaryClock.BERLIN_CLOCK_PATTERN).aggregate(new long[]{-1L});
+    }
+}
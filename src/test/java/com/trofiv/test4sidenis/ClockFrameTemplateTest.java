@@ -0,0 +1,98 @@
+package com.trofiv.test4sidenis;
+
+import com.trofiv.test4sidenis.binaryclock.BerlinBinaryClock;
+import com.trofiv.test4sidenis.binaryclock.BinaryClockPattern;
+import com.trofiv.test4sidenis.binaryclock.BinaryClockRowPattern;
+import com.trofiv.test4sidenis.binaryclock.GenericBinaryClock;
+import com.trofiv.test4sidenis.binaryclock.format.ClockFrame;
+import com.trofiv.test4sidenis.binaryclock.format.ClockFrameTemplate;
+import com.trofiv.test4sidenis.binaryclock.format.ClockFormatter;
+import org.junit.Test;
+
+import java.io.StringWriter;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalTime;
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+
+@SuppressWarnings("MagicNumber")
+public class ClockFrameTemplateTest {
+    private static final String INVALID_FRAME = "Rendered frame differs from expected!";
+
+    @SuppressWarnings("HardcodedLineSeparator")
+    @Test
+    public void testBerlinLayout() {
+        final ClockFrameTemplate template = ClockFrameTemplate.berlinClock();
+        final ClockFrame frame = template.render(new int[]{2, 1, 3, 4, 7}, template.newFrame());
+        assertThat(INVALID_FRAME, frame.toString(), is("[X]\n"
+                + "[X][X][ ][ ]\n"
+                + "[X][ ][ ][ ]\n"
+                + "[X][X][X][ ][ ][ ][ ][ ][ ][ ][ ]\n"
+                + "[X][X][X][X]\n"));
+    }
+
+    /**
+     * Renders all seconds of day to the same frame and compares it with formatter
+     * that builds string from scratch
+     */
+    @Test
+    public void testSameAsFormatterForWholeDay() {
+        final BerlinBinaryClock clock = new BerlinBinaryClock();
+        final ClockFrameTemplate template = ClockFrameTemplate.berlinClock();
+        final ClockFrame frame = template.newFrame();
+        final int[] lightCells = new int[5];
+        final StringBuilder text = new StringBuilder(template.getFrameLength());
+        for (int second = 0; second < 86400; second++) {
+            final long nanoOfDay = TimeUnit.SECONDS.toNanos(second);
+            template.render(clock.calculateLightCells(nanoOfDay, lightCells), frame);
+            text.setLength(0);
+            assertThat(INVALID_FRAME, frame.writeTo(text).toString(),
+                    is(clock.of(LocalTime.ofNanoOfDay(nanoOfDay), ClockFormatter.BERLIN_CLOCK_FORMATTER)));
+        }
+    }
+
+    @Test
+    public void testBufferDestinations() {
+        final ClockFrameTemplate template = ClockFrameTemplate.berlinClock();
+        final ClockFrame frame = template.render(new int[]{4, 3, 11, 4, 59}, template.newFrame());
+        final CharBuffer charBuffer = frame.writeTo(CharBuffer.allocate(template.getFrameLength()));
+        charBuffer.flip();
+        assertThat(INVALID_FRAME, charBuffer.toString(), is(frame.toString()));
+        final ByteBuffer byteBuffer = frame.writeTo(ByteBuffer.allocate(template.getFrameLength()));
+        assertThat(INVALID_FRAME, new String(byteBuffer.array(), StandardCharsets.UTF_8), is(frame.toString()));
+        assertThat(INVALID_FRAME, frame.writeTo(new StringWriter()).toString(), is(frame.toString()));
+    }
+
+    /**
+     * Renders random states of pattern with wide rows to the same frame, and compares it with fresh frame
+     */
+    @Test
+    public void testIncrementalRenderingOfWideRows() {
+        final BinaryClockPattern pattern = new BinaryClockPattern(Arrays.asList(
+                new BinaryClockRowPattern(1, TimeUnit.MINUTES, 1440),
+                new BinaryClockRowPattern(1, TimeUnit.MILLISECONDS, 60000)));
+        final ClockFrameTemplate template = ClockFrameTemplate.of(pattern);
+        final GenericBinaryClock clock = new GenericBinaryClock(pattern);
+        final ClockFrame frame = template.newFrame();
+        final int[] lightCells = new int[2];
+        final Random random = new Random(42L);
+        for (int i = 0; i < 100; i++) {
+            clock.calculateLightCells(random.nextInt(86_400_000) * 1_000_000L, lightCells);
+            assertThat(INVALID_FRAME, template.render(lightCells, frame).toString(),
+                    is(template.render(lightCells, template.newFrame()).toString()));
+        }
+        assertThat(INVALID_FRAME, template.getFrameLength(), is(3 * (1440 + 60000) + 2));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testInvalidLightCells() {
+        final ClockFrameTemplate template = ClockFrameTemplate.berlinClock();
+        template.render(new int[4], template.newFrame());
+    }
+}
@@ -0,0 +1,143 @@
+package com.trofiv.test4sidenis;
+
+import com.trofiv.test4sidenis.binaryclock.BerlinBinaryClock;
+import com.trofiv.test4sidenis.binaryclock.format.ClockFormatter;
+import com.trofiv.test4sidenis.server.ClockHttpServer;
+import com.trofiv.test4sidenis.server.ClockLoadGenerator;
+import com.trofiv.test4sidenis.server.ClockResponseCache;
+import com.trofiv.test4sidenis.server.ClockResponseFormat;
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.time.Clock;
+import java.time.Instant;
+import java.time.LocalTime;
+import java.time.ZoneOffset;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
+
+@SuppressWarnings("MagicNumber")
+public class ClockHttpServerTest {
+    private static final Clock NOON = Clock.fixed(Instant.parse("2016-01-01T12:00:00Z"), ZoneOffset.UTC);
+    private static final BerlinBinaryClock CLOCK = new BerlinBinaryClock();
+
+    @SuppressWarnings("StaticVariableMayNotBeInitialized")
+    private static ClockHttpServer server;
+
+    @BeforeClass
+    public static void setUp() throws IOException {
+        server = new ClockHttpServer(0, 2, NOON);
+        server.start();
+    }
+
+    @AfterClass
+    public static void tearDown() {
+        server.stop();
+    }
+
+    private static HttpURLConnection request(final String pathAndQuery) throws IOException {
+        return (HttpURLConnection) new URL("http://localhost:" + server.getPort() + pathAndQuery).openConnection();
+    }
+
+    private static String body(final HttpURLConnection connection) throws IOException {
+        try (InputStream input = connection.getResponseCode() < 400
+                ? connection.getInputStream()
+                : connection.getErrorStream()) {
+            final ByteArrayOutputStream output = new ByteArrayOutputStream();
+            final byte[] buffer = new byte[1024];
+            int read;
+            while ((read = input.read(buffer)) >= 0) {
+                output.write(buffer, 0, read);
+            }
+            return new String(output.toByteArray(), StandardCharsets.UTF_8);
+        }
+    }
+
+    @Test
+    public void testGridFormat() throws IOException {
+        final HttpURLConnection connection = request("/berlin?time=13:17:01");
+        assertThat(connection.getResponseCode(), is(200));
+        assertThat(body(connection), is(CLOCK.of(LocalTime.of(13, 17, 1), ClockFormatter.BERLIN_CLOCK_FORMATTER)));
+    }
+
+    @Test
+    public void testReadableFormat() throws IOException {
+        final HttpURLConnection connection = request("/berlin?format=readable&time=13%3A17%3A01.5");
+        assertThat(connection.getResponseCode(), is(200));
+        assertThat(body(connection), is(CLOCK.of(LocalTime.of(13, 17, 1), ClockFormatter.READABLE_FORMATTER)));
+    }
+
+    @Test
+    public void testNow() throws IOException {
+        final HttpURLConnection connection = request("/berlin/now");
+        assertThat(connection.getResponseCode(), is(200));
+        assertThat(body(connection), is(CLOCK.of(LocalTime.NOON, ClockFormatter.BERLIN_CLOCK_FORMATTER)));
+    }
+
+    @Test
+    public void testNotModified() throws IOException {
+        final HttpURLConnection first = request("/berlin?time=01:02:03");
+        assertThat(first.getResponseCode(), is(200));
+        final String entityTag = first.getHeaderField("ETag");
+        body(first);
+        final HttpURLConnection second = request("/berlin?time=01:02:03");
+        second.setRequestProperty("If-None-Match", entityTag);
+        assertThat(second.getResponseCode(), is(304));
+    }
+
+    @Test
+    public void testNotModifiedByList() throws IOException {
+        final HttpURLConnection first = request("/berlin?time=01:02:04");
+        final String entityTag = first.getHeaderField("ETag");
+        body(first);
+        for (String header : new String[]{"\"other\", " + entityTag, "W/" + entityTag, "*"}) {
+            final HttpURLConnection second = request("/berlin?time=01:02:04");
+            second.setRequestProperty("If-None-Match", header);
+            assertThat(header, second.getResponseCode(), is(304));
+        }
+        final HttpURLConnection changed = request("/berlin?time=01:02:04");
+        changed.setRequestProperty("If-None-Match", "\"other\", W/\"another\"");
+        assertThat(changed.getResponseCode(), is(200));
+        body(changed);
+    }
+
+    @Test
+    public void testFormatInTurkishLocale() throws IOException {
+        final Locale defaultLocale = Locale.getDefault();
+        Locale.setDefault(new Locale("tr", "TR"));
+        try {
+            assertThat(request("/berlin?time=10:00:00&format=grid").getResponseCode(), is(200));
+            assertThat(new ClockResponseCache().get(LocalTime.of(10, 0), ClockResponseFormat.GRID).getEntityTag(),
+                    is("\"grid-36000\""));
+        } finally {
+            Locale.setDefault(defaultLocale);
+        }
+    }
+
+    @Test
+    public void testBadRequests() throws IOException {
+        assertThat(request("/berlin?time=25:00:00").getResponseCode(), is(400));
+        assertThat(request("/berlin?time=10:00:00&format=svg").getResponseCode(), is(400));
+        assertThat(request("/berlin").getResponseCode(), is(400));
+        assertThat(request("/berlin/unknown").getResponseCode(), is(404));
+    }
+
+    @Test
+    public void testLoadGenerator() throws Exception {
+        final ClockLoadGenerator generator = new ClockLoadGenerator(
+                new URL("http://localhost:" + server.getPort() + "/berlin/now"), 2, 1, TimeUnit.SECONDS);
+        assertTrue(generator.run() > 0);
+        assertThat(generator.getFailed(), is(0L));
+    }
+}
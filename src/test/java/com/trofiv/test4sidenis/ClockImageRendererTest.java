@@ -0,0 +1,133 @@
+package com.trofiv.test4sidenis;
+
+import com.trofiv.test4sidenis.binaryclock.BerlinBinaryClock;
+import com.trofiv.test4sidenis.binaryclock.BinaryClockPattern;
+import com.trofiv.test4sidenis.binaryclock.BinaryClockRowPattern;
+import com.trofiv.test4sidenis.binaryclock.format.ClockImageRenderer;
+import org.junit.Test;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.time.LocalTime;
+import java.util.Collections;
+import java.util.concurrent.TimeUnit;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.sameInstance;
+import static org.junit.Assert.assertThat;
+
+@SuppressWarnings("MagicNumber")
+public class ClockImageRendererTest {
+    private static final String INVALID_CELL = "Cell is rendered with wrong color!";
+    private static final String INVALID_IMAGE = "Image differs from expected!";
+    private static final int LIGHT_RGB = 0xFFFFC107;
+    private static final int DARK_RGB = 0xFF3C3C3C;
+    private static final int CELL_SIZE = 16;
+
+    /**
+     * Berlin clock at 13:17:01 with blink seconds row,: every cell center has color of its state
+     */
+    @Test
+    public void testBerlinClockImage() {
+        final ClockImageRenderer renderer = new ClockImageRenderer(BerlinBinaryClock.BERLIN_CLOCK_PATTERN,
+                CELL_SIZE, Integer.MAX_VALUE, Collections.singleton(4), 16);
+        assertThat(INVALID_IMAGE, renderer.getWidth(), is(11 * CELL_SIZE));
+        assertThat(INVALID_IMAGE, renderer.getHeight(), is(5 * CELL_SIZE));
+        final int[] lightCells = BerlinBinaryClock.BERLIN_CLOCK_PATTERN.compile()
+                .evaluate(LocalTime.of(13, 17, 1).toNanoOfDay(), new int[5]);
+        final BufferedImage image = renderer.render(lightCells, renderer.newImage());
+        assertCells(image, 0, 2, 4);
+        assertCells(image, 1, 3, 4);
+        assertCells(image, 2, 3, 11);
+        assertCells(image, 3, 2, 4);
+        assertCells(image, 4, 1, 1);
+        //rendering of other state to the same image overwrites all cells
+        renderer.render(new int[]{4, 4, 11, 4, 58}, image);
+        assertCells(image, 0, 4, 4);
+        assertCells(image, 2, 11, 11);
+        assertCells(image, 4, 0, 1);
+    }
+
+    /**
+     * Row of 25 cells wrapped by 10 cells per line has 7 lit cells in the first line, none after it
+     */
+    @Test
+    public void testWrappedRow() {
+        final BinaryClockPattern pattern = new BinaryClockPattern(Collections.singletonList(
+                new BinaryClockRowPattern(1, TimeUnit.HOURS, 25)));
+        final ClockImageRenderer renderer = new ClockImageRenderer(pattern, CELL_SIZE, 10,
+                Collections.emptySet(), 16);
+        assertThat(INVALID_IMAGE, renderer.getHeight(), is(3 * CELL_SIZE));
+        final BufferedImage image = renderer.render(new int[]{17}, renderer.newImage());
+        for (int cellNumber = 0; cellNumber < 25; cellNumber++) {
+            assertThat(INVALID_CELL, image.getRGB(cellNumber % 10 * CELL_SIZE + CELL_SIZE / 2,
+                    cellNumber / 10 * CELL_SIZE + CELL_SIZE / 2), is(cellNumber < 17 ? LIGHT_RGB : DARK_RGB));
+        }
+        assertThat("Space after last cell must be transparent!",
+                image.getRGB(5 * CELL_SIZE + CELL_SIZE / 2, 2 * CELL_SIZE + CELL_SIZE / 2), is(0));
+    }
+
+    @Test
+    public void testCachedPng() throws Exception {
+        final ClockImageRenderer renderer = new ClockImageRenderer(BerlinBinaryClock.BERLIN_CLOCK_PATTERN,
+                CELL_SIZE, Integer.MAX_VALUE, Collections.emptySet(), 1);
+        final int[] lightCells = {1, 2, 3, 4, 5};
+        final byte[] png = renderer.toPng(lightCells);
+        assertThat("PNG of the same state must be cached!", renderer.toPng(lightCells.clone()), sameInstance(png));
+        final BufferedImage decoded = ImageIO.read(new ByteArrayInputStream(png));
+        final BufferedImage rendered = renderer.render(lightCells, renderer.newImage());
+        for (int y = 0; y < rendered.getHeight(); y++) {
+            for (int x = 0; x < rendered.getWidth(); x++) {
+                assertThat(INVALID_IMAGE, decoded.getRGB(x, y), is(rendered.getRGB(x, y)));
+            }
+        }
+        final byte[] other = renderer.toPng(new int[]{0, 0, 0, 0, 0});
+        assertThat("Count of cached states must be limited!", renderer.getCachedStateCount(), is(1));
+        assertThat("The latest state must replace least recently used one!",
+                renderer.toPng(new int[]{0, 0, 0, 0, 0}), sameInstance(other));
+    }
+
+    @Test
+    public void testBlinkRowStatesShareImage() {
+        final ClockImageRenderer renderer = new ClockImageRenderer(BerlinBinaryClock.BERLIN_CLOCK_PATTERN,
+                CELL_SIZE, Integer.MAX_VALUE, Collections.singleton(4), 16);
+        final byte[] png = renderer.toPng(new int[]{1, 2, 3, 4, 1});
+        assertThat("States with the same blink parity must share image!",
+                renderer.toPng(new int[]{1, 2, 3, 4, 37}), sameInstance(png));
+        assertThat(INVALID_IMAGE, renderer.getCachedStateCount(), is(1));
+    }
+
+    @Test
+    public void testSvg() {
+        final ClockImageRenderer renderer = new ClockImageRenderer(BerlinBinaryClock.BERLIN_CLOCK_PATTERN, CELL_SIZE);
+        final String svg = renderer.formatSvgTo(new int[]{1, 2, 3, 4, 5}, new StringBuilder()).toString();
+        assertThat(INVALID_IMAGE, svg.startsWith("<svg xmlns=\"http://www.w3.org/2000/svg\" width=\"944\""), is(true));
+        assertThat(INVALID_IMAGE, count(svg, "#FFC107"), is(15));
+        assertThat(INVALID_IMAGE, count(svg, "#3C3C3C"), is(4 + 4 + 4 + 11 + 59 - 15));
+        assertThat(INVALID_IMAGE, svg.contains("<rect x=\"18\" y=\"18\" width=\"12\" height=\"12\" rx=\"1.0\" "
+                + "fill=\"#FFC107\"/>"), is(true));
+        assertThat(INVALID_IMAGE, renderer.apply(BerlinBinaryClock.shared().of(LocalTime.of(1, 2, 3),
+                rows -> rows)), is(renderer.formatSvgTo(new int[]{0, 1, 0, 2, 3}, new StringBuilder()).toString()));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testInvalidLightCells() {
+        new ClockImageRenderer(BerlinBinaryClock.BERLIN_CLOCK_PATTERN, CELL_SIZE).toPng(new int[]{5, 0, 0, 0, 0});
+    }
+
+    private static void assertCells(final BufferedImage image, final int rowNumber, final int lit, final int cells) {
+        for (int cellNumber = 0; cellNumber < cells; cellNumber++) {
+            assertThat(INVALID_CELL, image.getRGB(cellNumber * CELL_SIZE + CELL_SIZE / 2,
+                    rowNumber * CELL_SIZE + CELL_SIZE / 2), is(cellNumber < lit ? LIGHT_RGB : DARK_RGB));
+        }
+    }
+
+    private static int count(final String text, final String part) {
+        int count = 0;
+        for (int index = text.indexOf(part); index >= 0; index = text.indexOf(part, index + 1)) {
+            count++;
+        }
+        return count;
+    }
+}
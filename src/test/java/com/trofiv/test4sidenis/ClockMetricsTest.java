@@ -0,0 +1,117 @@
+package com.trofiv.test4sidenis;
+
+import com.trofiv.test4sidenis.binaryclock.BerlinBinaryClock;
+import com.trofiv.test4sidenis.binaryclock.BinaryClockPattern;
+import com.trofiv.test4sidenis.binaryclock.BinaryClockRowPattern;
+import com.trofiv.test4sidenis.binaryclock.metrics.CacheMetrics;
+import com.trofiv.test4sidenis.binaryclock.metrics.ClockMetrics;
+import com.trofiv.test4sidenis.binaryclock.metrics.LatencyHistogram;
+import org.junit.Test;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import static org.hamcrest.CoreMatchers.containsString;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.not;
+import static org.hamcrest.CoreMatchers.sameInstance;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
+
+@SuppressWarnings("MagicNumber")
+public class ClockMetricsTest {
+    private static final String INVALID_PERCENTILE = "Percentile estimate is out of bucket precision!";
+    private static final String INVALID_COUNT = "Count of recorded values is invalid!";
+    private static final String INVALID_HIT_RATIO = "Cache hit ratio is invalid!";
+    private static final String METRIC_NOT_EXPOSED = "Metric is not exposed!";
+    private static final String INVALID_HISTOGRAM = "Evaluation histogram is not kept per clock pattern!";
+
+    @Test
+    public void testHistogramPercentiles() {
+        final LatencyHistogram histogram = new LatencyHistogram("test");
+        for (long nanos = 1; nanos <= 10_000; nanos++) {
+            histogram.record(nanos);
+        }
+        histogram.record(-5);
+        assertThat(INVALID_COUNT, histogram.getCount(), is(10_001L));
+        assertThat(INVALID_PERCENTILE, histogram.getMaxNanos(), is(10_000L));
+        assertThat(INVALID_PERCENTILE, histogram.getPercentileNanos(0.0), is(0L));
+        assertThat(INVALID_PERCENTILE, histogram.getPercentileNanos(100.0), is(10_000L));
+        for (double percentile : new double[]{10.0, 50.0, 90.0, 99.0}) {
+            final long exact = (long) Math.ceil(percentile / 100.0 * 10_001) - 1;
+            final long estimate = histogram.getPercentileNanos(percentile);
+            assertTrue(INVALID_PERCENTILE, estimate >= exact && estimate <= exact * 1.25);
+        }
+        histogram.reset();
+        assertThat(INVALID_COUNT, histogram.getCount(), is(0L));
+        assertThat(INVALID_PERCENTILE, histogram.getPercentileNanos(99.0), is(0L));
+    }
+
+    @Test
+    public void testCacheHitRatio() {
+        final CacheMetrics cache = new CacheMetrics("test");
+        assertThat(INVALID_HIT_RATIO, cache.getHitRatio(), is(0.0));
+        cache.record(true);
+        cache.record(true);
+        cache.record(true);
+        cache.record(false);
+        assertThat(INVALID_HIT_RATIO, cache.getHitRatio(), is(0.75));
+    }
+
+    @Test
+    public void testMBean() throws JMException {
+        ClockMetrics.histogram("test:mbean").record(100);
+        ClockMetrics.cache("test:mbean").record(true);
+        ClockMetrics.registerMBean();
+        ClockMetrics.registerMBean();
+        final MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        final ObjectName name = new ObjectName(ClockMetrics.OBJECT_NAME);
+        assertThat(METRIC_NOT_EXPOSED, server.getAttribute(name, "Enabled"), is(ClockMetrics.ENABLED));
+        assertThat(METRIC_NOT_EXPOSED, server.getAttribute(name, "CallCounts").toString(), containsString("test:mbean"));
+        assertThat(METRIC_NOT_EXPOSED, (String) server.invoke(name, "dump", null, null), containsString("test:mbean"));
+    }
+
+    /**
+     * Histograms are kept per pattern fingerprint, and count of them is bounded, so test patterns are
+     * registered in single test
+     */
+    @Test
+    public void testEvaluationHistogramPerPattern() {
+        final BinaryClockPattern pattern = new BinaryClockPattern(Collections.singletonList(
+                new BinaryClockRowPattern(1, TimeUnit.HOURS, 24)));
+        final long berlinFingerprint = BerlinBinaryClock.BERLIN_CLOCK_PATTERN.fingerprint();
+        final LatencyHistogram berlin = ClockMetrics.evaluationHistogram(berlinFingerprint);
+        assertThat(INVALID_HISTOGRAM, ClockMetrics.evaluationHistogram(pattern.fingerprint()),
+                not(sameInstance(berlin)));
+        assertThat(INVALID_HISTOGRAM, ClockMetrics.evaluationHistogram(
+                new BinaryClockPattern(BerlinBinaryClock.BERLIN_CLOCK_PATTERN.getClockRows()).fingerprint()),
+                sameInstance(berlin));
+        assertThat(INVALID_HISTOGRAM, berlin.getName(),
+                is("evaluation:" + String.format("%016x", berlinFingerprint)));
+        final Set<LatencyHistogram> histograms = Collections.newSetFromMap(new IdentityHashMap<>());
+        for (long fingerprint = 0; fingerprint < 1000; fingerprint++) {
+            histograms.add(ClockMetrics.evaluationHistogram(fingerprint));
+        }
+        assertTrue("Count of evaluation histograms must be bounded!", histograms.size() <= 100);
+        assertThat(INVALID_HISTOGRAM, ClockMetrics.evaluationHistogram(berlinFingerprint), sameInstance(berlin));
+    }
+
+    @Test
+    public void testDumpInGermanLocale() {
+        ClockMetrics.cache("test:locale").record(true);
+        final Locale defaultLocale = Locale.getDefault();
+        Locale.setDefault(Locale.GERMANY);
+        try {
+            assertThat(METRIC_NOT_EXPOSED, ClockMetrics.dump(), containsString("1.0000"));
+        } finally {
+            Locale.setDefault(defaultLocale);
+        }
+    }
+}
@@ -0,0 +1,119 @@
+package com.trofiv.test4sidenis;
+
+import com.trofiv.test4sidenis.binaryclock.BerlinBinaryClock;
+import com.trofiv.test4sidenis.binaryclock.ClockPublisher;
+import com.trofiv.test4sidenis.binaryclock.format.ClockFormatter;
+import org.junit.Test;
+
+import java.time.Clock;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.not;
+import static org.hamcrest.CoreMatchers.sameInstance;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
+
+@SuppressWarnings("MagicNumber")
+public class ClockPublisherTest {
+    private static final String FRAMES_NOT_DELIVERED = "Frames are not delivered!";
+    private static final String INVALID_TOPICS = "Count of topics is invalid!";
+
+    @Test
+    public void testManySubscribers() throws InterruptedException {
+        final int subscriberCount = 10_000;
+        final CountDownLatch changedFrames = new CountDownLatch(subscriberCount);
+        final List<ClockPublisher.Subscription> subscriptions = new ArrayList<>(subscriberCount);
+        try (ClockPublisher publisher = new ClockPublisher(Clock.systemDefaultZone())) {
+            for (int i = 0; i < subscriberCount; i++) {
+                final AtomicInteger frames = new AtomicInteger();
+                subscriptions.add(publisher.subscribe(BerlinBinaryClock.BERLIN_CLOCK_PATTERN,
+                        ClockFormatter.BERLIN_CLOCK_FORMATTER, frame -> {
+                            if (frames.incrementAndGet() == 2) {
+                                changedFrames.countDown();
+                            }
+                        }));
+            }
+            assertThat(INVALID_TOPICS, publisher.getTopicCount(), is(1));
+            assertTrue(FRAMES_NOT_DELIVERED, changedFrames.await(10, TimeUnit.SECONDS));
+            final long timerThreads = Thread.getAllStackTraces().keySet().stream()
+                    .filter(thread -> "clock-publisher-timer".equals(thread.getName()))
+                    .count();
+            assertThat("Publisher must use single timer thread!", timerThreads, is(1L));
+            subscriptions.forEach(ClockPublisher.Subscription::close);
+            assertThat(INVALID_TOPICS, publisher.getTopicCount(), is(0));
+        }
+    }
+
+    @Test
+    public void testSharedFrames() throws InterruptedException {
+        final CountDownLatch delivered = new CountDownLatch(3);
+        final Object[] frames = new Object[3];
+        try (ClockPublisher publisher = new ClockPublisher(Clock.systemDefaultZone(), Runnable::run)) {
+            final ClockPublisher.Subscription first = publisher.subscribe(BerlinBinaryClock.BERLIN_CLOCK_PATTERN,
+                    ClockFormatter.BERLIN_CLOCK_FORMATTER, frame -> {
+                        frames[0] = frame;
+                        delivered.countDown();
+                    });
+            publisher.subscribe(BerlinBinaryClock.BERLIN_CLOCK_PATTERN, ClockFormatter.BERLIN_CLOCK_FORMATTER,
+                    frame -> {
+                        frames[1] = frame;
+                        delivered.countDown();
+                    });
+            publisher.subscribe(BerlinBinaryClock.BERLIN_CLOCK_PATTERN, ClockFormatter.READABLE_FORMATTER,
+                    frame -> {
+                        frames[2] = frame;
+                        delivered.countDown();
+                    });
+            assertTrue(FRAMES_NOT_DELIVERED, delivered.await(5, TimeUnit.SECONDS));
+            assertThat(INVALID_TOPICS, publisher.getTopicCount(), is(2));
+            assertThat("Equal topics must share frames!", frames[1], sameInstance(frames[0]));
+            assertThat("Different formatters must not share frames!", frames[2], not(frames[0]));
+            first.close();
+            assertThat(INVALID_TOPICS, publisher.getTopicCount(), is(2));
+        }
+    }
+
+    /**
+     * Deliveries are held until seconds row changed several times, then only the latest frame is delivered
+     */
+    @Test
+    public void testConflation() throws InterruptedException {
+        final Queue<Runnable> deliveries = new ConcurrentLinkedQueue<>();
+        final List<String> frames = new ArrayList<>();
+        try (ClockPublisher publisher = new ClockPublisher(Clock.systemDefaultZone(), deliveries::add)) {
+            publisher.subscribe(BerlinBinaryClock.BERLIN_CLOCK_PATTERN, ClockFormatter.BERLIN_CLOCK_FORMATTER,
+                    frames::add);
+            TimeUnit.MILLISECONDS.sleep(2500L);
+            assertThat("Delivery must be scheduled once!", deliveries.size(), is(1));
+            deliveries.poll().run();
+            assertThat("Only the latest frame must be delivered!", frames.size(), is(1));
+            assertTrue("Frames must be conflated!", publisher.getConflatedFrames() >= 2);
+        }
+    }
+
+    /**
+     * Formatter fails on the first publication, topic must keep publishing frames after it
+     */
+    @Test
+    public void testFailedRender() throws InterruptedException {
+        final AtomicInteger renders = new AtomicInteger();
+        final CountDownLatch delivered = new CountDownLatch(2);
+        try (ClockPublisher publisher = new ClockPublisher(Clock.systemDefaultZone(), Runnable::run)) {
+            publisher.subscribe(BerlinBinaryClock.BERLIN_CLOCK_PATTERN, rows -> {
+                if (renders.incrementAndGet() == 2) {
+                    throw new IllegalStateException("Formatter failure");
+                }
+                return ClockFormatter.BERLIN_CLOCK_FORMATTER.apply(rows);
+            }, frame -> delivered.countDown());
+            assertTrue(FRAMES_NOT_DELIVERED, delivered.await(5, TimeUnit.SECONDS));
+            assertThat("Failed render must be counted!", publisher.getFailedRenders(), is(1L));
+        }
+    }
+}
@@ -0,0 +1,105 @@
+package com.trofiv.test4sidenis;
+
+import com.trofiv.test4sidenis.binaryclock.BinaryClockPattern;
+import com.trofiv.test4sidenis.binaryclock.BinaryClockRowPattern;
+import com.trofiv.test4sidenis.binaryclock.format.ClockRenderLoop;
+import org.junit.Assume;
+import org.junit.Test;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.time.Clock;
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
+
+@SuppressWarnings("MagicNumber")
+public class ClockRenderLoopTest {
+    private static final BinaryClockPattern MILLISECOND_PATTERN = new BinaryClockPattern(Arrays.asList(
+            new BinaryClockRowPattern(1, TimeUnit.HOURS, 23),
+            new BinaryClockRowPattern(1, TimeUnit.MINUTES, 59),
+            new BinaryClockRowPattern(1, TimeUnit.SECONDS, 59),
+            new BinaryClockRowPattern(1, TimeUnit.MILLISECONDS, 999)));
+
+    /**
+     * Runs loop at 1 kHz and checks order of frames, accounting of missed frames and allocation of rendering
+     * thread in steady state. Frames and missed frames must cover time between the first and the last frame,
+     * that holds however slow machine is, so count of frames is not checked against wall clock.
+     */
+    @Test
+    public void testMillisecondLoop() throws InterruptedException {
+        final long periodNanos = TimeUnit.MILLISECONDS.toNanos(1);
+        final long[] allocatedBytes = new long[2];
+        final long[] nanosOfDay = {-1L, -1L};
+        final boolean[] ordered = {true};
+        final ClockRenderLoop loop = new ClockRenderLoop(MILLISECOND_PATTERN, 1, TimeUnit.MILLISECONDS,
+                Clock.systemDefaultZone(), (nanoOfDay, frame) -> {
+            ordered[0] &= nanoOfDay > nanosOfDay[1] && frame.length() == 3 * (23 + 59 + 59 + 999) + 4;
+            if (nanosOfDay[0] < 0) {
+                nanosOfDay[0] = nanoOfDay;
+            }
+            nanosOfDay[1] = nanoOfDay;
+        });
+        loop.start();
+        TimeUnit.MILLISECONDS.sleep(200L);
+        final long threadId = findThread("clock-render-loop").getId();
+        allocatedBytes[0] = allocatedBytes(threadId);
+        TimeUnit.MILLISECONDS.sleep(300L);
+        allocatedBytes[1] = allocatedBytes(threadId);
+        loop.stop();
+        Assume.assumeTrue("Loop must not cross midnight!", nanosOfDay[1] >= nanosOfDay[0]);
+        assertTrue("Frames must be rendered in order of time!", ordered[0]);
+        assertTrue("Loop must render frames!", loop.getFrameCount() > 0);
+        assertTrue("Skipped deadlines must be counted as missed frames!",
+                nanosOfDay[1] - nanosOfDay[0] < (loop.getFrameCount() + loop.getMissedFrames()) * periodNanos);
+        assertThat("Each frame must be measured!", loop.getFrameTimes().getCount(), is(loop.getFrameCount()));
+        assertThat("Each frame must be measured!", loop.getJitter().getCount(), is(loop.getFrameCount()));
+        Assume.assumeTrue("Thread allocation counter is not supported!", allocatedBytes[0] >= 0);
+        assertTrue("Steady state must not allocate!", allocatedBytes[1] - allocatedBytes[0] < 64 * 1024);
+    }
+
+    /**
+     * Reads count of bytes allocated by specified thread, if JVM counts them.
+     *
+     * @param threadId specified id of thread
+     * @return count of allocated bytes, or -1 if it is not available
+     */
+    private static long allocatedBytes(final long threadId) {
+        final ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        if (!(threads instanceof com.sun.management.ThreadMXBean)) {
+            return -1L;
+        }
+        final com.sun.management.ThreadMXBean counter = (com.sun.management.ThreadMXBean) threads;
+        return counter.isThreadAllocatedMemorySupported() && counter.isThreadAllocatedMemoryEnabled()
+                ? counter.getThreadAllocatedBytes(threadId)
+                : -1L;
+    }
+
+    private static Thread findThread(final String name) {
+        return Thread.getAllStackTraces().keySet().stream()
+                .filter(thread -> name.equals(thread.getName()))
+                .findFirst()
+                .orElseThrow(IllegalStateException::new);
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void testFailedListener() throws InterruptedException {
+        final ClockRenderLoop loop = new ClockRenderLoop(MILLISECOND_PATTERN, 1, TimeUnit.MILLISECONDS,
+                Clock.systemDefaultZone(), (nanoOfDay, frame) -> {
+            throw new UnsupportedOperationException();
+        });
+        loop.start();
+        TimeUnit.MILLISECONDS.sleep(50L);
+        loop.stop();
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testInvalidPeriod() {
+        new ClockRenderLoop(MILLISECOND_PATTERN, 0, TimeUnit.MILLISECONDS, Clock.systemDefaultZone(),
+                (nanoOfDay, frame) -> {
+                });
+    }
+}
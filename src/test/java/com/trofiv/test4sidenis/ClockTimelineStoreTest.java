@@ -0,0 +1,157 @@
+package com.trofiv.test4sidenis;
+
+import com.trofiv.test4sidenis.binaryclock.BerlinBinaryClock;
+import com.trofiv.test4sidenis.binaryclock.BinaryClockPattern;
+import com.trofiv.test4sidenis.binaryclock.BinaryClockRowPattern;
+import com.trofiv.test4sidenis.binaryclock.ClockTimelineStore;
+import com.trofiv.test4sidenis.binaryclock.CompiledBinaryClockPattern;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.fail;
+
+@SuppressWarnings("MagicNumber")
+public class ClockTimelineStoreTest {
+    private static final String INVALID_STATE = "Stored state differs from evaluated one!";
+    private static final String INVALID_COUNT = "Count of states in range is invalid!";
+    private static final long SECOND_NANOS = TimeUnit.SECONDS.toNanos(1);
+
+    @Rule
+    public final TemporaryFolder folder = new TemporaryFolder();
+
+    /**
+     * Stores three days of per-second Berlin clock states in small segments, most of them spilled to files,
+     * and compares scanned states with evaluated ones
+     */
+    @Test
+    public void testSpilledRangeScan() throws Exception {
+        final CompiledBinaryClockPattern compiled = BerlinBinaryClock.BERLIN_CLOCK_PATTERN.compile();
+        final long seconds = TimeUnit.DAYS.toSeconds(3);
+        try (ClockTimelineStore store = new ClockTimelineStore(BerlinBinaryClock.BERLIN_CLOCK_PATTERN, 10_000,
+                folder.getRoot().toPath(), 2)) {
+            assertThat("Berlin state must take 13 bytes!", store.getSegmentBytes(), is(13 * 10_000));
+            for (long second = 0; second < seconds; second++) {
+                store.appendEvaluated(second, second % 86400 * SECOND_NANOS);
+            }
+            assertThat(INVALID_COUNT, store.size(), is(seconds));
+            assertThat("Segments must be spilled!", store.getSpilledSegmentCount(), is(store.getSegmentCount() - 3));
+            assertThat("Spilled segments must be files!", folder.getRoot().listFiles().length,
+                    is(store.getSpilledSegmentCount()));
+            final int[] expected = new int[5];
+            final long[] nextSecond = {9_995L};
+            final long visited = store.scan(9_995L, 200_000L, (time, lightCells) -> {
+                assertThat(INVALID_STATE, time, is(nextSecond[0]++));
+                assertThat(INVALID_STATE, lightCells, is(compiled.evaluate(time % 86400 * SECOND_NANOS, expected)));
+            });
+            assertThat(INVALID_COUNT, visited, is(200_000L - 9_995L));
+            assertThat(INVALID_COUNT, store.count(-5L, 5L), is(5L));
+            assertThat(INVALID_COUNT, store.count(seconds - 1, Long.MAX_VALUE), is(1L));
+            assertThat(INVALID_COUNT, store.count(seconds, Long.MAX_VALUE), is(0L));
+        }
+        final File[] files = folder.getRoot().listFiles();
+        assertThat("Spill files must be deleted!", files == null ? 0 : files.length, is(0));
+    }
+
+    @Test
+    public void testColumnWidths() throws Exception {
+        final BinaryClockPattern pattern = new BinaryClockPattern(Arrays.asList(
+                new BinaryClockRowPattern(1, TimeUnit.MINUTES, 1440),
+                new BinaryClockRowPattern(1, TimeUnit.MILLISECONDS, 60000),
+                new BinaryClockRowPattern(1, TimeUnit.NANOSECONDS, 999_999)));
+        try (ClockTimelineStore store = new ClockTimelineStore(pattern, 100, folder.getRoot().toPath(), 0)) {
+            assertThat("Columns must be 2, 2 and 4 bytes wide!", store.getSegmentBytes(), is(100 * (8 + 2 + 2 + 4)));
+            store.append(1L, new int[]{1439, 59_999, 999_999});
+            store.append(1L, new int[]{0, 65535 - 5536, 0});
+            final int[][] states = new int[2][];
+            store.scan(0L, 2L, (time, lightCells) -> states[states[0] == null ? 0 : 1] = lightCells.clone());
+            assertThat(INVALID_STATE, states[0], is(new int[]{1439, 59_999, 999_999}));
+            assertThat(INVALID_STATE, states[1], is(new int[]{0, 59_999, 0}));
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testDecreasingTime() throws Exception {
+        try (ClockTimelineStore store = new ClockTimelineStore(BerlinBinaryClock.BERLIN_CLOCK_PATTERN, 100,
+                folder.getRoot().toPath(), 1)) {
+            store.appendEvaluated(2L, 0L);
+            store.appendEvaluated(1L, 0L);
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testInvalidLightCells() throws Exception {
+        try (ClockTimelineStore store = new ClockTimelineStore(BerlinBinaryClock.BERLIN_CLOCK_PATTERN, 100,
+                folder.getRoot().toPath(), 1)) {
+            store.append(0L, new int[]{5, 0, 0, 0, 0});
+        }
+    }
+
+    /**
+     * Rejected state at segment boundary must not start empty segment, so time still can't decrease
+     */
+    @Test
+    public void testRejectedStateAtSegmentBoundary() throws Exception {
+        try (ClockTimelineStore store = new ClockTimelineStore(BerlinBinaryClock.BERLIN_CLOCK_PATTERN, 2,
+                folder.getRoot().toPath(), 1)) {
+            store.appendEvaluated(10L, 0L);
+            store.appendEvaluated(20L, 0L);
+            try {
+                store.append(30L, new int[]{5, 0, 0, 0, 0});
+                fail("Invalid state must be rejected!");
+            } catch (IllegalArgumentException ignored) {
+                //expected
+            }
+            assertThat("Rejected state must not start segment!", store.getSegmentCount(), is(1));
+            try {
+                store.appendEvaluated(5L, 0L);
+                fail("Decreasing time must be rejected!");
+            } catch (IllegalArgumentException ignored) {
+                //expected
+            }
+            assertThat(INVALID_COUNT, store.size(), is(2L));
+            assertThat(INVALID_COUNT, store.count(0L, 15L), is(1L));
+        }
+    }
+
+    /**
+     * Spill fails while spill directory is missing, store must keep its state and spill normally on retry
+     */
+    @Test
+    public void testFailedSpill() throws Exception {
+        final Path spillDirectory = folder.newFolder("spill").toPath();
+        try (ClockTimelineStore store = new ClockTimelineStore(BerlinBinaryClock.BERLIN_CLOCK_PATTERN, 1,
+                spillDirectory, 1)) {
+            store.appendEvaluated(0L, 0L);
+            store.appendEvaluated(1L, 0L);
+            store.appendEvaluated(2L, 0L);
+            assertThat(INVALID_COUNT, store.getSpilledSegmentCount(), is(1));
+            final Path movedDirectory = Files.move(spillDirectory, folder.getRoot().toPath().resolve("moved"));
+            try {
+                store.appendEvaluated(3L, 0L);
+                fail("Spill to missing directory must fail!");
+            } catch (UncheckedIOException ignored) {
+                //expected
+            }
+            assertThat("Failed spill must not start segment!", store.getSegmentCount(), is(3));
+            Files.move(movedDirectory, spillDirectory);
+            for (long time = 3L; time < 6L; time++) {
+                store.appendEvaluated(time, 0L);
+            }
+            assertThat(INVALID_COUNT, store.size(), is(6L));
+            assertThat("Only one filled segment must stay in memory!", store.getSpilledSegmentCount(),
+                    is(store.getSegmentCount() - 2));
+            assertThat("Spill directory must contain only spilled segments!",
+                    spillDirectory.toFile().listFiles().length, is(store.getSpilledSegmentCount()));
+        }
+    }
+}
@@ -0,0 +1,127 @@
+package com.trofiv.test4sidenis;
+
+import com.trofiv.test4sidenis.binaryclock.BerlinBinaryClock;
+import com.trofiv.test4sidenis.binaryclock.BinaryClockPattern;
+import com.trofiv.test4sidenis.binaryclock.BinaryClockRowPattern;
+import com.trofiv.test4sidenis.binaryclock.ClockTransitionScheduler;
+import com.trofiv.test4sidenis.binaryclock.ClockTransitions;
+import com.trofiv.test4sidenis.binaryclock.CompiledBinaryClockPattern;
+import org.junit.Test;
+
+import java.time.Clock;
+import java.time.LocalTime;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.PrimitiveIterator;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
+
+@SuppressWarnings("MagicNumber")
+public class ClockTransitionsTest {
+    private static final long NANOS_IN_DAY = TimeUnit.DAYS.toNanos(1);
+    private static final String INVALID_TRANSITION = "Next transition is invalid!";
+
+    private static BitSet rows(final int... indexes) {
+        final BitSet rows = new BitSet();
+        for (int index : indexes) {
+            rows.set(index);
+        }
+        return rows;
+    }
+
+    private static long nanos(final String time) {
+        return LocalTime.parse(time).toNanoOfDay();
+    }
+
+    @Test
+    public void testBerlinTransitions() {
+        final ClockTransitions transitions = new ClockTransitions(BerlinBinaryClock.BERLIN_CLOCK_PATTERN);
+        final long time = nanos("13:17:01.5");
+        assertThat(INVALID_TRANSITION, transitions.nextTransition(time), is(nanos("13:17:02")));
+        assertThat(INVALID_TRANSITION, transitions.nextTransition(time, rows(0, 1)), is(nanos("14:00")));
+        assertThat(INVALID_TRANSITION, transitions.nextTransition(time, rows(0)), is(nanos("15:00")));
+        assertThat(INVALID_TRANSITION, transitions.nextTransition(time, rows(2)), is(nanos("13:20")));
+        assertThat(INVALID_TRANSITION, transitions.nextTransition(time, rows(3)), is(nanos("13:18")));
+        assertThat(INVALID_TRANSITION, transitions.nextTransition(nanos("23:59:59.5")), is(NANOS_IN_DAY));
+        assertThat(INVALID_TRANSITION, transitions.nextTransition(NANOS_IN_DAY + time, rows(0, 1)),
+                is(NANOS_IN_DAY + nanos("14:00")));
+    }
+
+    @Test
+    public void testNeverChangingRow() {
+        final ClockTransitions transitions = new ClockTransitions(new BinaryClockPattern(Arrays.asList(
+                new BinaryClockRowPattern(1, TimeUnit.HOURS, 24),
+                new BinaryClockRowPattern(1, TimeUnit.HOURS, 4))));
+        assertThat(INVALID_TRANSITION, transitions.nextTransition(0L, rows(1)), is(ClockTransitions.NO_TRANSITION));
+    }
+
+    /**
+     * Comparing transitions of pattern with unaligned cells with state evaluated at each second of day
+     */
+    @Test
+    public void testSameAsSteppedEvaluation() {
+        final BinaryClockPattern pattern = new BinaryClockPattern(Arrays.asList(
+                new BinaryClockRowPattern(7, TimeUnit.MINUTES, 210),
+                new BinaryClockRowPattern(13, TimeUnit.SECONDS, 40),
+                new BinaryClockRowPattern(1, TimeUnit.SECONDS, 12)));
+        final ClockTransitions transitions = new ClockTransitions(pattern);
+        final CompiledBinaryClockPattern compiled = pattern.compile();
+        for (BitSet subscribed : new BitSet[]{rows(0, 1, 2), rows(1), rows(0), rows(2)}) {
+            final PrimitiveIterator.OfLong iterator = transitions.transitions(0L, NANOS_IN_DAY, subscribed);
+            int[] previous = compiled.evaluate(0L, new int[3]);
+            for (long second = 1; second < TimeUnit.DAYS.toSeconds(1); second++) {
+                final int[] current = compiled.evaluate(TimeUnit.SECONDS.toNanos(second), new int[3]);
+                boolean changed = false;
+                for (int row = subscribed.nextSetBit(0); row >= 0; row = subscribed.nextSetBit(row + 1)) {
+                    changed |= current[row] != previous[row];
+                }
+                if (changed) {
+                    assertTrue(INVALID_TRANSITION, iterator.hasNext());
+                    assertThat(INVALID_TRANSITION, iterator.nextLong(), is(TimeUnit.SECONDS.toNanos(second)));
+                }
+                previous = current;
+            }
+            assertFalse(INVALID_TRANSITION, iterator.hasNext());
+        }
+    }
+
+    @Test
+    public void testScheduler() throws InterruptedException {
+        final CountDownLatch transitions = new CountDownLatch(2);
+        final int[][] states = new int[2][];
+        try (ClockTransitionScheduler scheduler = new ClockTransitionScheduler(
+                BerlinBinaryClock.BERLIN_CLOCK_PATTERN, Clock.systemDefaultZone())) {
+            scheduler.subscribe(rows(4), (nanoOfDay, lightCells) -> {
+                states[2 - (int) transitions.getCount()] = lightCells.clone();
+                transitions.countDown();
+            });
+            assertTrue("Scheduler did not notify about seconds!", transitions.await(5, TimeUnit.SECONDS));
+        }
+        assertFalse(INVALID_TRANSITION, Arrays.equals(states[0], states[1]));
+        assertThat(INVALID_TRANSITION, states[1][4], is((states[0][4] + 1) % 60));
+    }
+
+    /**
+     * Listener fails on the first notification, subscription must keep notifying after it
+     */
+    @Test
+    public void testFailedListener() throws InterruptedException {
+        final CountDownLatch transitions = new CountDownLatch(2);
+        try (ClockTransitionScheduler scheduler = new ClockTransitionScheduler(
+                BerlinBinaryClock.BERLIN_CLOCK_PATTERN, Clock.systemDefaultZone())) {
+            scheduler.subscribe(rows(4), (nanoOfDay, lightCells) -> {
+                transitions.countDown();
+                if (transitions.getCount() == 1) {
+                    throw new IllegalStateException("Listener failure");
+                }
+            });
+            assertTrue("Scheduler stopped after failed listener!", transitions.await(5, TimeUnit.SECONDS));
+            assertThat("Failed notification must be counted!", scheduler.getFailedNotifications(), is(1L));
+        }
+    }
+}
@@ -0,0 +1,96 @@
+package com.trofiv.test4sidenis;
+
+import com.trofiv.test4sidenis.binaryclock.BerlinBinaryClock;
+import com.trofiv.test4sidenis.binaryclock.BinaryClockPattern;
+import com.trofiv.test4sidenis.binaryclock.BinaryClockRowPattern;
+import com.trofiv.test4sidenis.binaryclock.CompiledBinaryClockPattern;
+import com.trofiv.test4sidenis.binaryclock.CompiledBinaryClockPattern.EvaluationMode;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.sameInstance;
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertThat;
+
+@SuppressWarnings("MagicNumber")
+public class CompiledBinaryClockPatternTest {
+    private static final long NANOS_IN_DAY = TimeUnit.DAYS.toNanos(1);
+    private static final int SAMPLES = 100_000;
+    private static final String INVALID_EVALUATION_MODE = "Invalid evaluation mode selected!";
+    private static final BinaryClockPattern POWER_OF_TWO_PATTERN = new BinaryClockPattern(Arrays.asList(
+            new BinaryClockRowPattern(1 << 30, TimeUnit.NANOSECONDS, 81_000),
+            new BinaryClockRowPattern(1 << 20, TimeUnit.NANOSECONDS, 1023),
+            new BinaryClockRowPattern(1 << 10, TimeUnit.NANOSECONDS, 1023),
+            new BinaryClockRowPattern(1, TimeUnit.NANOSECONDS, 1023)
+    ));
+    private static final BinaryClockPattern HOURS_AND_MINUTES_PATTERN = new BinaryClockPattern(Arrays.asList(
+            new BinaryClockRowPattern(5, TimeUnit.HOURS, 4),
+            new BinaryClockRowPattern(1, TimeUnit.HOURS, 4),
+            new BinaryClockRowPattern(5, TimeUnit.MINUTES, 11),
+            new BinaryClockRowPattern(1, TimeUnit.MINUTES, 4)
+    ));
+
+    /**
+     * Naive reference evaluation with time unit conversions for each row.
+     */
+    private static int[] evaluateNaive(final BinaryClockPattern pattern, final long nanoOfDay) {
+        final List<BinaryClockRowPattern> clockRows = pattern.getClockRows();
+        final int[] lightCells = new int[clockRows.size()];
+        long remainNanos = nanoOfDay;
+        for (int rowNumber = 0; rowNumber < clockRows.size(); rowNumber++) {
+            final BinaryClockRowPattern row = clockRows.get(rowNumber);
+            final long covered = row.getCellDurationUnit().convert(remainNanos, TimeUnit.NANOSECONDS) / row.getCellDuration();
+            lightCells[rowNumber] = (int) Math.min(covered, row.getCellsInRow());
+            remainNanos -= row.getCellDurationUnit().toNanos((long) row.getCellDuration() * lightCells[rowNumber]);
+        }
+        return lightCells;
+    }
+
+    private static void assertSameAsNaive(final BinaryClockPattern pattern) {
+        final CompiledBinaryClockPattern compiled = pattern.compile();
+        final int[] lightCells = new int[compiled.getRowCount()];
+        final Random random = new Random(42);
+        for (int sample = 0; sample < SAMPLES; sample++) {
+            final long nanoOfDay = sample == 0 ? NANOS_IN_DAY - 1 : (random.nextLong() >>> 1) % NANOS_IN_DAY;
+            assertArrayEquals("Compiled evaluation differs from naive at " + nanoOfDay + " nanos!",
+                    evaluateNaive(pattern, nanoOfDay), compiled.evaluate(nanoOfDay, lightCells));
+        }
+    }
+
+    @Test
+    public void testUnrolledBerlinPattern() {
+        assertThat(INVALID_EVALUATION_MODE, BerlinBinaryClock.BERLIN_CLOCK_PATTERN.compile().getEvaluationMode(),
+                is(EvaluationMode.UNROLLED_FIVE_ROWS));
+        assertSameAsNaive(BerlinBinaryClock.BERLIN_CLOCK_PATTERN);
+    }
+
+    @Test
+    public void testPowerOfTwoPattern() {
+        assertThat(INVALID_EVALUATION_MODE, POWER_OF_TWO_PATTERN.compile().getEvaluationMode(),
+                is(EvaluationMode.POWER_OF_TWO));
+        assertSameAsNaive(POWER_OF_TWO_PATTERN);
+    }
+
+    @Test
+    public void testGenericPattern() {
+        assertThat(INVALID_EVALUATION_MODE, HOURS_AND_MINUTES_PATTERN.compile().getEvaluationMode(),
+                is(EvaluationMode.GENERIC));
+        assertSameAsNaive(HOURS_AND_MINUTES_PATTERN);
+    }
+
+    @Test
+    public void testCompiledOnce() {
+        assertThat("Compiled pattern was not reused!", HOURS_AND_MINUTES_PATTERN.compile(),
+                sameInstance(HOURS_AND_MINUTES_PATTERN.compile()));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testTimeOutOfDay() {
+        HOURS_AND_MINUTES_PATTERN.compile().evaluate(NANOS_IN_DAY, new int[4]);
+    }
+}
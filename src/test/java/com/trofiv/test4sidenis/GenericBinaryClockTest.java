@@ -0,0 +1,160 @@
+package com.trofiv.test4sidenis;
+
+import com.trofiv.test4sidenis.binaryclock.BerlinBinaryClock;
+import com.trofiv.test4sidenis.binaryclock.BinaryClockRowRepresentation;
+import com.trofiv.test4sidenis.binaryclock.GenericBinaryClock;
+import com.trofiv.test4sidenis.binaryclock.format.ClockFormatter;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import java.lang.management.ManagementFactory;
+import java.time.Instant;
+import java.time.LocalTime;
+import java.time.ZoneId;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
+
+public class GenericBinaryClockTest {
+    private static final int ROWS = 5;
+    private static final int ITERATIONS = 1_000_000;
+    private static final long ALLOCATION_TOLERANCE_BYTES = 16 * 1024;
+    private static final long SECOND_NANOS = TimeUnit.SECONDS.toNanos(1);
+    private static final String CONVERSION_DIFFERS = "Conversion of epoch differs from ZonedDateTime!";
+    private static final String PRIMITIVE_PATH_ALLOCATES = "Primitive evaluation path allocates memory!";
+
+    @SuppressWarnings("StaticVariableMayNotBeInitialized")
+    private static GenericBinaryClock clock;
+
+    @BeforeClass
+    public static void setUp() {
+        clock = new BerlinBinaryClock();
+    }
+
+    @SuppressWarnings("MagicNumber")
+    @Test
+    public void testSameAsRepresentation() {
+        final int[] lightCells = new int[ROWS];
+        for (long nanoOfDay = 0; nanoOfDay < TimeUnit.DAYS.toNanos(1); nanoOfDay += 7 * SECOND_NANOS + 123) {
+            final List<Integer> expected = clock.of(LocalTime.ofNanoOfDay(nanoOfDay), result -> result
+                    .stream()
+                    .map(BinaryClockRowRepresentation::getLightCellsCount)
+                    .collect(Collectors.toList()));
+            clock.calculateLightCells(nanoOfDay, lightCells);
+            for (int rowNumber = 0; rowNumber < ROWS; rowNumber++) {
+                assertEquals(expected.get(rowNumber).intValue(), lightCells[rowNumber]);
+            }
+        }
+    }
+
+    @SuppressWarnings("MagicNumber")
+    @Test
+    public void testPreMidnightLightCells() {
+        final int[] lightCells = clock.calculateLightCells(LocalTime.MAX.toNanoOfDay(), new int[ROWS]);
+        assertThat(lightCells, is(new int[]{4, 3, 11, 4, 59}));
+    }
+
+    @Test
+    public void testNoAllocation() {
+        final com.sun.management.ThreadMXBean threadBean =
+                (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        final long threadId = Thread.currentThread().getId();
+        final int[] lightCells = new int[ROWS];
+        long checksum = evaluate(lightCells);
+        final long allocatedBefore = threadBean.getThreadAllocatedBytes(threadId);
+        checksum += evaluate(lightCells);
+        final long allocated = threadBean.getThreadAllocatedBytes(threadId) - allocatedBefore;
+        assertTrue(PRIMITIVE_PATH_ALLOCATES + " Allocated " + allocated + " bytes",
+                allocated < ALLOCATION_TOLERANCE_BYTES);
+        assertTrue(checksum > 0);
+    }
+
+    @SuppressWarnings("MagicNumber")
+    private static long evaluate(final int[] lightCells) {
+        long checksum = 0;
+        for (int iteration = 0; iteration < ITERATIONS; iteration++) {
+            clock.calculateLightCells(iteration % 86400 * SECOND_NANOS, lightCells);
+            checksum += lightCells[ROWS - 1];
+        }
+        return checksum;
+    }
+
+    /**
+     * Compares epoch entry points with conversion through {@code ZonedDateTime}, for instants around
+     * transitions of daylight saving time and before epoch
+     */
+    @SuppressWarnings("MagicNumber")
+    @Test
+    public void testSameAsZonedDateTime() {
+        final int[] lightCells = new int[ROWS];
+        final int[] expected = new int[ROWS];
+        final Random random = new Random(42L);
+        for (String zoneId : new String[]{"Europe/Berlin", "America/New_York", "Australia/Lord_Howe", "Europe/London"}) {
+            final ZoneId zone = ZoneId.of(zoneId);
+            final long transition = zone.getRules().nextTransition(Instant.parse("2016-01-01T00:00:00Z"))
+                    .toEpochSecond() * 1000L;
+            for (int i = 0; i < 10_000; i++) {
+                final long epochMilli = i % 2 == 0
+                        ? transition + random.nextInt(7_200_000) - 3_600_000
+                        : random.nextLong() % 4_000_000_000_000L;
+                final Instant instant = Instant.ofEpochMilli(epochMilli);
+                clock.calculateLightCells(instant.atZone(zone).toLocalTime().toNanoOfDay(), expected);
+                assertThat(CONVERSION_DIFFERS, clock.calculateLightCellsAtEpochMilli(epochMilli, zone, lightCells),
+                        is(expected));
+                final long epochNano = epochMilli * 1_000_000L + random.nextInt(1_000_000);
+                clock.calculateLightCells(Instant.ofEpochSecond(0L, epochNano).atZone(zone).toLocalTime()
+                        .toNanoOfDay(), expected);
+                assertThat(CONVERSION_DIFFERS, clock.calculateLightCellsAtEpochNano(epochNano, zone, lightCells),
+                        is(expected));
+            }
+        }
+        final ZoneId berlin = ZoneId.of("Europe/Berlin");
+        final long epochMilli = 1468502221123L;
+        assertThat(CONVERSION_DIFFERS, clock.ofEpochMilli(epochMilli, berlin, ClockFormatter.READABLE_FORMATTER),
+                is(clock.of(Instant.ofEpochMilli(epochMilli).atZone(berlin).toLocalTime(),
+                        ClockFormatter.READABLE_FORMATTER)));
+    }
+
+    @SuppressWarnings("MagicNumber")
+    @Test
+    public void testEpochNoAllocation() {
+        final com.sun.management.ThreadMXBean threadBean =
+                (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        final long threadId = Thread.currentThread().getId();
+        final ZoneId zone = ZoneId.of("Europe/Berlin");
+        final int[] lightCells = new int[ROWS];
+        long checksum = evaluateEpoch(zone, lightCells);
+        final long allocatedBefore = threadBean.getThreadAllocatedBytes(threadId);
+        checksum += evaluateEpoch(zone, lightCells);
+        final long allocated = threadBean.getThreadAllocatedBytes(threadId) - allocatedBefore;
+        assertTrue(PRIMITIVE_PATH_ALLOCATES + " Allocated " + allocated + " bytes",
+                allocated < ALLOCATION_TOLERANCE_BYTES);
+        assertTrue(checksum > 0);
+    }
+
+    @SuppressWarnings("MagicNumber")
+    private static long evaluateEpoch(final ZoneId zone, final int[] lightCells) {
+        long checksum = 0;
+        for (int iteration = 0; iteration < ITERATIONS; iteration++) {
+            clock.calculateLightCellsAtEpochMilli(1468502221000L + iteration * 37L, zone, lightCells);
+            checksum += lightCells[ROWS - 1];
+        }
+        return checksum;
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testInvalidNanoOfDay() {
+        clock.calculateLightCells(-1, new int[ROWS]);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testInvalidLightCellsArray() {
+        clock.calculateLightCells(0, new int[ROWS - 1]);
+    }
+}
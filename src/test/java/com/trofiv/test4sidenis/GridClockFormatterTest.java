@@ -0,0 +1,79 @@
+package com.trofiv.test4sidenis;
+
+import com.trofiv.test4sidenis.binaryclock.BerlinBinaryClock;
+import com.trofiv.test4sidenis.binaryclock.BinaryClockPattern;
+import com.trofiv.test4sidenis.binaryclock.BinaryClockRowPattern;
+import com.trofiv.test4sidenis.binaryclock.GenericBinaryClock;
+import com.trofiv.test4sidenis.binaryclock.format.GridClockFormatter;
+import org.junit.Test;
+
+import java.time.LocalTime;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.concurrent.TimeUnit;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+
+@SuppressWarnings({"MagicNumber", "HardcodedLineSeparator"})
+public class GridClockFormatterTest {
+    private static final String INVALID_GRID = "Formatted grid differs from expected!";
+
+    @Test
+    public void testBerlinPatternWithBlinkRow() {
+        final GridClockFormatter formatter = new GridClockFormatter(BerlinBinaryClock.BERLIN_CLOCK_PATTERN,
+                Integer.MAX_VALUE, Collections.singleton(4));
+        assertThat(INVALID_GRID, new BerlinBinaryClock().of(LocalTime.of(13, 17, 1), formatter), is(""
+                + "[X][X][ ][ ]\n"
+                + "[X][X][X][ ]\n"
+                + "[X][X][X][ ][ ][ ][ ][ ][ ][ ][ ]\n"
+                + "[X][X][ ][ ]\n"
+                + "[X]\n"));
+    }
+
+    @Test
+    public void testWrappedRows() {
+        final GridClockFormatter formatter = new GridClockFormatter(BerlinBinaryClock.BERLIN_CLOCK_PATTERN,
+                5, Collections.emptySet());
+        assertThat(INVALID_GRID, formatter.formatTo(new int[]{0, 4, 6, 1, 12}, new StringBuilder()).toString(), is(""
+                + "[ ][ ][ ][ ]\n"
+                + "[X][X][X][X]\n"
+                + "[X][X][X][X][X]\n"
+                + "[X][ ][ ][ ][ ]\n"
+                + "[ ]\n"
+                + "[X][ ][ ][ ]\n"
+                + "[X][X][X][X][X]\n"
+                + "[X][X][X][X][X]\n"
+                + "[X][X][ ][ ][ ]\n"
+                + "[ ][ ][ ][ ][ ]\n"
+                + "[ ][ ][ ][ ][ ]\n"
+                + "[ ][ ][ ][ ][ ]\n"
+                + "[ ][ ][ ][ ][ ]\n"
+                + "[ ][ ][ ][ ][ ]\n"
+                + "[ ][ ][ ][ ][ ]\n"
+                + "[ ][ ][ ][ ][ ]\n"
+                + "[ ][ ][ ][ ][ ]\n"
+                + "[ ][ ][ ][ ]\n"));
+    }
+
+    @Test
+    public void testWideRow() {
+        final BinaryClockPattern pattern = new BinaryClockPattern(Arrays.asList(
+                new BinaryClockRowPattern(1, TimeUnit.HOURS, 24),
+                new BinaryClockRowPattern(1, TimeUnit.MILLISECONDS, 3_600_000)));
+        final GenericBinaryClock clock = new GenericBinaryClock(pattern);
+        final String grid = clock.of(LocalTime.of(2, 0, 1, 500_000_000), new GridClockFormatter(pattern, 1000,
+                Collections.emptySet()));
+        final String[] lines = grid.split("\n");
+        assertThat(lines.length, is(1 + 3600));
+        assertThat(lines[1], is(String.join("", Collections.nCopies(1000, "[X]"))));
+        assertThat(lines[2], is(String.join("", Collections.nCopies(500, "[X]")) + String.join("", Collections.nCopies(500, "[ ]"))));
+        assertThat(lines[3], is(String.join("", Collections.nCopies(1000, "[ ]"))));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testInvalidBlinkRow() {
+        //noinspection ResultOfObjectAllocationIgnored
+        new GridClockFormatter(BerlinBinaryClock.BERLIN_CLOCK_PATTERN, 10, Collections.singleton(5));
+    }
+}
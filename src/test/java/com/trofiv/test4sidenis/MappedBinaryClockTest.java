@@ -0,0 +1,107 @@
+package com.trofiv.test4sidenis;
+
+import com.trofiv.test4sidenis.binaryclock.BerlinBinaryClock;
+import com.trofiv.test4sidenis.binaryclock.BinaryClockPattern;
+import com.trofiv.test4sidenis.binaryclock.BinaryClockRowPattern;
+import com.trofiv.test4sidenis.binaryclock.MappedBinaryClock;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.fail;
+
+public class MappedBinaryClockTest {
+    private static final int SECONDS_IN_DAY = 86400;
+    private static final String INVALID_TABLE_CHECK = "Table file check is invalid!";
+    private static final String TABLE_REWRITTEN = "Valid table file was rewritten!";
+    private static final String TEMPORARY_FILE_LEFT = "Temporary table file was left after failure!";
+
+    @Rule
+    public final TemporaryFolder folder = new TemporaryFolder();
+
+    /**
+     * Looping all seconds-precision time of the day and comparing result of mapped clock with calculating clock
+     */
+    @SuppressWarnings("MagicNumber")
+    @Test
+    public void testSameAsCalculated() throws IOException {
+        final Path tableFile = folder.getRoot().toPath().resolve("berlin.table");
+        final MappedBinaryClock mappedClock = MappedBinaryClock.openOrCreate(
+                BerlinBinaryClock.BERLIN_CLOCK_PATTERN, tableFile);
+        final BerlinBinaryClock clock = new BerlinBinaryClock();
+        final int[] expected = new int[5];
+        final int[] actual = new int[5];
+        for (int second = 0; second < SECONDS_IN_DAY; second++) {
+            final long nanoOfDay = TimeUnit.SECONDS.toNanos(second) + 500_000_000L;
+            assertArrayEquals("Mapped and calculated results differ at second " + second + '!',
+                    clock.calculateLightCells(nanoOfDay, expected), mappedClock.calculateLightCells(nanoOfDay, actual));
+        }
+    }
+
+    @Test
+    public void testReuseExistingTable() throws IOException {
+        final Path tableFile = folder.getRoot().toPath().resolve("berlin.table");
+        MappedBinaryClock.writeTable(BerlinBinaryClock.BERLIN_CLOCK_PATTERN, tableFile);
+        final long modified = Files.getLastModifiedTime(tableFile).toMillis();
+        assertThat(INVALID_TABLE_CHECK, MappedBinaryClock.isTableFor(BerlinBinaryClock.BERLIN_CLOCK_PATTERN, tableFile),
+                is(true));
+        MappedBinaryClock.openOrCreate(BerlinBinaryClock.BERLIN_CLOCK_PATTERN, tableFile);
+        assertThat(TABLE_REWRITTEN, Files.getLastModifiedTime(tableFile).toMillis(), is(modified));
+    }
+
+    @SuppressWarnings("MagicNumber")
+    @Test
+    public void testTableOfAnotherPattern() throws IOException {
+        final Path tableFile = folder.getRoot().toPath().resolve("other.table");
+        final BinaryClockPattern otherPattern = new BinaryClockPattern(Arrays.asList(
+                new BinaryClockRowPattern(6, TimeUnit.HOURS, 4),
+                new BinaryClockRowPattern(1, TimeUnit.SECONDS, 59)));
+        MappedBinaryClock.writeTable(otherPattern, tableFile);
+        assertThat(INVALID_TABLE_CHECK, MappedBinaryClock.isTableFor(BerlinBinaryClock.BERLIN_CLOCK_PATTERN, tableFile),
+                is(false));
+        final MappedBinaryClock mappedClock = MappedBinaryClock.openOrCreate(
+                BerlinBinaryClock.BERLIN_CLOCK_PATTERN, tableFile);
+        assertThat(INVALID_TABLE_CHECK, MappedBinaryClock.isTableFor(BerlinBinaryClock.BERLIN_CLOCK_PATTERN, tableFile),
+                is(true));
+        assertThat(INVALID_TABLE_CHECK, mappedClock.getUnitNanos(), is(TimeUnit.SECONDS.toNanos(1)));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testTruncatedTable() throws IOException {
+        final Path tableFile = folder.getRoot().toPath().resolve("truncated.table");
+        MappedBinaryClock.writeTable(BerlinBinaryClock.BERLIN_CLOCK_PATTERN, tableFile);
+        final byte[] content = Files.readAllBytes(tableFile);
+        Files.write(tableFile, Arrays.copyOf(content, content.length / 2), StandardOpenOption.TRUNCATE_EXISTING);
+        new MappedBinaryClock(BerlinBinaryClock.BERLIN_CLOCK_PATTERN, tableFile);
+    }
+
+    /**
+     * Table can not replace non-empty directory, temporary file must be removed after failed move
+     */
+    @Test
+    public void testFailedWrite() throws IOException {
+        final Path tableFile = folder.newFolder("occupied.table").toPath();
+        Files.createFile(tableFile.resolve("content"));
+        try {
+            MappedBinaryClock.writeTable(BerlinBinaryClock.BERLIN_CLOCK_PATTERN, tableFile);
+            fail("Table replaced non-empty directory!");
+        } catch (IOException expected) {
+            try (DirectoryStream<Path> files = Files.newDirectoryStream(folder.getRoot().toPath())) {
+                for (Path file : files) {
+                    assertThat(TEMPORARY_FILE_LEFT, file, is(tableFile));
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,107 @@
+package com.trofiv.test4sidenis;
+
+import com.trofiv.test4sidenis.binaryclock.BerlinBinaryClock;
+import com.trofiv.test4sidenis.binaryclock.BinaryClockPattern;
+import com.trofiv.test4sidenis.binaryclock.BinaryClockRowPattern;
+import com.trofiv.test4sidenis.binaryclock.BinaryClockRowRepresentation;
+import com.trofiv.test4sidenis.binaryclock.PrecomputedBinaryClock;
+import com.trofiv.test4sidenis.binaryclock.format.ClockFormatter;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import java.time.LocalTime;
+import java.time.format.DateTimeFormatter;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.sameInstance;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertThat;
+
+public class PrecomputedBinaryClockTest {
+    private static final int SECONDS_IN_DAY = 86400;
+    private static final String INVALID_TABLE_SIZE = "Invalid count of precomputed states!";
+    private static final String CACHED_VALUE_NOT_REUSED = "Cached representation was not reused!";
+    private static final Function<List<BinaryClockRowRepresentation>, List<Integer>> LIGHT_CELLS =
+            result -> result.stream().map(BinaryClockRowRepresentation::getLightCellsCount).collect(Collectors.toList());
+
+    @SuppressWarnings("StaticVariableMayNotBeInitialized")
+    private static BerlinBinaryClock clock;
+    @SuppressWarnings("StaticVariableMayNotBeInitialized")
+    private static PrecomputedBinaryClock precomputedClock;
+
+    @BeforeClass
+    public static void setUp() {
+        clock = new BerlinBinaryClock();
+        precomputedClock = BerlinBinaryClock.precomputed();
+    }
+
+    @Test
+    public void testTableSize() {
+        assertThat(INVALID_TABLE_SIZE, precomputedClock.getTableSize(), is(SECONDS_IN_DAY));
+        assertThat(INVALID_TABLE_SIZE, precomputedClock.getUnitNanos(), is(TimeUnit.SECONDS.toNanos(1)));
+    }
+
+    /**
+     * Looping all seconds-precision time from 00:00:00 to 23:59:59 with half-second shift
+     * and comparing result of table-backed clock with result of calculating clock
+     */
+    @SuppressWarnings("MagicNumber")
+    @Test
+    public void testSameAsCalculated() {
+        for (int second = 0; second < SECONDS_IN_DAY; second++) {
+            final LocalTime time = LocalTime.ofSecondOfDay(second).plusNanos(500_000_000L);
+            //noinspection MagicCharacter
+            assertEquals("Table-backed and calculated results differents at time "
+                            + time.format(DateTimeFormatter.ISO_LOCAL_TIME) + '!',
+                    clock.of(time, LIGHT_CELLS), precomputedClock.of(time, LIGHT_CELLS));
+        }
+    }
+
+    @SuppressWarnings("MagicNumber")
+    @Test
+    public void testCachedFormatting() {
+        final LocalTime time = LocalTime.of(13, 17, 1);
+        final String formatted = precomputedClock.ofCached(time, ClockFormatter.BERLIN_CLOCK_FORMATTER);
+        assertThat(formatted, is(clock.of(time, ClockFormatter.BERLIN_CLOCK_FORMATTER)));
+        assertThat(CACHED_VALUE_NOT_REUSED,
+                precomputedClock.ofCached(time.plusNanos(1), ClockFormatter.BERLIN_CLOCK_FORMATTER), sameInstance(formatted));
+    }
+
+    /**
+     * Alternating formatters must not mix their cached representations
+     */
+    @SuppressWarnings("MagicNumber")
+    @Test
+    public void testCachedFormattingOfSeveralFormatters() {
+        final LocalTime time = LocalTime.of(13, 17, 1);
+        final String berlin = precomputedClock.ofCached(time, ClockFormatter.BERLIN_CLOCK_FORMATTER);
+        final String readable = precomputedClock.ofCached(time, ClockFormatter.READABLE_FORMATTER);
+        assertThat(readable, is(clock.of(time, ClockFormatter.READABLE_FORMATTER)));
+        assertThat(CACHED_VALUE_NOT_REUSED,
+                precomputedClock.ofCached(time, ClockFormatter.BERLIN_CLOCK_FORMATTER), sameInstance(berlin));
+        assertThat(CACHED_VALUE_NOT_REUSED,
+                precomputedClock.ofCached(time, ClockFormatter.READABLE_FORMATTER), sameInstance(readable));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    @SuppressWarnings({"unused", "UnusedAssignment"})
+    public void testIncompatibleCellDurations() {
+        final BinaryClockPattern pattern = new BinaryClockPattern(Arrays.asList(
+                new BinaryClockRowPattern(5, TimeUnit.HOURS, 5),
+                new BinaryClockRowPattern(2, TimeUnit.SECONDS, 40000),
+                new BinaryClockRowPattern(3, TimeUnit.SECONDS, 2)
+        ));
+        final PrecomputedBinaryClock invalidClock = new PrecomputedBinaryClock(pattern);
+    }
+
+    @Test(expected = NullPointerException.class)
+    public void testInvalidSourceTime() {
+        final LocalTime testTime = null;
+        precomputedClock.<String>of(testTime, result -> "");
+    }
+}
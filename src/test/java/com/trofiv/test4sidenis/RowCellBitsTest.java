@@ -0,0 +1,86 @@
+package com.trofiv.test4sidenis;
+
+import com.trofiv.test4sidenis.binaryclock.BinaryClockRowPattern;
+import com.trofiv.test4sidenis.binaryclock.BinaryClockRowRepresentation;
+import com.trofiv.test4sidenis.binaryclock.RowCellBits;
+import org.junit.Test;
+
+import java.util.BitSet;
+import java.util.concurrent.TimeUnit;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.sameInstance;
+import static org.junit.Assert.assertThat;
+
+@SuppressWarnings("MagicNumber")
+public class RowCellBitsTest {
+    private static final String INVALID_BITS = "Bits of cells are invalid!";
+
+    private static BitSet naiveBits(final int lightCellsCount) {
+        final BitSet bits = new BitSet();
+        for (int cellNumber = 0; cellNumber < lightCellsCount; cellNumber++) {
+            bits.set(cellNumber);
+        }
+        return bits;
+    }
+
+    /**
+     * Compares words of row with bits set cell by cell, for counts around word boundaries
+     */
+    @Test
+    public void testSameAsCellByCell() {
+        final int cellCount = 200;
+        for (int lightCellsCount = 0; lightCellsCount <= cellCount; lightCellsCount++) {
+            final RowCellBits cellBits = new RowCellBits(cellCount, lightCellsCount);
+            final BitSet expected = naiveBits(lightCellsCount);
+            assertThat(INVALID_BITS, cellBits.toBitSet(), is(expected));
+            final long[] expectedWords = expected.toLongArray();
+            assertThat(INVALID_BITS, cellBits.getWordCount(), is(4));
+            for (int wordIndex = 0; wordIndex < cellBits.getWordCount(); wordIndex++) {
+                final long expectedWord = wordIndex < expectedWords.length ? expectedWords[wordIndex] : 0L;
+                assertThat(INVALID_BITS, cellBits.getWord(wordIndex), is(expectedWord));
+                assertThat(INVALID_BITS, cellBits.toLongArray()[wordIndex], is(expectedWord));
+            }
+            assertThat(INVALID_BITS, cellBits.isLit(63), is(lightCellsCount > 63));
+        }
+    }
+
+    @Test
+    public void testComparison() {
+        final RowCellBits before = new RowCellBits(60000, 1000);
+        final RowCellBits after = new RowCellBits(60000, 1130);
+        assertThat(INVALID_BITS, before.mismatch(after), is(1000));
+        assertThat(INVALID_BITS, after.mismatch(before), is(1000));
+        assertThat(INVALID_BITS, before.mismatch(new RowCellBits(60000, 1000)), is(-1));
+        final BitSet changed = new BitSet();
+        for (int wordIndex = 0; wordIndex < before.getWordCount(); wordIndex++) {
+            final long word = before.getChangedWord(after, wordIndex);
+            for (int bit = 0; bit < 64; bit++) {
+                if ((word & (1L << bit)) != 0) {
+                    changed.set(wordIndex * 64 + bit);
+                }
+            }
+        }
+        final BitSet expected = new BitSet();
+        expected.set(1000, 1130);
+        assertThat(INVALID_BITS, changed, is(expected));
+    }
+
+    @Test
+    public void testRepresentationView() {
+        final BinaryClockRowRepresentation row = new BinaryClockRowRepresentation(
+                new BinaryClockRowPattern(1, TimeUnit.MILLISECONDS, 60000), 12345);
+        assertThat(INVALID_BITS, row.getCellBits(), is(new RowCellBits(60000, 12345)));
+        assertThat("View must be shared!", row.getCellBits(), sameInstance(row.getCellBits()));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testDifferentWidths() {
+        new RowCellBits(60, 1).mismatch(new RowCellBits(59, 1));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testInvalidLightCells() {
+        new RowCellBits(4, 5);
+    }
+}
@@ -0,0 +1,80 @@
+package com.trofiv.test4sidenis;
+
+import com.trofiv.test4sidenis.binaryclock.BerlinBinaryClock;
+import com.trofiv.test4sidenis.binaryclock.BinaryClockPattern;
+import com.trofiv.test4sidenis.binaryclock.BinaryClockRowPattern;
+import com.trofiv.test4sidenis.binaryclock.CompiledBinaryClockPattern;
+import com.trofiv.test4sidenis.binaryclock.TickingBinaryClock;
+import org.junit.Test;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.concurrent.TimeUnit;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertThat;
+
+@SuppressWarnings("MagicNumber")
+public class TickingBinaryClockTest {
+    private static final int SECONDS_IN_DAY = 86400;
+    private static final Clock MIDNIGHT = Clock.fixed(Instant.EPOCH, ZoneOffset.UTC);
+    private static final String INVALID_TICKED_STATE = "Ticked state differs from calculated!";
+    private static final String INVALID_CHANGED_ROWS = "Invalid set of changed rows!";
+
+    private static void assertTicksLikeCalculated(final BinaryClockPattern pattern, final long units) {
+        final CompiledBinaryClockPattern compiledPattern = pattern.compile();
+        final TickingBinaryClock clock = new TickingBinaryClock(pattern, MIDNIGHT, 0);
+        final int[] previous = clock.getLightCells(new int[compiledPattern.getRowCount()]);
+        final int[] expected = new int[compiledPattern.getRowCount()];
+        final int[] actual = new int[compiledPattern.getRowCount()];
+        long nanoOfDay = 0;
+        for (int tick = 0; tick < SECONDS_IN_DAY + 10; tick++) {
+            final BitSet changedRows = clock.advance(units);
+            nanoOfDay = (nanoOfDay + units * clock.getUnitNanos()) % TimeUnit.DAYS.toNanos(1);
+            compiledPattern.evaluate(nanoOfDay, expected);
+            assertArrayEquals(INVALID_TICKED_STATE, expected, clock.getLightCells(actual));
+            for (int rowNumber = 0; rowNumber < expected.length; rowNumber++) {
+                assertThat(INVALID_CHANGED_ROWS, changedRows.get(rowNumber), is(expected[rowNumber] != previous[rowNumber]));
+            }
+            System.arraycopy(expected, 0, previous, 0, expected.length);
+        }
+    }
+
+    @Test
+    public void testBerlinTicks() {
+        assertThat(new TickingBinaryClock(BerlinBinaryClock.BERLIN_CLOCK_PATTERN, MIDNIGHT, 0).isMixedRadix(), is(true));
+        assertTicksLikeCalculated(BerlinBinaryClock.BERLIN_CLOCK_PATTERN, 1);
+    }
+
+    @Test
+    public void testBerlinMultiUnitTicks() {
+        assertTicksLikeCalculated(BerlinBinaryClock.BERLIN_CLOCK_PATTERN, 61);
+    }
+
+    @Test
+    public void testRecalculatedTicks() {
+        final BinaryClockPattern pattern = new BinaryClockPattern(Arrays.asList(
+                new BinaryClockRowPattern(7, TimeUnit.HOURS, 4),
+                new BinaryClockRowPattern(13, TimeUnit.MINUTES, 40),
+                new BinaryClockRowPattern(1, TimeUnit.SECONDS, 10)));
+        assertThat(new TickingBinaryClock(pattern, MIDNIGHT, 0).isMixedRadix(), is(false));
+        assertTicksLikeCalculated(pattern, 1);
+    }
+
+    @Test
+    public void testPeriodicResync() {
+        final TickingBinaryClock clock = new TickingBinaryClock(BerlinBinaryClock.BERLIN_CLOCK_PATTERN, MIDNIGHT, 10);
+        for (int tick = 0; tick < 9; tick++) {
+            clock.tick();
+        }
+        assertThat(clock.getNanoOfDay(), is(TimeUnit.SECONDS.toNanos(9)));
+        final BitSet changedRows = clock.tick();
+        assertThat(clock.getNanoOfDay(), is(0L));
+        assertThat(INVALID_CHANGED_ROWS, changedRows.cardinality(), is(1));
+        assertThat(INVALID_CHANGED_ROWS, changedRows.get(4), is(true));
+    }
+}
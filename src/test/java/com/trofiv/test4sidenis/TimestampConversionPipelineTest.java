@@ -0,0 +1,174 @@
+package com.trofiv.test4sidenis;
+
+import com.trofiv.test4sidenis.binaryclock.BerlinBinaryClock;
+import com.trofiv.test4sidenis.binaryclock.BinaryClockPattern;
+import com.trofiv.test4sidenis.binaryclock.BinaryClockRowPattern;
+import com.trofiv.test4sidenis.binaryclock.GenericBinaryClock;
+import com.trofiv.test4sidenis.binaryclock.format.BerlinClockParser;
+import com.trofiv.test4sidenis.pipeline.TimestampConversionPipeline;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.ClosedByInterruptException;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.fail;
+
+@SuppressWarnings({"MagicNumber", "HardcodedLineSeparator"})
+public class TimestampConversionPipelineTest {
+    private static final String INVALID_OUTPUT = "Pipeline output is invalid!";
+    private static final String INVALID_LINE_COUNT = "Count of converted lines is invalid!";
+
+    private static String convert(final String input, final ZoneId zone,
+                                  final TimestampConversionPipeline.OutputFormat outputFormat)
+            throws IOException, InterruptedException {
+        final TimestampConversionPipeline pipeline = new TimestampConversionPipeline(
+                BerlinBinaryClock.shared(), zone, outputFormat);
+        final ByteArrayOutputStream output = new ByteArrayOutputStream();
+        pipeline.run(Channels.newChannel(new ByteArrayInputStream(input.getBytes(StandardCharsets.US_ASCII))),
+                Channels.newChannel(output));
+        return new String(output.toByteArray(), StandardCharsets.US_ASCII);
+    }
+
+    @Test
+    public void testTimestampFormats() throws IOException, InterruptedException {
+        final String input = "13:17:01\n"
+                + "\n"
+                + "00:00\r\n"
+                + "23:59:59.999999999\n"
+                + "2016-07-14T13:17:01+02:00\n"
+                + "2016-07-14T13:17:01\n"
+                + "1468502221\n"
+                + "-1.5";
+        assertThat(INVALID_OUTPUT, convert(input, ZoneOffset.ofHours(3), TimestampConversionPipeline.OutputFormat.COUNTS),
+                is("2 3 3 2 1\n"
+                        + "0 0 0 0 0\n"
+                        + "4 3 11 4 59\n"
+                        + "2 4 3 2 1\n"
+                        + "2 3 3 2 1\n"
+                        + "3 1 3 2 1\n"
+                        + "0 2 11 4 58\n"));
+    }
+
+    /**
+     * Converting whole day in Berlin clock layout, including lines split by read buffer boundary,
+     * and reading frames back with {@code BerlinClockParser}
+     */
+    @Test
+    public void testBerlinGridRoundTrip() throws IOException, InterruptedException {
+        final StringBuilder input = new StringBuilder();
+        final List<LocalTime> times = new ArrayList<>();
+        for (int second = 0; second < 86400; second++) {
+            times.add(LocalTime.ofSecondOfDay(second));
+            input.append(LocalTime.ofSecondOfDay(second).withNano(123_000_000)).append('\n');
+        }
+        final String output = convert(input.toString(), ZoneOffset.UTC,
+                TimestampConversionPipeline.OutputFormat.BERLIN_GRID);
+        final List<LocalTime> parsedTimes = new ArrayList<>();
+        final int count = new BerlinClockParser().parseAll(output,
+                (lowerBound, uncertainty) -> parsedTimes.add(LocalTime.ofNanoOfDay(lowerBound)));
+        assertThat(INVALID_LINE_COUNT, count, is(times.size()));
+        for (int index = 0; index < times.size(); index++) {
+            assertThat(INVALID_OUTPUT, parsedTimes.get(index), is(times.get(index).withSecond(index % 2)));
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testInvalidTimestamp() throws IOException, InterruptedException {
+        convert("12:00:00\n25:00:00\n", ZoneOffset.UTC, TimestampConversionPipeline.OutputFormat.COUNTS);
+    }
+
+    /**
+     * Reader fails with error, pipeline must rethrow it instead of waiting for output forever
+     */
+    @Test(expected = OutOfMemoryError.class, timeout = 10_000)
+    public void testReaderError() throws IOException, InterruptedException {
+        new TimestampConversionPipeline(BerlinBinaryClock.shared(), ZoneOffset.UTC,
+                TimestampConversionPipeline.OutputFormat.COUNTS).run(new ReadableByteChannel() {
+            @Override
+            public int read(final ByteBuffer target) {
+                throw new OutOfMemoryError("Reader failure");
+            }
+
+            @Override
+            public boolean isOpen() {
+                return true;
+            }
+
+            @Override
+            public void close() {
+            }
+        }, Channels.newChannel(new ByteArrayOutputStream()));
+    }
+
+    /**
+     * Reader fails while calling thread is blocked in slow write, pipeline must report reader failure
+     * and keep calling thread not interrupted
+     */
+    @Test(timeout = 60_000)
+    public void testReaderFailureDuringWrite() throws IOException, InterruptedException {
+        final StringBuilder input = new StringBuilder();
+        for (int line = 0; line < 300_000; line++) {
+            input.append("13:17:01\n");
+        }
+        input.append("garbage\n");
+        final TimestampConversionPipeline pipeline = new TimestampConversionPipeline(BerlinBinaryClock.shared(),
+                ZoneOffset.UTC, TimestampConversionPipeline.OutputFormat.COUNTS);
+        try {
+            pipeline.run(Channels.newChannel(new ByteArrayInputStream(input.toString().getBytes(
+                    StandardCharsets.US_ASCII))), new WritableByteChannel() {
+                @Override
+                public int write(final ByteBuffer source) throws IOException {
+                    //interruptible channel is closed by interrupt of writing thread and keeps interrupt status
+                    try {
+                        Thread.sleep(20);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        throw new ClosedByInterruptException();
+                    }
+                    final int written = source.remaining();
+                    source.position(source.limit());
+                    return written;
+                }
+
+                @Override
+                public boolean isOpen() {
+                    return true;
+                }
+
+                @Override
+                public void close() {
+                }
+            });
+            fail("Invalid timestamp was converted!");
+        } catch (IllegalArgumentException e) {
+            assertThat(INVALID_OUTPUT, e.getMessage(), is("Invalid timestamp at line 300001!"));
+        }
+        assertFalse("Calling thread was interrupted by pipeline!", Thread.interrupted());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testGridOfAnotherPattern() {
+        final List<BinaryClockRowPattern> clockRows =
+                new ArrayList<>(BerlinBinaryClock.BERLIN_CLOCK_PATTERN.getClockRows().subList(0, 4));
+        clockRows.add(new BinaryClockRowPattern(1, TimeUnit.SECONDS, 60));
+        //noinspection ResultOfObjectAllocationIgnored
+        new TimestampConversionPipeline(new GenericBinaryClock(new BinaryClockPattern(clockRows)),
+                ZoneOffset.UTC, TimestampConversionPipeline.OutputFormat.BERLIN_GRID);
+    }
+}
@@ -0,0 +1,71 @@
+package com.trofiv.test4sidenis;
+
+import com.trofiv.test4sidenis.binaryclock.BerlinBinaryClock;
+import com.trofiv.test4sidenis.binaryclock.BinaryClockRowRepresentation;
+import com.trofiv.test4sidenis.binaryclock.WorldClockRenderer;
+import com.trofiv.test4sidenis.binaryclock.ZoneOffsetCache;
+import com.trofiv.test4sidenis.binaryclock.format.ClockFormatter;
+import org.junit.Test;
+
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertThat;
+
+public class WorldClockRendererTest {
+    private static final String INVALID_OFFSET = "Cached offset differs from zone rules!";
+    private static final String INVALID_RENDER_COUNT = "Equal local times were rendered more than once!";
+    private static final List<ZoneId> ALL_ZONES = ZoneId.getAvailableZoneIds().stream()
+            .sorted()
+            .map(ZoneId::of)
+            .collect(Collectors.toList());
+
+    @Test
+    public void testSameAsSeparateConversions() {
+        final BerlinBinaryClock clock = new BerlinBinaryClock();
+        final WorldClockRenderer renderer = new WorldClockRenderer(clock);
+        final AtomicInteger renderCount = new AtomicInteger();
+        final Function<List<BinaryClockRowRepresentation>, String> countingFormatter = rows -> {
+            renderCount.incrementAndGet();
+            return ClockFormatter.BERLIN_CLOCK_FORMATTER.apply(rows);
+        };
+        final Instant instant = Instant.parse("2016-07-14T12:34:56.789Z");
+        final Map<ZoneId, String> rendered = renderer.render(instant, ALL_ZONES, countingFormatter);
+        final Set<Object> distinctTimes = new HashSet<>();
+        for (ZoneId zone : ALL_ZONES) {
+            distinctTimes.add(instant.atZone(zone).toLocalTime());
+            assertEquals("Rendered time differs at zone " + zone + '!',
+                    clock.of(instant.atZone(zone).toLocalTime(), ClockFormatter.BERLIN_CLOCK_FORMATTER),
+                    rendered.get(zone));
+        }
+        assertThat(INVALID_RENDER_COUNT, renderCount.get(), is(distinctTimes.size()));
+    }
+
+    /**
+     * Checking offsets one second before, at and after daylight saving time transitions
+     */
+    @Test
+    public void testOffsetTransitions() {
+        final ZoneOffsetCache cache = new ZoneOffsetCache();
+        final ZoneId berlin = ZoneId.of("Europe/Berlin");
+        final long springForward = Instant.parse("2016-03-27T01:00:00Z").getEpochSecond();
+        final long fallBack = Instant.parse("2016-10-30T01:00:00Z").getEpochSecond();
+        for (long transition : new long[]{springForward, fallBack, springForward}) {
+            for (long epochSecond = transition - 1; epochSecond <= transition + 1; epochSecond++) {
+                assertThat(INVALID_OFFSET, cache.getOffset(berlin, epochSecond),
+                        is(berlin.getRules().getOffset(Instant.ofEpochSecond(epochSecond))));
+            }
+        }
+        assertThat(INVALID_OFFSET, cache.getOffset(ZoneOffset.ofHours(3), springForward), is(ZoneOffset.ofHours(3)));
+    }
+}